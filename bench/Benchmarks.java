@@ -0,0 +1,32 @@
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The Benchmarks class is the entry point of the benchmark suite. It accepts the usual
+ * JMH command line options, such as a benchmark name pattern or {@code -p megapixels=1},
+ * and always reports the allocation rate alongside the throughput of each benchmark.
+ */
+public final class Benchmarks {
+
+  private Benchmarks() {
+  }
+
+  /**
+   * Run the benchmarks selected on the command line, or all of them.
+   *
+   * @param args JMH command line options.
+   * @throws RunnerException             If a benchmark fails.
+   * @throws CommandLineOptionException If the options cannot be parsed.
+   */
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    new Runner(new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+  }
+}
@@ -0,0 +1,85 @@
+package controller;
+
+import codec.EncodingParameters;
+import model.BenchmarkImages;
+import model.ImageData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import exceptions.FileFormatNotSupportedException;
+
+/**
+ * Benchmarks saving PNG files through ImageIO against the parallel {@link PngEncoder}, at
+ * the same compression level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class PngEncoderBenchmark {
+
+  @Param({"1", "12", "50"})
+  public int megapixels;
+
+  @Param({"1", "4", "9"})
+  public int compressionLevel;
+
+  private ImageFileIO fileIO;
+  private ImageData imageData;
+  private EncodingParameters imageIoParameters;
+  private EncodingParameters parallelParameters;
+  private File directory;
+  private String savePath;
+
+  /**
+   * Create the synthetic image to save.
+   *
+   * @throws IOException If the temporary directory cannot be created.
+   */
+  @Setup
+  public void setup() throws IOException {
+    fileIO = new RgbImageFileIO();
+    imageData = BenchmarkImages.rgbImage(megapixels);
+    imageIoParameters = new EncodingParameters().withPngCompressionLevel(compressionLevel);
+    parallelParameters = imageIoParameters.withParallelPng(true);
+    directory = Files.createTempDirectory("png-benchmark").toFile();
+    savePath = new File(directory, "target.png").getPath();
+  }
+
+  /**
+   * Remove the file written by the benchmarks.
+   */
+  @TearDown
+  public void tearDown() {
+    new File(savePath).delete();
+    directory.delete();
+  }
+
+  @Benchmark
+  public void imageIo() throws IOException, FileFormatNotSupportedException {
+    fileIO.save(savePath, imageData, imageIoParameters);
+  }
+
+  @Benchmark
+  public void parallel() throws IOException, FileFormatNotSupportedException {
+    fileIO.save(savePath, imageData, parallelParameters);
+  }
+}
@@ -0,0 +1,90 @@
+package controller;
+
+import model.BenchmarkImages;
+import model.ImageData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import exceptions.FileFormatNotSupportedException;
+
+/**
+ * Benchmarks for loading and saving images with {@link RgbImageFileIO}, for every
+ * supported file format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class RgbImageFileIOBenchmark {
+
+  @Param({"1", "12", "50"})
+  public int megapixels;
+
+  @Param({"ppm", "png", "jpg"})
+  public String format;
+
+  private ImageFileIO fileIO;
+  private ImageData imageData;
+  private File directory;
+  private String loadPath;
+  private String savePath;
+
+  /**
+   * Write a synthetic image of the requested size in the requested format, to be read
+   * back by the load benchmark.
+   *
+   * @throws IOException                     If the image cannot be written.
+   * @throws FileFormatNotSupportedException If the format is not supported.
+   */
+  @Setup
+  public void setup() throws IOException, FileFormatNotSupportedException {
+    fileIO = new RgbImageFileIO();
+    imageData = BenchmarkImages.rgbImage(megapixels);
+    directory = Files.createTempDirectory("io-benchmark").toFile();
+    loadPath = new File(directory, "source." + format).getPath();
+    savePath = new File(directory, "target." + format).getPath();
+    fileIO.save(loadPath, imageData);
+  }
+
+  /**
+   * Remove the files written by the benchmarks.
+   */
+  @TearDown
+  public void tearDown() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Benchmark
+  public ImageData load() throws IOException, FileFormatNotSupportedException {
+    return fileIO.load(loadPath);
+  }
+
+  @Benchmark
+  public void save() throws IOException, FileFormatNotSupportedException {
+    fileIO.save(savePath, imageData);
+  }
+}
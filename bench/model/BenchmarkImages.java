@@ -0,0 +1,56 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * The BenchmarkImages class builds the synthetic images used by the benchmarks. The
+ * images are smooth colour gradients with a little noise, so that convolutions and
+ * encoders see data similar to a photograph rather than a constant or random field.
+ */
+public final class BenchmarkImages {
+
+  private BenchmarkImages() {
+  }
+
+  /**
+   * Get the width of a 4:3 image with the given number of megapixels.
+   *
+   * @param megapixels The size of the image in millions of pixels.
+   * @return The width of the image.
+   */
+  public static int width(int megapixels) {
+    return (int) Math.round(Math.sqrt(megapixels * 1_000_000.0 * 4 / 3));
+  }
+
+  /**
+   * Get the height of a 4:3 image with the given number of megapixels.
+   *
+   * @param megapixels The size of the image in millions of pixels.
+   * @return The height of the image.
+   */
+  public static int height(int megapixels) {
+    return (int) Math.round(megapixels * 1_000_000.0 / width(megapixels));
+  }
+
+  /**
+   * Build an 8-bit RGB image with the given number of megapixels.
+   *
+   * @param megapixels The size of the image in millions of pixels.
+   * @return The image data.
+   */
+  public static ImageData rgbImage(int megapixels) {
+    int width = width(megapixels);
+    int height = height(megapixels);
+    Random random = new Random(megapixels);
+    int[][][] data = new int[3][height][width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int noise = random.nextInt(16);
+        data[0][y][x] = Math.min(255, x * 240 / width + noise);
+        data[1][y][x] = Math.min(255, y * 240 / height + noise);
+        data[2][y][x] = Math.min(255, (x + y) * 240 / (width + height) + noise);
+      }
+    }
+    return new ImageData(data, 255);
+  }
+}
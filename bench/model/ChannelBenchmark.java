@@ -0,0 +1,77 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the single channel operations of {@link Channel}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ChannelBenchmark {
+  private static final double[][] BLUR_KERNEL = {
+          {1.0 / 16, 1.0 / 8, 1.0 / 16},
+          {1.0 / 8, 1.0 / 4, 1.0 / 8},
+          {1.0 / 16, 1.0 / 8, 1.0 / 16}
+  };
+  private static final double[][] SHARPEN_KERNEL = {
+          {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+  };
+
+  @Param({"1", "12", "50"})
+  public int megapixels;
+
+  private ChannelModel channel;
+
+  /**
+   * Build the red channel of a synthetic image of the requested size.
+   */
+  @Setup
+  public void setup() {
+    channel = new Channel(BenchmarkImages.rgbImage(megapixels), 0);
+  }
+
+  @Benchmark
+  public ChannelModel applyConvolutionBlur() {
+    return channel.applyConvolution(BLUR_KERNEL, 255);
+  }
+
+  @Benchmark
+  public ChannelModel applyConvolutionSharpen() {
+    return channel.applyConvolution(SHARPEN_KERNEL, 255);
+  }
+
+  @Benchmark
+  public ChannelModel horizontalFlip() {
+    return channel.getHorizontalFlipChannel();
+  }
+
+  @Benchmark
+  public ChannelModel verticalFlip() {
+    return channel.getVerticalFlipChannel();
+  }
+
+  @Benchmark
+  public ChannelModel addBuffer() {
+    return channel.addBuffer(20, 255);
+  }
+}
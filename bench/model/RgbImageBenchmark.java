@@ -0,0 +1,96 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the whole image operations of the RGB image models, for each memory
+ * layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class RgbImageBenchmark {
+  private static final double[][] SEPIA = {
+          {0.393, 0.769, 0.189},
+          {0.349, 0.686, 0.168},
+          {0.272, 0.534, 0.131}
+  };
+  private static final double[][] BLUR_KERNEL = {
+          {1.0 / 16, 1.0 / 8, 1.0 / 16},
+          {1.0 / 8, 1.0 / 4, 1.0 / 8},
+          {1.0 / 16, 1.0 / 8, 1.0 / 16}
+  };
+
+  @Param({"1", "12", "50"})
+  public int megapixels;
+
+  @Param({"PLANAR", "INTERLEAVED", "TILED"})
+  public ImageLayoutEnum layout;
+
+  RgbImageModel image;
+
+  /**
+   * Load a synthetic image of the requested size into the requested layout.
+   */
+  @Setup
+  public void setup() {
+    image = createImage(layout);
+    image.loadImageData(BenchmarkImages.rgbImage(megapixels));
+  }
+
+  static RgbImageModel createImage(ImageLayoutEnum layout) {
+    switch (layout) {
+      case INTERLEAVED:
+        return new PackedRgbImage();
+      case TILED:
+        return new TiledRgbImage();
+      default:
+        return new RgbImage();
+    }
+  }
+
+  @Benchmark
+  public RgbImageModel applyTone() {
+    return image.applyTone(SEPIA);
+  }
+
+  @Benchmark
+  public RgbImageModel applyFilter() {
+    return image.applyFilter(BLUR_KERNEL);
+  }
+
+  @Benchmark
+  public RgbImageModel horizontalFlip() {
+    return image.horizontalFlip();
+  }
+
+  @Benchmark
+  public RgbImageModel verticalFlip() {
+    return image.verticalFlip();
+  }
+
+  @Benchmark
+  public RgbImageModel brighten() {
+    return image.brighten(20);
+  }
+
+  @Benchmark
+  public ImageData getImageData() {
+    return image.getImageData();
+  }
+}
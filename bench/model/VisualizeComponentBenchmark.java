@@ -0,0 +1,55 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link RgbImageModel#visualizeComponent(ComponentEnum)}, for every
+ * component and memory layout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class VisualizeComponentBenchmark {
+
+  @Param({"1", "12", "50"})
+  public int megapixels;
+
+  @Param({"PLANAR", "INTERLEAVED"})
+  public ImageLayoutEnum layout;
+
+  @Param({"RED", "GREEN", "BLUE", "VALUE", "INTENSITY", "LUMA"})
+  public String component;
+
+  private RgbImageModel image;
+  private ComponentEnum componentEnum;
+
+  /**
+   * Load a synthetic image of the requested size into the requested layout.
+   */
+  @Setup
+  public void setup() {
+    image = RgbImageBenchmark.createImage(layout);
+    image.loadImageData(BenchmarkImages.rgbImage(megapixels));
+    componentEnum = ComponentEnum.valueOf(component);
+  }
+
+  @Benchmark
+  public RgbImageModel visualizeComponent() {
+    return image.visualizeComponent(componentEnum);
+  }
+}
@@ -1,4 +1,5 @@
 import controller.RgbController;
+import model.ImageLayoutEnum;
 import model.ImageProcessorModel;
 import model.RgbImageProcessor;
 import view.ImageProcessorView;
@@ -6,6 +7,7 @@ import view.TextView;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Locale;
 
 /**
  * The ImageProcessor class represents the main entry point
@@ -18,10 +20,19 @@ public abstract class ImageProcessor implements ImageProcessorModel {
    * The main method of the application that initializes the components
    * and runs the image processing controller.
    *
-   * @param args Command-line arguments (not used in this example).
+   * @param args Command-line arguments: {@code -layout planar|interleaved|tiled} chooses
+   *             the memory layout of the images, planar by default.
    */
   public static void main(String[] args) {
     ImageProcessorModel model = new RgbImageProcessor();
+    if (args.length == 2 && args[0].equals("-layout")) {
+      try {
+        model.setLayout(ImageLayoutEnum.valueOf(args[1].toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        System.out.println("Invalid image layout: " + args[1]);
+        return;
+      }
+    }
     ImageProcessorView textView = new TextView(System.out);
     RgbController controller = new RgbController(model, textView,
             new InputStreamReader(System.in));
@@ -30,6 +41,8 @@ public abstract class ImageProcessor implements ImageProcessorModel {
       controller.run();
     } catch (IOException e) {
       System.out.println(e.getMessage());
+    } finally {
+      model.close();
     }
   }
 }
@@ -0,0 +1,127 @@
+package codec;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+
+/**
+ * The DecodingParameters class describes which pixels of an image file to load: a region
+ * of the source image and a subsampling factor in each direction, so previews and
+ * thumbnails only decode the pixels they keep. As with ImageIO, subsampling keeps the
+ * first pixel of the region and every n-th pixel after it, and a region that extends past
+ * the image is clipped to it.
+ */
+public final class DecodingParameters {
+  private final int sourceX;
+  private final int sourceY;
+  private final int sourceWidth;
+  private final int sourceHeight;
+  private final int xSubsampling;
+  private final int ySubsampling;
+
+  /**
+   * Constructs decoding parameters that load the whole image at full resolution.
+   */
+  public DecodingParameters() {
+    this(1);
+  }
+
+  /**
+   * Constructs decoding parameters that load the whole image, keeping every n-th pixel in
+   * both directions.
+   *
+   * @param subsampling The subsampling factor in both directions.
+   * @throws IllegalArgumentException If the factor is not positive.
+   */
+  public DecodingParameters(int subsampling) throws IllegalArgumentException {
+    this(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE, subsampling, subsampling);
+  }
+
+  /**
+   * Constructs decoding parameters that load a region of the image, keeping every n-th
+   * pixel of the region in each direction.
+   *
+   * @param sourceX      The first column of the region.
+   * @param sourceY      The first row of the region.
+   * @param sourceWidth  The width of the region.
+   * @param sourceHeight The height of the region.
+   * @param xSubsampling The subsampling factor along a row.
+   * @param ySubsampling The subsampling factor along a column.
+   * @throws IllegalArgumentException If the region starts before the image, is empty, or
+   *                                  a subsampling factor is not positive.
+   */
+  public DecodingParameters(int sourceX, int sourceY, int sourceWidth, int sourceHeight,
+                            int xSubsampling, int ySubsampling) throws IllegalArgumentException {
+    if (sourceX < 0 || sourceY < 0 || sourceWidth < 1 || sourceHeight < 1) {
+      throw new IllegalArgumentException("Invalid source region");
+    }
+    if (xSubsampling < 1 || ySubsampling < 1) {
+      throw new IllegalArgumentException("Invalid subsampling");
+    }
+    this.sourceX = sourceX;
+    this.sourceY = sourceY;
+    this.sourceWidth = sourceWidth;
+    this.sourceHeight = sourceHeight;
+    this.xSubsampling = xSubsampling;
+    this.ySubsampling = ySubsampling;
+  }
+
+  public int getXSubsampling() {
+    return xSubsampling;
+  }
+
+  public int getYSubsampling() {
+    return ySubsampling;
+  }
+
+  /**
+   * Check whether these parameters load every pixel of any image.
+   *
+   * @return true if there is no region and no subsampling.
+   */
+  public boolean isFullImage() {
+    return sourceX == 0 && sourceY == 0 && sourceWidth == Integer.MAX_VALUE
+            && sourceHeight == Integer.MAX_VALUE && xSubsampling == 1 && ySubsampling == 1;
+  }
+
+  /**
+   * Clip the region to an image of the given size.
+   *
+   * @param imageWidth  The width of the image.
+   * @param imageHeight The height of the image.
+   * @return The part of the region inside the image, which is empty if they do not meet.
+   */
+  public Rectangle sourceRegion(int imageWidth, int imageHeight) {
+    int endX = (int) Math.min(imageWidth, (long) sourceX + sourceWidth);
+    int endY = (int) Math.min(imageHeight, (long) sourceY + sourceHeight);
+    return new Rectangle(sourceX, sourceY, Math.max(0, endX - sourceX),
+            Math.max(0, endY - sourceY));
+  }
+
+  /**
+   * Clip the region to an image of the given size, failing when a region was asked for and
+   * none of it is inside the image.
+   *
+   * @param imageWidth  The width of the image.
+   * @param imageHeight The height of the image.
+   * @return The part of the region inside the image, which is only empty for an empty image.
+   * @throws IOException If the region is outside the image.
+   */
+  public Rectangle requireSourceRegion(int imageWidth, int imageHeight) throws IOException {
+    Rectangle region = sourceRegion(imageWidth, imageHeight);
+    if (region.isEmpty() && !isFullImage()) {
+      throw new IOException("Source region is outside the image");
+    }
+    return region;
+  }
+
+  /**
+   * Get the number of pixels kept along a span of the source.
+   *
+   * @param length      The length of the span.
+   * @param subsampling The subsampling factor along the span.
+   * @return The number of pixels kept.
+   */
+  public static int subsampledLength(int length, int subsampling) {
+    return (int) (((long) length + subsampling - 1) / subsampling);
+  }
+}
@@ -0,0 +1,201 @@
+package codec;
+
+/**
+ * The EncodingParameters class holds the settings used to encode PNG, JPG, PPM and RIMG
+ * files, so that file size can be traded against encoding time. The parameters are immutable:
+ * start from the defaults and change one setting at a time with the {@code with} methods,
+ * each of which returns a copy, e.g.
+ * {@code new EncodingParameters().withJpegQuality(0.9f).withParallelPng(true)}.
+ */
+public final class EncodingParameters {
+  public static final float DEFAULT_JPEG_QUALITY = 0.75f;
+  public static final int DEFAULT_PNG_COMPRESSION_LEVEL = 4;
+
+  private final float jpegQuality;
+  private final int pngCompressionLevel;
+  private final boolean progressive;
+  private final boolean optimizeHuffmanTables;
+  private final boolean parallelPng;
+  private final boolean compressedRimg;
+  private final boolean binaryNetpbm;
+
+  /**
+   * Constructs the default encoding parameters, the ones ImageIO uses when no parameters
+   * are given: JPEG quality 0.75, PNG compression level 4, no progressive or interlaced
+   * encoding, the standard JPEG Huffman tables, PNG files encoded by ImageIO, raw RIMG
+   * files, and PPM files in the format the codec was made with.
+   */
+  public EncodingParameters() {
+    this(DEFAULT_JPEG_QUALITY, DEFAULT_PNG_COMPRESSION_LEVEL, false, false, false, false,
+            false);
+  }
+
+  private EncodingParameters(float jpegQuality, int pngCompressionLevel, boolean progressive,
+                             boolean optimizeHuffmanTables, boolean parallelPng,
+                             boolean compressedRimg, boolean binaryNetpbm) {
+    this.jpegQuality = jpegQuality;
+    this.pngCompressionLevel = pngCompressionLevel;
+    this.progressive = progressive;
+    this.optimizeHuffmanTables = optimizeHuffmanTables;
+    this.parallelPng = parallelPng;
+    this.compressedRimg = compressedRimg;
+    this.binaryNetpbm = binaryNetpbm;
+  }
+
+  /**
+   * Get a copy of these parameters with the given JPEG quality.
+   *
+   * @param jpegQuality The quality of JPG files, from 0 for the smallest file to 1 for the
+   *                    best image.
+   * @return The new parameters.
+   * @throws IllegalArgumentException If the quality is out of range.
+   */
+  public EncodingParameters withJpegQuality(float jpegQuality)
+          throws IllegalArgumentException {
+    if (!(jpegQuality >= 0f && jpegQuality <= 1f)) {
+      throw new IllegalArgumentException("Invalid JPEG quality");
+    }
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with the given PNG compression level.
+   *
+   * @param pngCompressionLevel The deflate level of PNG files, from 0 for no compression to
+   *                            9 for the smallest file.
+   * @return The new parameters.
+   * @throws IllegalArgumentException If the compression level is out of range.
+   */
+  public EncodingParameters withPngCompressionLevel(int pngCompressionLevel)
+          throws IllegalArgumentException {
+    if (pngCompressionLevel < 0 || pngCompressionLevel > 9) {
+      throw new IllegalArgumentException("Invalid PNG compression level");
+    }
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with progressive encoding turned on or off.
+   *
+   * @param progressive true to write progressive JPG files and interlaced PNG files.
+   * @return The new parameters.
+   */
+  public EncodingParameters withProgressive(boolean progressive) {
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with optimized JPEG Huffman tables turned on or off.
+   *
+   * @param optimizeHuffmanTables true to compute Huffman tables for each JPG file instead
+   *                              of using the standard ones.
+   * @return The new parameters.
+   */
+  public EncodingParameters withOptimizeHuffmanTables(boolean optimizeHuffmanTables) {
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with the parallel PNG encoder turned on or off.
+   *
+   * @param parallelPng true to encode non-interlaced PNG files with the parallel PNG
+   *                    encoder, which deflates on every core, instead of ImageIO.
+   * @return The new parameters.
+   */
+  public EncodingParameters withParallelPng(boolean parallelPng) {
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with compressed RIMG files turned on or off.
+   *
+   * @param compressedRimg true to deflate the row deltas of RIMG files, which makes smooth
+   *                       images much smaller but slower to load, instead of storing the
+   *                       samples raw.
+   * @return The new parameters.
+   */
+  public EncodingParameters withCompressedRimg(boolean compressedRimg) {
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get a copy of these parameters with binary PPM files turned on or off.
+   *
+   * @param binaryNetpbm true to save PPM files in the binary (P6) format, false to save them
+   *                     in the format the codec was made with, plain (P3) by default.
+   * @return The new parameters.
+   */
+  public EncodingParameters withBinaryNetpbm(boolean binaryNetpbm) {
+    return new EncodingParameters(jpegQuality, pngCompressionLevel, progressive,
+            optimizeHuffmanTables, parallelPng, compressedRimg, binaryNetpbm);
+  }
+
+  /**
+   * Get the quality of JPG files.
+   *
+   * @return The quality, from 0 for the smallest file to 1 for the best image.
+   */
+  public float getJpegQuality() {
+    return jpegQuality;
+  }
+
+  /**
+   * Get the deflate level of PNG files.
+   *
+   * @return The level, from 0 for no compression to 9 for the smallest file.
+   */
+  public int getPngCompressionLevel() {
+    return pngCompressionLevel;
+  }
+
+  /**
+   * Check whether JPG files are written progressive and PNG files interlaced.
+   *
+   * @return true if files are written progressive or interlaced.
+   */
+  public boolean isProgressive() {
+    return progressive;
+  }
+
+  /**
+   * Check whether Huffman tables are computed for each JPG file.
+   *
+   * @return true if the tables are optimized, false for the standard tables.
+   */
+  public boolean isOptimizeHuffmanTables() {
+    return optimizeHuffmanTables;
+  }
+
+  /**
+   * Check whether non-interlaced PNG files are written by the parallel PNG encoder.
+   *
+   * @return true for the parallel encoder, false for ImageIO.
+   */
+  public boolean isParallelPng() {
+    return parallelPng;
+  }
+
+  /**
+   * Check whether RIMG files are written with deflated row deltas.
+   *
+   * @return true for compressed files, false for raw files.
+   */
+  public boolean isCompressedRimg() {
+    return compressedRimg;
+  }
+
+  /**
+   * Check whether PPM files are saved in the binary (P6) format.
+   *
+   * @return true for binary files, false for the format the codec was made with.
+   */
+  public boolean isBinaryNetpbm() {
+    return binaryNetpbm;
+  }
+}
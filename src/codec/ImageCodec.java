@@ -0,0 +1,146 @@
+package codec;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import model.ImageData;
+
+/**
+ * The ImageCodec interface defines a reader and writer for one image file format. A codec
+ * declares the file extensions it saves and the magic bytes that start its files, so the
+ * codec registry of the controller can pick a codec from the content of a file as well as
+ * from its name.
+ *
+ * <p>Codecs other than the built-in ones are found with {@link java.util.ServiceLoader}:
+ * a public class in any package with a public no-argument constructor, listed in
+ * {@code META-INF/services/codec.ImageCodec} on the class path, is used ahead of the
+ * built-in codecs.
+ */
+public interface ImageCodec {
+
+  /**
+   * Get the file extensions of the format, without the dot.
+   *
+   * @return The extensions, in lower case.
+   */
+  List<String> getExtensions();
+
+  /**
+   * Check whether a file starts the way files of this format do.
+   *
+   * @param header The first bytes of the file.
+   * @param length The number of bytes read, which is less than {@code header.length} for
+   *               short files.
+   * @return true if the bytes are the signature of the format.
+   */
+  boolean matches(byte[] header, int length);
+
+  /**
+   * Load a region of an image file, subsampled.
+   *
+   * @param filePath   The path of the file to load.
+   * @param parameters The region and subsampling to load.
+   * @return The image.
+   * @throws IOException If the file cannot be read or is not a valid file of the format.
+   */
+  ImageData load(String filePath, DecodingParameters parameters) throws IOException;
+
+  /**
+   * Save an image to a file.
+   *
+   * @param filePath   The path of the file to write.
+   * @param imageData  The image to save.
+   * @param parameters The encoding settings, which formats without settings ignore.
+   * @throws IOException If the file cannot be written or the image cannot be stored in
+   *                     the format.
+   */
+  void save(String filePath, ImageData imageData, EncodingParameters parameters)
+          throws IOException;
+
+  /**
+   * Open a file to read it one row at a time. Formats that cannot be decoded row by row
+   * load the whole image first, which this default does.
+   *
+   * @param filePath The path of the file to read.
+   * @return The reader, positioned at the first row.
+   * @throws IOException If the file cannot be read or is not a valid file of the format.
+   */
+  default ImageRowReader openRowReader(String filePath) throws IOException {
+    ImageData imageData = load(filePath, new DecodingParameters());
+    return new ImageRowReader() {
+      private int y;
+
+      @Override
+      public int getWidth() {
+        return imageData.getWidth();
+      }
+
+      @Override
+      public int getHeight() {
+        return imageData.getHeight();
+      }
+
+      @Override
+      public int getMaxValue() {
+        return imageData.getMaxValue();
+      }
+
+      @Override
+      public void readRow(int[][] rows) throws IOException {
+        if (y == imageData.getHeight()) {
+          throw new IOException("No more rows to read");
+        }
+        for (int c = 0; c < 3; c++) {
+          imageData.copyRow(c, y, rows[c], 0);
+        }
+        y++;
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
+  }
+
+  /**
+   * Open a file to write an image one row at a time. Formats that cannot be encoded row
+   * by row collect every row and save the whole image on close, which this default does.
+   *
+   * @param filePath   The path of the file to write.
+   * @param width      The width of the image.
+   * @param height     The height of the image.
+   * @param maxValue   The maximum pixel value of the image.
+   * @param parameters The encoding settings, which formats without settings ignore.
+   * @return The writer.
+   * @throws IOException If the file cannot be written or the image cannot be stored in
+   *                     the format.
+   */
+  default ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue,
+                                       EncodingParameters parameters) throws IOException {
+    int[][][] data = new int[3][height][];
+    return new ImageRowWriter() {
+      private int y;
+
+      @Override
+      public void writeRow(int[][] rows) throws IOException {
+        if (y == height) {
+          throw new IOException("No more rows to write");
+        }
+        for (int c = 0; c < 3; c++) {
+          data[c][y] = Arrays.copyOf(rows[c], width);
+        }
+        y++;
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (y != height) {
+          throw new IOException("Image is missing rows");
+        }
+        save(filePath, new ImageData(data, maxValue), parameters);
+      }
+    };
+  }
+}
@@ -0,0 +1,11 @@
+package codec;
+
+import model.ImageRowSource;
+
+/**
+ * The ImageRowReader interface reads an image file one row at a time, from top to bottom.
+ * Reading a row fails with an IOException when the file cannot be read or is not a valid
+ * file of its format.
+ */
+public interface ImageRowReader extends ImageRowSource {
+}
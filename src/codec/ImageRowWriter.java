@@ -0,0 +1,11 @@
+package codec;
+
+import model.ImageRowSink;
+
+/**
+ * The ImageRowWriter interface writes an image file one row at a time, from top to
+ * bottom. The size and max value of the image are given when the writer is opened, and
+ * the file is complete once every row is written and the writer is closed.
+ */
+public interface ImageRowWriter extends ImageRowSink {
+}
@@ -0,0 +1,181 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageRowReader;
+import codec.ImageRowWriter;
+import exceptions.FileFormatNotSupportedException;
+import model.ImageData;
+import model.RowStage;
+
+/**
+ * The CachedImageFileIO class keeps the decoded pixels of every image it loads in a cache
+ * directory as {@link RimgFile RIMG} files, so loading the same PNG or JPG again is a bulk
+ * read instead of a decode. Entries are keyed by the absolute path, size and modification
+ * time of the source file, so an edited file is decoded again. Stale entries are never
+ * removed; the directory can be deleted at any time.
+ *
+ * <p>Only whole images are cached: region loads, RIMG files, row readers and writers,
+ * saves and streams go straight to the wrapped ImageFileIO. A cache entry that cannot be
+ * read or written is ignored.
+ */
+final class CachedImageFileIO implements ImageFileIO {
+  private static final String EXTENSION = ".rimg";
+
+  private final ImageFileIO source;
+  private final Path cacheDirectory;
+
+  /**
+   * Constructs a cache in front of another ImageFileIO.
+   *
+   * @param source         The ImageFileIO that decodes files missing from the cache.
+   * @param cacheDirectory The directory of the cache entries, created when first written.
+   * @throws IllegalArgumentException If the source or the directory is null.
+   */
+  CachedImageFileIO(ImageFileIO source, Path cacheDirectory) throws IllegalArgumentException {
+    if (source == null || cacheDirectory == null) {
+      throw new IllegalArgumentException("Invalid decode cache");
+    }
+    this.source = source;
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  @Override
+  public ImageData load(String filePath) throws IOException, FileFormatNotSupportedException {
+    if (ImageCodecRegistry.extension(filePath).equals(RimgCodec.EXTENSION)) {
+      return source.load(filePath);
+    }
+    Path entry = entryFor(filePath);
+    if (entry == null) {
+      return source.load(filePath);
+    }
+    if (Files.isRegularFile(entry)) {
+      try {
+        return RimgFile.read(entry.toString());
+      } catch (IOException | IllegalArgumentException e) {
+        // decode the source again and replace the entry
+      }
+    }
+    ImageData imageData = source.load(filePath);
+    store(entry, imageData);
+    return imageData;
+  }
+
+  @Override
+  public ImageData load(String filePath, DecodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    if (parameters.isFullImage()) {
+      return load(filePath);
+    }
+    return source.load(filePath, parameters);
+  }
+
+  @Override
+  public void save(String filePath, ImageData imageModel)
+          throws IOException, FileFormatNotSupportedException {
+    source.save(filePath, imageModel);
+  }
+
+  @Override
+  public void save(String filePath, ImageData imageModel, EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    source.save(filePath, imageModel, parameters);
+  }
+
+  @Override
+  public void checkSaveFormat(String filePath) throws FileFormatNotSupportedException {
+    source.checkSaveFormat(filePath);
+  }
+
+  @Override
+  public ImageRowReader openRowReader(String filePath)
+          throws IOException, FileFormatNotSupportedException {
+    return source.openRowReader(filePath);
+  }
+
+  @Override
+  public ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue)
+          throws IOException, FileFormatNotSupportedException {
+    return source.openRowWriter(filePath, width, height, maxValue);
+  }
+
+  @Override
+  public ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue,
+                                      EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    return source.openRowWriter(filePath, width, height, maxValue, parameters);
+  }
+
+  @Override
+  public void stream(String sourcePath, String destinationPath, RowStage stage)
+          throws IOException, FileFormatNotSupportedException {
+    source.stream(sourcePath, destinationPath, stage);
+  }
+
+  /**
+   * Get the cache entry of a file from its absolute path, size and modification time.
+   *
+   * @return The path of the entry, or null if the file cannot be read.
+   */
+  private Path entryFor(String filePath) {
+    Path path = Paths.get(filePath).toAbsolutePath().normalize();
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class,
+              LinkOption.NOFOLLOW_LINKS);
+    } catch (IOException e) {
+      return null;
+    }
+    if (!attributes.isRegularFile()) {
+      return null;
+    }
+    String key = path + "\n" + attributes.size() + "\n"
+            + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    StringBuilder name = new StringBuilder();
+    for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+      name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return cacheDirectory.resolve(name.append(EXTENSION).toString());
+  }
+
+  /**
+   * Write a cache entry to a temporary file and move it into place, so a concurrent load
+   * never reads a partial entry.
+   */
+  private void store(Path entry, ImageData imageData) {
+    Path temporary = null;
+    try {
+      Files.createDirectories(cacheDirectory);
+      temporary = Files.createTempFile(cacheDirectory, "entry", EXTENSION + ".tmp");
+      RimgFile.write(temporary.toString(), imageData, false);
+      Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException ignored) {
+          // the temporary file is left behind
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import codec.ImageCodec;
+import exceptions.FileFormatNotSupportedException;
+
+/**
+ * The ImageCodecRegistry class picks the {@link ImageCodec} for a file. Files are loaded
+ * by the codec that recognises their first bytes, so an image saved without an extension
+ * or under the wrong one still loads, and fall back to the codec of their extension when
+ * no codec recognises them. Files are saved by the codec of their extension. Codecs are
+ * tried in the order they were registered.
+ */
+final class ImageCodecRegistry {
+  private static final int HEADER_BYTES = 16;
+
+  private final List<ImageCodec> codecs;
+
+  /**
+   * Constructs a registry of the given codecs.
+   *
+   * @param codecs The codecs, the first one for an extension or signature winning.
+   * @throws IllegalArgumentException If the list is null or holds a null codec.
+   */
+  ImageCodecRegistry(List<ImageCodec> codecs) throws IllegalArgumentException {
+    if (codecs == null || codecs.contains(null)) {
+      throw new IllegalArgumentException("Invalid codecs");
+    }
+    this.codecs = Collections.unmodifiableList(new ArrayList<>(codecs));
+  }
+
+  /**
+   * Build a registry of the codecs installed through {@link ServiceLoader}, followed by
+   * the given built-in codecs.
+   *
+   * @param builtIns The codecs that come with the program.
+   * @return The registry.
+   */
+  static ImageCodecRegistry withInstalledCodecs(List<ImageCodec> builtIns) {
+    List<ImageCodec> codecs = new ArrayList<>();
+    for (ImageCodec codec : ServiceLoader.load(ImageCodec.class)) {
+      codecs.add(codec);
+    }
+    codecs.addAll(builtIns);
+    return new ImageCodecRegistry(codecs);
+  }
+
+  List<ImageCodec> getCodecs() {
+    return codecs;
+  }
+
+  /**
+   * Find the codec of a path from its extension.
+   *
+   * @param filePath The path of the image file.
+   * @return The codec of the extension.
+   * @throws FileFormatNotSupportedException If no codec saves files with the extension.
+   */
+  ImageCodec forPath(String filePath) throws FileFormatNotSupportedException {
+    ImageCodec codec = forExtension(extension(filePath));
+    if (codec == null) {
+      throw new FileFormatNotSupportedException("Unsupported File format");
+    }
+    return codec;
+  }
+
+  /**
+   * Find the codec that loads a file from its first bytes: the codec of its extension if
+   * that codec recognises them, otherwise the first codec that does. A file that no codec
+   * recognises, or that cannot be read, goes to the codec of its extension, which reports
+   * what is wrong with it.
+   *
+   * @param filePath The path of the image file.
+   * @return The codec of the file.
+   * @throws FileFormatNotSupportedException If neither the content nor the extension is a
+   *                                         supported format.
+   */
+  ImageCodec forContent(String filePath) throws FileFormatNotSupportedException {
+    ImageCodec byExtension = forExtension(extension(filePath));
+    byte[] header = new byte[HEADER_BYTES];
+    int length = -1;
+    try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+      length = in.readNBytes(header, 0, header.length);
+    } catch (IOException | InvalidPathException e) {
+      // the codec of the extension reports the error when it opens the file
+    }
+    if (length >= 0) {
+      if (byExtension != null && byExtension.matches(header, length)) {
+        return byExtension;
+      }
+      for (ImageCodec candidate : codecs) {
+        if (candidate.matches(header, length)) {
+          return candidate;
+        }
+      }
+    }
+    if (byExtension == null) {
+      throw new FileFormatNotSupportedException("Unsupported File format");
+    }
+    return byExtension;
+  }
+
+  private ImageCodec forExtension(String extension) {
+    for (ImageCodec codec : codecs) {
+      if (codec.getExtensions().contains(extension)) {
+        return codec;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the extension of a path, the text after its last dot, or the whole path if it has
+   * no dot.
+   *
+   * @param filePath The path of the image file.
+   * @return The extension, without the dot.
+   */
+  static String extension(String filePath) {
+    return filePath.substring(filePath.lastIndexOf('.') + 1);
+  }
+}
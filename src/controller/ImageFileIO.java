@@ -2,8 +2,13 @@ package controller;
 
 import java.io.IOException;
 
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageRowReader;
+import codec.ImageRowWriter;
 import exceptions.FileFormatNotSupportedException;
 import model.ImageData;
+import model.RowStage;
 
 /**
  * The DataDAO interface defines methods for loading and saving image data.
@@ -16,20 +21,113 @@ interface ImageFileIO {
    * @param filePath The path to the file from which to load the image data.
    * @return An ImageData object containing the loaded image data.
    * @throws IOException                     If an error occurs during file reading or loading.
-   * @throws FileFormatNotSupportedException If the file format is not supported
-   *                                         (other than .ppm, .png. .jpg).
+   * @throws FileFormatNotSupportedException If no codec reads or writes the file format.
    */
   ImageData load(String filePath) throws IOException, FileFormatNotSupportedException;
 
+  /**
+   * Load part of the image data from a file: a region of the image, subsampled, decoding
+   * only the pixels that are kept where the format allows it.
+   *
+   * @param filePath   The path to the file from which to load the image data.
+   * @param parameters The region and subsampling to load.
+   * @return An ImageData object containing the loaded image data.
+   * @throws IOException                     If an error occurs during file reading or
+   *                                         loading, or the region is outside the image.
+   * @throws FileFormatNotSupportedException If no codec reads or writes the file format.
+   */
+  ImageData load(String filePath, DecodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException;
+
   /**
    * Save image data to a file.
    *
    * @param filePath   The path to the file where the image data will be saved.
    * @param imageModel The ImageData object containing the data to be saved.
    * @throws IOException                     If an error occurs during file writing or saving.
-   * @throws FileFormatNotSupportedException If the file format is not supported
-   *                                         (other than .ppm, .png. .jpg).
+   * @throws FileFormatNotSupportedException If no codec reads or writes the file format.
    */
   void save(String filePath, ImageData imageModel)
           throws IOException, FileFormatNotSupportedException;
+
+  /**
+   * Save image data to a file, encoding PNG and JPG files with the given parameters.
+   *
+   * @param filePath   The path to the file where the image data will be saved.
+   * @param imageModel The ImageData object containing the data to be saved.
+   * @param parameters The parameters used to encode the file.
+   * @throws IOException                     If an error occurs during file writing or saving.
+   * @throws FileFormatNotSupportedException If no codec reads or writes the file format.
+   */
+  void save(String filePath, ImageData imageModel, EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException;
+
+  /**
+   * Check that image data can be saved to a path, without saving anything.
+   *
+   * @param filePath The path to the file where the image data would be saved.
+   * @throws FileFormatNotSupportedException If no codec writes the file format.
+   */
+  void checkSaveFormat(String filePath) throws FileFormatNotSupportedException;
+
+  /**
+   * Open an image file to read it one row at a time. PPM and PGM files are decoded row by
+   * row; other formats are loaded whole first.
+   *
+   * @param filePath The path to the file from which to read the image.
+   * @return The reader, which the caller closes.
+   * @throws IOException                     If the file cannot be opened or is not a valid
+   *                                         file of its format.
+   * @throws FileFormatNotSupportedException If no codec reads the file format.
+   */
+  ImageRowReader openRowReader(String filePath)
+          throws IOException, FileFormatNotSupportedException;
+
+  /**
+   * Open an image file to write it one row at a time with the default encoding settings.
+   * PPM and PGM files are encoded row by row; other formats collect the rows and are saved
+   * when the writer is closed.
+   *
+   * @param filePath The path to the file where the image will be saved.
+   * @param width    The width of the image.
+   * @param height   The height of the image.
+   * @param maxValue The maximum pixel value of the image.
+   * @return The writer, which the caller closes once every row is written.
+   * @throws IOException                     If the file cannot be written.
+   * @throws FileFormatNotSupportedException If no codec writes the file format.
+   */
+  ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue)
+          throws IOException, FileFormatNotSupportedException;
+
+  /**
+   * Open an image file to write it one row at a time with the given encoding settings.
+   *
+   * @param filePath   The path to the file where the image will be saved.
+   * @param width      The width of the image.
+   * @param height     The height of the image.
+   * @param maxValue   The maximum pixel value of the image.
+   * @param parameters The encoding settings, such as the JPEG quality or binary PPM files.
+   * @return The writer, which the caller closes once every row is written.
+   * @throws IOException                     If the file cannot be written.
+   * @throws FileFormatNotSupportedException If no codec writes the file format.
+   */
+  ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue,
+                               EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException;
+
+  /**
+   * Stream an image file through a chain of row stages and save the result, one row at a
+   * time, so only the rows the stages hold are in memory when both formats can be read
+   * and written row by row. The result is written next to the destination and moved over
+   * it once complete, so the source and the destination may be the same file.
+   *
+   * @param sourcePath      The path to the file from which to read the image.
+   * @param destinationPath The path to the file where the result will be saved.
+   * @param stage           The stage every row is pushed through, flushed at the end.
+   * @throws IOException                     If an error occurs during reading or writing.
+   * @throws FileFormatNotSupportedException If no codec reads the source or writes the
+   *                                         destination format.
+   */
+  void stream(String sourcePath, String destinationPath, RowStage stage)
+          throws IOException, FileFormatNotSupportedException;
 }
@@ -0,0 +1,366 @@
+package controller;
+
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageCodec;
+import model.ImageData;
+
+/**
+ * The ImageIoCodec class reads and writes PNG or JPG files through ImageIO. The ImageIO
+ * writer of the format is looked up once and reused for every save.
+ */
+final class ImageIoCodec implements ImageCodec {
+  private static final int MAX_SIXTEEN_BIT_VALUE = 65535;
+
+  private final String formatName;
+  private final byte[] signature;
+  private ImageWriter writer;
+
+  private ImageIoCodec(String formatName, byte[] signature) {
+    this.formatName = formatName;
+    this.signature = signature;
+  }
+
+  /**
+   * Constructs a codec for PNG files.
+   *
+   * @return The codec.
+   */
+  static ImageIoCodec png() {
+    return new ImageIoCodec("png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+  }
+
+  /**
+   * Constructs a codec for JPG files.
+   *
+   * @return The codec.
+   */
+  static ImageIoCodec jpg() {
+    return new ImageIoCodec("jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+  }
+
+  @Override
+  public List<String> getExtensions() {
+    return Collections.singletonList(formatName);
+  }
+
+  @Override
+  public boolean matches(byte[] header, int length) {
+    if (length < signature.length) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if (header[i] != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public ImageData load(String filePath, DecodingParameters parameters) throws IOException {
+    File imageFile = new File(filePath);
+    if (!imageFile.canRead()) {
+      throw new IOException("Invalid Image.");
+    }
+    BufferedImage image;
+    try (ImageInputStream input = ImageIO.createImageInputStream(imageFile)) {
+      Iterator<ImageReader> readers = input == null
+              ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        throw new IOException("Invalid Image.");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        ImageReadParam param = reader.getDefaultReadParam();
+        Rectangle region = null;
+        if (!parameters.isFullImage()) {
+          region = parameters.sourceRegion(reader.getWidth(0), reader.getHeight(0));
+          param.setSourceSubsampling(parameters.getXSubsampling(),
+                  parameters.getYSubsampling(), 0, 0);
+        }
+        if (region != null && region.isEmpty()) {
+          image = null;
+        } else {
+          param.setSourceRegion(region);
+          image = reader.read(0, param);
+        }
+      } catch (IOException e) {
+        throw new IOException("Invalid Image.");
+      } finally {
+        reader.dispose();
+      }
+    }
+    if (image == null) {
+      throw new IOException("Source region is outside the image");
+    }
+
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[][][] imageData = new int[3][height][width];
+
+    ColorModel colorModel = image.getColorModel();
+    if (colorModel.getColorSpace().getType() != ColorSpace.TYPE_RGB) {
+      throw new IOException("Invalid Image.");
+    }
+    return new ImageData(imageData, readPixels(image, imageData));
+  }
+
+  /**
+   * Read the red, green and blue values of every pixel of an image. Images with 8-bit or
+   * 16-bit sRGB samples in a byte, short or int raster, which is what ImageIO decodes PNG and
+   * JPG files to, are unpacked straight from the array behind the raster, keeping all 16
+   * bits of 16-bit images. Any other color model falls back to
+   * {@link BufferedImage#getRGB}, one row at a time, which gives 8-bit values.
+   *
+   * @param image     The image to read.
+   * @param imageData The arrays to fill, {@code [3][height][width]}.
+   * @return The largest value the samples can hold, 255 or 65535.
+   */
+  static int readPixels(BufferedImage image, int[][][] imageData) {
+    ColorModel colorModel = image.getColorModel();
+    if (isPlainSrgb(colorModel, 16) && readComponentRaster(image, imageData)) {
+      return 65535;
+    }
+    if (isPlainSrgb(colorModel, 8)
+            && (readComponentRaster(image, imageData) || readPackedRaster(image, imageData))) {
+      return 255;
+    }
+    int width = image.getWidth();
+    int[] row = new int[width];
+    for (int y = 0; y < image.getHeight(); y++) {
+      image.getRGB(0, y, width, 1, row, 0, width);
+      for (int x = 0; x < width; x++) {
+        imageData[0][y][x] = (row[x] >> 16) & 0xFF;
+        imageData[1][y][x] = (row[x] >> 8) & 0xFF;
+        imageData[2][y][x] = row[x] & 0xFF;
+      }
+    }
+    return 255;
+  }
+
+  private static boolean isPlainSrgb(ColorModel colorModel, int bits) {
+    if (!colorModel.getColorSpace().isCS_sRGB() || colorModel.isAlphaPremultiplied()) {
+      return false;
+    }
+    for (int size : colorModel.getComponentSize()) {
+      if (size != bits) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean readComponentRaster(BufferedImage image, int[][][] imageData) {
+    WritableRaster raster = image.getRaster();
+    DataBuffer buffer = raster.getDataBuffer();
+    if (!(image.getColorModel() instanceof ComponentColorModel)
+            || !(raster.getSampleModel() instanceof ComponentSampleModel)
+            || !(buffer instanceof DataBufferByte || buffer instanceof DataBufferUShort)
+            || buffer.getNumBanks() != 1) {
+      return false;
+    }
+    ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+    byte[] bytes = buffer instanceof DataBufferByte ? ((DataBufferByte) buffer).getData() : null;
+    short[] shorts = buffer instanceof DataBufferUShort
+            ? ((DataBufferUShort) buffer).getData() : null;
+    int pixelStride = sampleModel.getPixelStride();
+    int scanlineStride = sampleModel.getScanlineStride();
+    int[] bandOffsets = sampleModel.getBandOffsets();
+    int origin = buffer.getOffset()
+            - raster.getSampleModelTranslateY() * scanlineStride
+            - raster.getSampleModelTranslateX() * pixelStride;
+    for (int y = 0; y < image.getHeight(); y++) {
+      int rowStart = origin + y * scanlineStride;
+      for (int c = 0; c < 3; c++) {
+        int[] row = imageData[c][y];
+        int index = rowStart + bandOffsets[c];
+        if (bytes != null) {
+          for (int x = 0; x < row.length; x++, index += pixelStride) {
+            row[x] = bytes[index] & 0xFF;
+          }
+        } else {
+          for (int x = 0; x < row.length; x++, index += pixelStride) {
+            row[x] = shorts[index] & 0xFFFF;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean readPackedRaster(BufferedImage image, int[][][] imageData) {
+    WritableRaster raster = image.getRaster();
+    if (!(image.getColorModel() instanceof DirectColorModel)
+            || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
+            || !(raster.getDataBuffer() instanceof DataBufferInt)
+            || raster.getDataBuffer().getNumBanks() != 1) {
+      return false;
+    }
+    SinglePixelPackedSampleModel sampleModel =
+            (SinglePixelPackedSampleModel) raster.getSampleModel();
+    int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+    int scanlineStride = sampleModel.getScanlineStride();
+    int[] bitOffsets = sampleModel.getBitOffsets();
+    int origin = raster.getDataBuffer().getOffset()
+            - raster.getSampleModelTranslateY() * scanlineStride
+            - raster.getSampleModelTranslateX();
+    for (int y = 0; y < image.getHeight(); y++) {
+      int rowStart = origin + y * scanlineStride;
+      for (int c = 0; c < 3; c++) {
+        int[] row = imageData[c][y];
+        int shift = bitOffsets[c];
+        for (int x = 0; x < row.length; x++) {
+          row[x] = (data[rowStart + x] >>> shift) & 0xFF;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void save(String destinationPath, ImageData imageData, EncodingParameters parameters)
+          throws IOException {
+    boolean png = formatName.equals("png");
+    if (png && parameters.isParallelPng() && !parameters.isProgressive()) {
+      new PngEncoder(parameters.getPngCompressionLevel()).write(imageData, destinationPath);
+      return;
+    }
+    BufferedImage image = png && imageData.getMaxValue() > 0xFF
+            ? toSixteenBitImage(imageData) : toEightBitImage(imageData);
+
+    File outputFile = new File(destinationPath);
+    Files.deleteIfExists(outputFile.toPath());
+    ImageWriter writer = writer();
+    synchronized (writer) {
+      try (ImageOutputStream output = ImageIO.createImageOutputStream(outputFile)) {
+        if (output == null) {
+          throw new IOException("Could not open " + destinationPath);
+        }
+        writer.setOutput(output);
+        writer.write(null, new IIOImage(image, null, null),
+                writeParam(writer, png, parameters));
+      } finally {
+        writer.reset();
+      }
+    }
+  }
+
+  private static BufferedImage toEightBitImage(ImageData imageData) {
+    int width = imageData.getWidth();
+    int height = imageData.getHeight();
+    int[] redRow = new int[width];
+    int[] greenRow = new int[width];
+    int[] blueRow = new int[width];
+
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+    for (int y = 0; y < height; y++) {
+      imageData.copyRow(0, y, redRow, 0);
+      imageData.copyRow(1, y, greenRow, 0);
+      imageData.copyRow(2, y, blueRow, 0);
+      int rowStart = y * width;
+      for (int x = 0; x < width; x++) {
+        pixels[rowStart + x] = (redRow[x] << 16 | greenRow[x] << 8 | blueRow[x]) & 0xFFFFFF;
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Build a 16-bit sRGB image, for PNG files of images whose values do not fit in 8 bits.
+   * Values are stored as they are, clamped to the 16-bit range, like the samples of a
+   * binary PPM file.
+   */
+  private static BufferedImage toSixteenBitImage(ImageData imageData) {
+    int width = imageData.getWidth();
+    int height = imageData.getHeight();
+    ComponentColorModel colorModel = new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), new int[]{16, 16, 16}, false, false,
+            Transparency.OPAQUE, DataBuffer.TYPE_USHORT);
+    WritableRaster raster = colorModel.createCompatibleWritableRaster(width, height);
+    short[] samples = ((DataBufferUShort) raster.getDataBuffer()).getData();
+    int[] row = new int[width];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < height; y++) {
+        imageData.copyRow(c, y, row, 0);
+        int index = y * width * 3 + c;
+        for (int x = 0; x < width; x++, index += 3) {
+          samples[index] = (short) Math.max(0, Math.min(MAX_SIXTEEN_BIT_VALUE, row[x]));
+        }
+      }
+    }
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
+  /**
+   * Get the ImageIO writer of the format, looking it up only the first time a file is
+   * saved. Writers are not thread safe, so callers hold the writer's lock while using it.
+   */
+  private synchronized ImageWriter writer() throws IOException {
+    if (writer == null) {
+      Iterator<ImageWriter> available = ImageIO.getImageWritersByFormatName(formatName);
+      if (!available.hasNext()) {
+        throw new IOException("No writer for " + formatName + " files");
+      }
+      writer = available.next();
+    }
+    return writer;
+  }
+
+  private static ImageWriteParam writeParam(ImageWriter writer, boolean png,
+                                            EncodingParameters parameters) {
+    ImageWriteParam param = writer.getDefaultWriteParam();
+    if (param.canWriteProgressive()) {
+      param.setProgressiveMode(parameters.isProgressive()
+              ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+    }
+    if (param.canWriteCompressed()) {
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      if (png) {
+        // the PNG writer uses deflate level 9 - round(9 * quality)
+        param.setCompressionQuality((9 - parameters.getPngCompressionLevel()) / 9f);
+      } else {
+        param.setCompressionQuality(parameters.getJpegQuality());
+      }
+    }
+    if (param instanceof JPEGImageWriteParam) {
+      ((JPEGImageWriteParam) param).setOptimizeHuffmanTables(
+              parameters.isOptimizeHuffmanTables());
+    }
+    return param;
+  }
+}
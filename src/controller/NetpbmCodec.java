@@ -0,0 +1,534 @@
+package controller;
+
+import java.awt.Rectangle;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageCodec;
+import codec.ImageRowReader;
+import codec.ImageRowWriter;
+import model.ImageData;
+
+/**
+ * The NetpbmCodec class reads and writes PPM or PGM files. Both the plain (P3, P2) and the
+ * binary (P6, P5) formats are accepted on load; PPM files are saved in the format chosen
+ * when the codec is made, or in the binary format when the encoding parameters ask for it,
+ * and PGM files are always saved in the binary format.
+ */
+final class NetpbmCodec implements ImageCodec {
+  private static final int MAX_BINARY_VALUE = 65535;
+  private static final int MAX_MAPPING_BYTES = 1 << 30;
+
+  private final boolean grayscale;
+  private final boolean binary;
+  private final int plainValuesPerLine;
+
+  /**
+   * Constructs a codec for PPM files.
+   *
+   * @param binary             true to save files as P6, false to save them as P3.
+   * @param plainValuesPerLine The number of values on each line of a plain file.
+   * @return The codec.
+   * @throws IllegalArgumentException If the number of values per line is not positive.
+   */
+  static NetpbmCodec ppm(boolean binary, int plainValuesPerLine)
+          throws IllegalArgumentException {
+    return new NetpbmCodec(false, binary, plainValuesPerLine);
+  }
+
+  /**
+   * Constructs a codec for PGM files, which are saved as P5 from the luma of the image.
+   *
+   * @return The codec.
+   */
+  static NetpbmCodec pgm() {
+    return new NetpbmCodec(true, true, 1);
+  }
+
+  private NetpbmCodec(boolean grayscale, boolean binary, int plainValuesPerLine)
+          throws IllegalArgumentException {
+    if (plainValuesPerLine < 1) {
+      throw new IllegalArgumentException("Invalid number of values per line");
+    }
+    this.grayscale = grayscale;
+    this.binary = binary;
+    this.plainValuesPerLine = plainValuesPerLine;
+  }
+
+  @Override
+  public List<String> getExtensions() {
+    return Collections.singletonList(grayscale ? "pgm" : "ppm");
+  }
+
+  @Override
+  public boolean matches(byte[] header, int length) {
+    return length >= 3 && header[0] == 'P'
+            && (grayscale ? header[1] == '2' || header[1] == '5'
+                : header[1] == '3' || header[1] == '6')
+            && (Character.isWhitespace(header[2]) || header[2] == '#');
+  }
+
+  @Override
+  public ImageData load(String filePath, DecodingParameters parameters) throws IOException {
+    String format = formatName();
+    try (FileChannel file = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      NetpbmTokenizer tokenizer = new NetpbmTokenizer(Channels.newInputStream(file));
+      Header header = readHeader(tokenizer);
+      int width = header.width;
+      int height = header.height;
+      int maxValue = header.maxValue;
+      Rectangle region = parameters.requireSourceRegion(width, height);
+      if (header.binaryFile) {
+        // check the raster fits in the file before a corrupt header makes the arrays huge
+        tokenizer.skipRasterSeparator();
+        checkRasterSize(file, tokenizer.getOffset(), header);
+      }
+      RasterRegion raster = new RasterRegion(width, region, parameters.getXSubsampling(),
+              parameters.getYSubsampling(), grayscale ? 1 : 3);
+      if (header.binaryFile) {
+        readMappedRaster(file, tokenizer.getOffset(), raster, maxValue, format);
+      } else {
+        readPlainRaster(tokenizer, raster, maxValue, format);
+      }
+      int[][][] imageData = raster.values;
+      if (grayscale) {
+        // the model works on RGB images, so the gray rows stand in for all three channels
+        imageData[1] = imageData[0];
+        imageData[2] = imageData[0];
+      }
+      return new ImageData(imageData, maxValue);
+    } catch (NoSuchElementException e) {
+      throw new IOException("Corrupted " + format + " file.");
+    } catch (NoSuchFileException | FileNotFoundException e) {
+      throw new FileNotFoundException("File Not Found");
+    }
+  }
+
+  private String formatName() {
+    return grayscale ? "PGM" : "PPM";
+  }
+
+  /**
+   * The header of a netpbm file.
+   */
+  private static final class Header {
+    private final boolean binaryFile;
+    private final int width;
+    private final int height;
+    private final int maxValue;
+
+    private Header(boolean binaryFile, int width, int height, int maxValue) {
+      this.binaryFile = binaryFile;
+      this.width = width;
+      this.height = height;
+      this.maxValue = maxValue;
+    }
+  }
+
+  /**
+   * Read and check the magic number, size and max value of a file.
+   */
+  private Header readHeader(NetpbmTokenizer tokenizer) throws IOException {
+    String token = tokenizer.nextToken();
+    boolean binaryFile = token.equals(grayscale ? "P5" : "P6");
+    if (!binaryFile && !token.equals(grayscale ? "P2" : "P3")) {
+      throw new IOException(grayscale
+              ? "Invalid PGM file: file should begin with P2 or P5"
+              : "Invalid PPM file: plain RAW file should begin with P3");
+    }
+    int width = tokenizer.nextInt();
+    int height = tokenizer.nextInt();
+    int maxValue = tokenizer.nextInt();
+    if (width < 0 || height < 0 || maxValue < 0
+            || (binaryFile && (maxValue == 0 || maxValue > MAX_BINARY_VALUE))) {
+      throw new IOException("Corrupted " + formatName() + " file.");
+    }
+    return new Header(binaryFile, width, height, maxValue);
+  }
+
+  /**
+   * Get the number of bytes in a row of a binary raster.
+   */
+  private long binaryRowBytes(Header header) {
+    return (long) header.width * (grayscale ? 1 : 3) * (header.maxValue > 0xFF ? 2 : 1);
+  }
+
+  /**
+   * Check that the binary raster a header describes fits in the file after the header.
+   * The size is computed in longs, so a corrupt header cannot overflow it.
+   */
+  private void checkRasterSize(FileChannel file, long offset, Header header)
+          throws IOException {
+    if (offset + binaryRowBytes(header) * header.height > file.size()) {
+      throw new IOException("Corrupted " + formatName() + " file.");
+    }
+  }
+
+  /**
+   * Open a file to read it one row at a time. Plain files are read value by value and
+   * binary files row by row through a small buffer, so only the current row is held.
+   */
+  @Override
+  public ImageRowReader openRowReader(String filePath) throws IOException {
+    String format = formatName();
+    FileChannel file;
+    try {
+      file = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+    } catch (NoSuchFileException e) {
+      throw new FileNotFoundException("File Not Found");
+    }
+    try {
+      NetpbmTokenizer tokenizer = new NetpbmTokenizer(Channels.newInputStream(file));
+      Header header = readHeader(tokenizer);
+      InputStream raster = null;
+      if (header.binaryFile) {
+        tokenizer.skipRasterSeparator();
+        checkRasterSize(file, tokenizer.getOffset(), header);
+        file.position(tokenizer.getOffset());
+        raster = new BufferedInputStream(Channels.newInputStream(file), 1 << 16);
+      }
+      return new NetpbmRowReader(file, header, tokenizer, raster);
+    } catch (NoSuchElementException e) {
+      file.close();
+      throw new IOException("Corrupted " + format + " file.");
+    } catch (IOException | RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the rows of a netpbm file in order.
+   */
+  private final class NetpbmRowReader implements ImageRowReader {
+    private final FileChannel file;
+    private final Header header;
+    private final NetpbmTokenizer tokenizer;
+    private final InputStream raster;
+    private final byte[] row;
+    private int y;
+
+    private NetpbmRowReader(FileChannel file, Header header, NetpbmTokenizer tokenizer,
+                            InputStream raster) {
+      this.file = file;
+      this.header = header;
+      this.tokenizer = tokenizer;
+      this.raster = raster;
+      this.row = raster == null ? null : new byte[header.width * (grayscale ? 1 : 3)
+              * (header.maxValue > 0xFF ? 2 : 1)];
+    }
+
+    @Override
+    public int getWidth() {
+      return header.width;
+    }
+
+    @Override
+    public int getHeight() {
+      return header.height;
+    }
+
+    @Override
+    public int getMaxValue() {
+      return header.maxValue;
+    }
+
+    @Override
+    public void readRow(int[][] rows) throws IOException {
+      if (y == header.height) {
+        throw new IOException("No more rows to read");
+      }
+      int channels = grayscale ? 1 : 3;
+      try {
+        if (raster == null) {
+          for (int x = 0; x < header.width; x++) {
+            for (int c = 0; c < channels; c++) {
+              int value = tokenizer.nextInt();
+              if (value < 0 || value > header.maxValue) {
+                throw new IOException("Corrupted " + formatName() + " file");
+              }
+              rows[c][x] = value;
+            }
+          }
+        } else {
+          if (raster.readNBytes(row, 0, row.length) != row.length) {
+            throw new IOException("Corrupted " + formatName() + " file.");
+          }
+          boolean twoBytes = header.maxValue > 0xFF;
+          int index = 0;
+          for (int x = 0; x < header.width; x++) {
+            for (int c = 0; c < channels; c++) {
+              int value = row[index++] & 0xFF;
+              if (twoBytes) {
+                value = value << 8 | row[index++] & 0xFF;
+              }
+              if (value > header.maxValue) {
+                throw new IOException("Corrupted " + formatName() + " file");
+              }
+              rows[c][x] = value;
+            }
+          }
+        }
+      } catch (NoSuchElementException e) {
+        throw new IOException("Corrupted " + formatName() + " file.");
+      }
+      if (grayscale) {
+        System.arraycopy(rows[0], 0, rows[1], 0, header.width);
+        System.arraycopy(rows[0], 0, rows[2], 0, header.width);
+      }
+      y++;
+    }
+
+    @Override
+    public void close() throws IOException {
+      file.close();
+    }
+  }
+
+  /**
+   * The pixels of a netpbm raster that a load keeps: the rows and columns of a region of
+   * the file, subsampled, and the arrays they are decoded into.
+   */
+  private static final class RasterRegion {
+    private final int fileWidth;
+    private final Rectangle region;
+    private final int xSubsampling;
+    private final int ySubsampling;
+    private final int channels;
+    private final int[][][] values;
+
+    private RasterRegion(int fileWidth, Rectangle region, int xSubsampling, int ySubsampling,
+                   int channels) {
+      this.fileWidth = fileWidth;
+      this.region = region;
+      this.xSubsampling = xSubsampling;
+      this.ySubsampling = ySubsampling;
+      this.channels = channels;
+      int height = DecodingParameters.subsampledLength(region.height, ySubsampling);
+      int width = DecodingParameters.subsampledLength(region.width, xSubsampling);
+      this.values = new int[3][height][];
+      for (int c = 0; c < channels; c++) {
+        for (int i = 0; i < height; i++) {
+          values[c][i] = new int[width];
+        }
+      }
+    }
+
+    /**
+     * Get the row of the file after the last row that is kept.
+     */
+    private int endRow() {
+      return region.y + (values[0].length - 1) * ySubsampling + 1;
+    }
+  }
+
+  /**
+   * Read the values of a plain raster in order. Values outside the region are still
+   * checked, but the file is only read up to the last row that is kept.
+   */
+  private void readPlainRaster(NetpbmTokenizer tokenizer, RasterRegion raster, int maxValue,
+                               String format) throws IOException {
+    int[][][] imageData = raster.values;
+    if (imageData[0].length == 0 || imageData[0][0].length == 0) {
+      return;
+    }
+    int startColumn = raster.region.x;
+    int endColumn = raster.region.x + raster.region.width;
+    for (int i = 0; i < raster.endRow(); i++) {
+      int row = i - raster.region.y;
+      boolean keepRow = row >= 0 && row % raster.ySubsampling == 0;
+      for (int j = 0; j < raster.fileWidth; j++) {
+        int column = j - startColumn;
+        boolean keep = keepRow && j < endColumn && column >= 0
+                && column % raster.xSubsampling == 0;
+        for (int c = 0; c < raster.channels; c++) {
+          int value = tokenizer.nextInt();
+          if (value < 0 || value > maxValue) {
+            throw new IOException("Corrupted " + format + " file");
+          }
+          if (keep) {
+            imageData[c][row / raster.ySubsampling][column / raster.xSubsampling] = value;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Decode the raster of a binary netpbm file straight from a memory mapping of the file,
+   * so the pixel bytes come from the page cache without passing through stream buffers.
+   * Only the rows from the first to the last kept row are mapped, and rasters larger than
+   * a single mapping are mapped in chunks of whole rows, from the start of the kept columns
+   * of the first row to the end of those of the last, so rows wider than a mapping are
+   * still read. The caller has checked that the raster fits in the file.
+   */
+  private void readMappedRaster(FileChannel file, long offset, RasterRegion raster,
+                                int maxValue, String format) throws IOException {
+    int[][][] imageData = raster.values;
+    if (imageData[0].length == 0 || imageData[0][0].length == 0) {
+      return;
+    }
+    int bytesPerSample = maxValue > 0xFF ? 2 : 1;
+    int pixelBytes = raster.channels * bytesPerSample;
+    long rowBytes = (long) raster.fileWidth * pixelBytes;
+    int width = imageData[0][0].length;
+    long spanStart = (long) raster.region.x * pixelBytes;
+    byte[] span = new byte[((width - 1) * raster.xSubsampling + 1) * pixelBytes];
+    int stride = raster.xSubsampling * pixelBytes;
+    int rowsPerMapping = (int) Math.max(1, MAX_MAPPING_BYTES / rowBytes);
+    int endRow = raster.endRow();
+    int row = 0;
+    for (int startRow = raster.region.y; startRow < endRow; startRow += rowsPerMapping) {
+      int rows = Math.min(rowsPerMapping, endRow - startRow);
+      MappedByteBuffer mapping = file.map(FileChannel.MapMode.READ_ONLY,
+              offset + startRow * rowBytes + spanStart, (rows - 1) * rowBytes + span.length);
+      for (; row < imageData[0].length; row++) {
+        int i = raster.region.y + row * raster.ySubsampling;
+        if (i >= startRow + rows) {
+          break;
+        }
+        mapping.get((int) ((i - startRow) * rowBytes), span);
+        for (int j = 0; j < width; j++) {
+          int index = j * stride;
+          for (int c = 0; c < raster.channels; c++) {
+            int value = span[index++] & 0xFF;
+            if (bytesPerSample == 2) {
+              value = value << 8 | span[index++] & 0xFF;
+            }
+            if (value > maxValue) {
+              throw new IOException("Corrupted " + format + " file");
+            }
+            imageData[c][row][j] = value;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void save(String filePath, ImageData imageData, EncodingParameters parameters)
+          throws IOException {
+    int width = imageData.getWidth();
+    int height = imageData.getHeight();
+    int[][] rows = new int[3][width];
+    try (ImageRowWriter writer = openRowWriter(filePath, width, height,
+            imageData.getMaxValue(), parameters)) {
+      for (int y = 0; y < height; y++) {
+        for (int c = 0; c < 3; c++) {
+          imageData.copyRow(c, y, rows[c], 0);
+        }
+        writer.writeRow(rows);
+      }
+    }
+  }
+
+  @Override
+  public ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue,
+                                      EncodingParameters parameters) throws IOException {
+    boolean binaryFile = binary || parameters.isBinaryNetpbm();
+    if (binaryFile && (maxValue == 0 || maxValue > MAX_BINARY_VALUE)) {
+      throw new IOException("Binary netpbm files need a max value between 1 and 65535");
+    }
+    NetpbmWriter writer = new NetpbmWriter(filePath);
+    try {
+      writer.writeAscii((binaryFile ? (grayscale ? "P5" : "P6") : "P3") + "\n" + width + " "
+              + height + "\n" + maxValue + "\n");
+    } catch (IOException e) {
+      writer.close();
+      throw e;
+    }
+    return new NetpbmRowWriter(writer, width, height, maxValue, binaryFile);
+  }
+
+  /**
+   * Writes the rows of a netpbm file in order. Plain files are written with the given
+   * number of values on each line, running on from one row to the next; binary PGM files
+   * are written from the luma of each pixel.
+   */
+  private final class NetpbmRowWriter implements ImageRowWriter {
+    private final NetpbmWriter writer;
+    private final int width;
+    private final int height;
+    private final int maxValue;
+    private final int[] samples;
+    private final byte[] row;
+    private long remaining;
+    private int column;
+    private int y;
+
+    private NetpbmRowWriter(NetpbmWriter writer, int width, int height, int maxValue,
+                            boolean binaryFile) {
+      this.writer = writer;
+      this.width = width;
+      this.height = height;
+      this.maxValue = maxValue;
+      int channels = grayscale ? 1 : 3;
+      this.samples = new int[channels];
+      this.row = binaryFile ? new byte[width * channels * (maxValue > 0xFF ? 2 : 1)] : null;
+      this.remaining = 3L * width * height;
+    }
+
+    @Override
+    public void writeRow(int[][] rows) throws IOException {
+      if (y == height) {
+        throw new IOException("No more rows to write");
+      }
+      if (row != null) {
+        writeBinaryRow(rows);
+      } else {
+        for (int x = 0; x < width; x++) {
+          for (int c = 0; c < 3; c++) {
+            column = (column + 1) % plainValuesPerLine;
+            remaining--;
+            writer.writeInt(rows[c][x], column == 0 || remaining == 0 ? '\n' : ' ');
+          }
+        }
+      }
+      y++;
+    }
+
+    private void writeBinaryRow(int[][] rows) throws IOException {
+      boolean twoBytes = maxValue > 0xFF;
+      int index = 0;
+      for (int x = 0; x < width; x++) {
+        if (grayscale) {
+          samples[0] = (int) Math.round(
+                  0.2126 * rows[0][x] + 0.7152 * rows[1][x] + 0.0722 * rows[2][x]);
+        } else {
+          samples[0] = rows[0][x];
+          samples[1] = rows[1][x];
+          samples[2] = rows[2][x];
+        }
+        for (int sample : samples) {
+          int value = Math.max(Math.min(sample, maxValue), 0);
+          if (twoBytes) {
+            row[index++] = (byte) (value >> 8);
+          }
+          row[index++] = (byte) value;
+        }
+      }
+      writer.write(row, 0, row.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+      if (y != height) {
+        throw new IOException("Image is missing rows");
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * The NetpbmTokenizer class reads the whitespace separated tokens of a netpbm file straight
+ * from the bytes of a stream, through a single reusable buffer. Numbers are parsed digit by
+ * digit without building strings, and comments, which start with '#' anywhere and run to
+ * the end of the line, are skipped wherever they appear.
+ *
+ * <p>Like {@link java.util.Scanner}, the tokenizer throws {@link NoSuchElementException}
+ * when the stream ends before a token or when a token is not a valid integer. The raster of
+ * a binary file is not read through the tokenizer; instead {@link #getOffset()} reports
+ * where it starts once the header has been consumed.
+ */
+final class NetpbmTokenizer {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream in;
+  private final byte[] buffer;
+  private int position;
+  private int limit;
+  private long consumed;
+
+  /**
+   * Constructs a tokenizer reading from the given stream. The tokenizer buffers the stream
+   * itself, so it should not be wrapped in a buffered stream.
+   *
+   * @param in The stream to read.
+   */
+  NetpbmTokenizer(InputStream in) {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+  }
+
+  /**
+   * Read the next token as a string, for the magic number of the file.
+   *
+   * @return The next token.
+   * @throws IOException            If the stream cannot be read.
+   * @throws NoSuchElementException If the stream has no more tokens.
+   */
+  String nextToken() throws IOException {
+    int b = skipSeparators();
+    if (b < 0) {
+      throw new NoSuchElementException();
+    }
+    StringBuilder token = new StringBuilder();
+    while (b >= 0 && !isSeparator(b)) {
+      token.append((char) b);
+      b = read();
+    }
+    unread(b);
+    return token.toString();
+  }
+
+  /**
+   * Read the next token as a decimal integer with an optional sign.
+   *
+   * @return The value of the next token.
+   * @throws IOException            If the stream cannot be read.
+   * @throws NoSuchElementException If the stream has no more tokens or the next token is
+   *                                not an integer.
+   */
+  int nextInt() throws IOException {
+    int b = skipSeparators();
+    if (b < 0) {
+      throw new NoSuchElementException();
+    }
+    boolean negative = false;
+    if (b == '-' || b == '+') {
+      negative = b == '-';
+      b = read();
+    }
+    if (b < '0' || b > '9') {
+      throw new NoSuchElementException("Invalid integer");
+    }
+    long value = 0;
+    while (b >= '0' && b <= '9') {
+      value = value * 10 + (b - '0');
+      if (value > Integer.MAX_VALUE + 1L) {
+        throw new NoSuchElementException("Invalid integer");
+      }
+      b = read();
+    }
+    if (b >= 0 && !isSeparator(b)) {
+      throw new NoSuchElementException("Invalid integer");
+    }
+    unread(b);
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw new NoSuchElementException("Invalid integer");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Consume the single whitespace character that separates the header of a binary netpbm
+   * file from its raster.
+   *
+   * @throws IOException            If the stream cannot be read.
+   * @throws NoSuchElementException If the next character is not whitespace.
+   */
+  void skipRasterSeparator() throws IOException {
+    int b = read();
+    if (b < 0 || b == '#' || !isSeparator(b)) {
+      throw new NoSuchElementException("Missing raster separator");
+    }
+  }
+
+  /**
+   * Get the offset in the stream of the next byte the tokenizer will consume, which after
+   * {@link #skipRasterSeparator()} is the offset of the raster of a binary file.
+   *
+   * @return The number of bytes consumed so far.
+   */
+  long getOffset() {
+    return consumed - (limit - position);
+  }
+
+  private int skipSeparators() throws IOException {
+    int b = read();
+    while (b >= 0) {
+      if (b == '#') {
+        while (b >= 0 && b != '\n' && b != '\r') {
+          b = read();
+        }
+      } else if (isSeparator(b)) {
+        b = read();
+      } else {
+        return b;
+      }
+    }
+    return b;
+  }
+
+  private static boolean isSeparator(int b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' || b == 0x0B
+            || b == '#';
+  }
+
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  private boolean fill() throws IOException {
+    limit = in.read(buffer, 0, buffer.length);
+    position = 0;
+    if (limit <= 0) {
+      limit = 0;
+      return false;
+    }
+    consumed += limit;
+    return true;
+  }
+
+  private void unread(int b) {
+    if (b >= 0) {
+      position--;
+    }
+  }
+}
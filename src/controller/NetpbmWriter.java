@@ -0,0 +1,137 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The NetpbmWriter class writes netpbm files through a single reusable byte buffer that is
+ * flushed to a {@link FileChannel}. Integers are formatted straight into the buffer two
+ * digits at a time from a lookup table, so writing a plain raster creates no strings.
+ */
+final class NetpbmWriter implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_DIGITS = 11;
+  private static final byte[] DIGIT_PAIRS = new byte[200];
+
+  static {
+    for (int i = 0; i < 100; i++) {
+      DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+      DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+    }
+  }
+
+  private final FileChannel file;
+  private final ByteBuffer buffer;
+  private final byte[] bytes;
+
+  /**
+   * Constructs a writer that creates or truncates the file at the given path.
+   *
+   * @param filePath The path of the file to write.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  NetpbmWriter(String filePath) throws IOException {
+    this.file = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    this.bytes = new byte[BUFFER_SIZE];
+    this.buffer = ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * Write an ASCII string, for the header of the file.
+   *
+   * @param text The text to write.
+   * @throws IOException If the file cannot be written.
+   */
+  void writeAscii(String text) throws IOException {
+    write(text.getBytes(StandardCharsets.US_ASCII), 0, text.length());
+  }
+
+  /**
+   * Write an integer in decimal followed by a separator character.
+   *
+   * @param value     The value to write.
+   * @param separator The character written after the value.
+   * @throws IOException If the file cannot be written.
+   */
+  void writeInt(int value, char separator) throws IOException {
+    if (buffer.remaining() < MAX_DIGITS + 1) {
+      flush();
+    }
+    int position = buffer.position();
+    long remaining = value;
+    if (remaining < 0) {
+      bytes[position++] = '-';
+      remaining = -remaining;
+    }
+    int digits = digitCount(remaining);
+    int end = position + digits;
+    int index = end;
+    while (remaining >= 100) {
+      int pair = (int) (remaining % 100) * 2;
+      remaining /= 100;
+      bytes[--index] = DIGIT_PAIRS[pair + 1];
+      bytes[--index] = DIGIT_PAIRS[pair];
+    }
+    if (remaining >= 10) {
+      int pair = (int) remaining * 2;
+      bytes[--index] = DIGIT_PAIRS[pair + 1];
+      bytes[--index] = DIGIT_PAIRS[pair];
+    } else {
+      bytes[--index] = (byte) ('0' + remaining);
+    }
+    bytes[end] = (byte) separator;
+    buffer.position(end + 1);
+  }
+
+  /**
+   * Write raw bytes, for the raster of a binary file.
+   *
+   * @param src    The bytes to write.
+   * @param offset The position of the first byte to write.
+   * @param length The number of bytes to write.
+   * @throws IOException If the file cannot be written.
+   */
+  void write(byte[] src, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.put(src, offset, count);
+      offset += count;
+      length -= count;
+    }
+  }
+
+  private static int digitCount(long value) {
+    int digits = 1;
+    while (value >= 10) {
+      value /= 10;
+      digits++;
+    }
+    return digits;
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      file.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      file.close();
+    }
+  }
+}
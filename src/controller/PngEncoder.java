@@ -0,0 +1,316 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import model.ImageData;
+
+/**
+ * The PngEncoder class writes 8-bit or 16-bit RGB PNG files using every core. The rows are
+ * split into blocks of about 128 KB which are filtered and deflated independently, in the
+ * way pigz compresses gzip files: each block is a raw deflate stream ended with a sync
+ * flush and primed with the last 32 KB of the block before it, so the blocks concatenate
+ * into a single zlib stream that any PNG decoder reads. The checksum of the whole stream
+ * is combined from the checksums of the blocks.
+ *
+ * <p>Each row uses the PNG filter with the smallest sum of absolute differences, the same
+ * heuristic ImageIO uses. Files are never interlaced. Images whose max value does not fit
+ * in 8 bits are written with 16-bit samples.
+ */
+final class PngEncoder {
+  private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+  private static final int BLOCK_BYTES = 1 << 17;
+  private static final int DICTIONARY_BYTES = 1 << 15;
+  private static final int ADLER_BASE = 65521;
+
+  private final int compressionLevel;
+
+  /**
+   * Constructs an encoder that deflates at the given level.
+   *
+   * @param compressionLevel The deflate level, from 0 for no compression to 9 for the
+   *                         smallest file.
+   * @throws IllegalArgumentException If the level is out of range.
+   */
+  PngEncoder(int compressionLevel) throws IllegalArgumentException {
+    if (compressionLevel < 0 || compressionLevel > 9) {
+      throw new IllegalArgumentException("Invalid PNG compression level");
+    }
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * Write an image to a PNG file. Values are packed into samples the same way as for files
+   * written through ImageIO: 8-bit samples keep the low bits of each value, and 16-bit
+   * samples are clamped to the 16-bit range.
+   *
+   * @param imageData The image to write.
+   * @param filePath  The path of the file to write.
+   * @throws IOException              If the file cannot be written.
+   * @throws IllegalArgumentException If the image is empty or too wide for a PNG row.
+   */
+  void write(ImageData imageData, String filePath) throws IOException, IllegalArgumentException {
+    int width = imageData.getWidth();
+    int height = imageData.getHeight();
+    int sampleBytes = imageData.getMaxValue() > 0xFF ? 2 : 1;
+    if (width == 0 || height == 0 || 3L * sampleBytes * width + 1 > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Invalid image size");
+    }
+    int stride = 3 * sampleBytes * width + 1;
+    int rowsPerBlock = Math.max(1, BLOCK_BYTES / stride);
+    int blocks = (height + rowsPerBlock - 1) / rowsPerBlock;
+
+    byte[][] filtered = new byte[blocks][];
+    IntStream.range(0, blocks).parallel().forEach(block -> filtered[block] =
+            filterRows(imageData, sampleBytes, block * rowsPerBlock,
+                    Math.min(height, (block + 1) * rowsPerBlock)));
+
+    byte[][] compressed = new byte[blocks][];
+    long[] checksums = new long[blocks];
+    IntStream.range(0, blocks).parallel().forEach(block -> {
+      compressed[block] = deflate(block == 0 ? null : filtered[block - 1], filtered[block],
+              block == blocks - 1);
+      Adler32 adler = new Adler32();
+      adler.update(filtered[block]);
+      checksums[block] = adler.getValue();
+    });
+    long checksum = checksums[0];
+    for (int block = 1; block < blocks; block++) {
+      checksum = combineAdler32(checksum, checksums[block], filtered[block].length);
+    }
+
+    try (OutputStream out = new BufferedOutputStream(
+            Files.newOutputStream(Paths.get(filePath)), 1 << 16)) {
+      out.write(SIGNATURE);
+      byte[] header = new byte[13];
+      putInt(header, 0, width);
+      putInt(header, 4, height);
+      header[8] = (byte) (8 * sampleBytes);
+      header[9] = 2;
+      writeChunk(out, "IHDR", header);
+      byte[] trailer = new byte[4];
+      putInt(trailer, 0, (int) checksum);
+      for (int block = 0; block < blocks; block++) {
+        writeChunk(out, "IDAT", block == 0 ? zlibHeader() : new byte[0], compressed[block],
+                block == blocks - 1 ? trailer : new byte[0]);
+      }
+      writeChunk(out, "IEND");
+    }
+  }
+
+  /**
+   * Filter the rows {@code [startRow, endRow)} of an image, each preceded by its filter
+   * type byte.
+   */
+  private static byte[] filterRows(ImageData imageData, int sampleBytes, int startRow,
+                                   int endRow) {
+    int width = imageData.getWidth();
+    int pixelBytes = 3 * sampleBytes;
+    int rowBytes = pixelBytes * width;
+    byte[] output = new byte[(endRow - startRow) * (rowBytes + 1)];
+    int[][] values = new int[3][width];
+    byte[] previous = new byte[rowBytes];
+    byte[] current = new byte[rowBytes];
+    if (startRow > 0) {
+      packRow(imageData, startRow - 1, values, previous, sampleBytes);
+    }
+    for (int y = startRow; y < endRow; y++) {
+      packRow(imageData, y, values, current, sampleBytes);
+      filterRow(current, previous, pixelBytes, output, (y - startRow) * (rowBytes + 1));
+      byte[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return output;
+  }
+
+  private static void packRow(ImageData imageData, int y, int[][] values, byte[] row,
+                              int sampleBytes) {
+    for (int c = 0; c < 3; c++) {
+      imageData.copyRow(c, y, values[c], 0);
+    }
+    if (sampleBytes == 2) {
+      for (int x = 0; x < values[0].length; x++) {
+        for (int c = 0; c < 3; c++) {
+          int value = Math.max(0, Math.min(0xFFFF, values[c][x]));
+          row[6 * x + 2 * c] = (byte) (value >> 8);
+          row[6 * x + 2 * c + 1] = (byte) value;
+        }
+      }
+      return;
+    }
+    for (int x = 0; x < values[0].length; x++) {
+      int rgb = values[0][x] << 16 | values[1][x] << 8 | values[2][x];
+      row[3 * x] = (byte) (rgb >> 16);
+      row[3 * x + 1] = (byte) (rgb >> 8);
+      row[3 * x + 2] = (byte) rgb;
+    }
+  }
+
+  /**
+   * Write a row with the filter type whose output has the smallest sum of absolute values.
+   * The left and upper left neighbours of a byte are the same byte of the previous pixel.
+   */
+  private static void filterRow(byte[] row, byte[] above, int pixelBytes, byte[] output,
+                                int offset) {
+    long[] sums = new long[5];
+    for (int i = 0; i < row.length; i++) {
+      int value = row[i] & 0xFF;
+      int left = i < pixelBytes ? 0 : row[i - pixelBytes] & 0xFF;
+      int up = above[i] & 0xFF;
+      int upLeft = i < pixelBytes ? 0 : above[i - pixelBytes] & 0xFF;
+      sums[0] += Math.abs((byte) value);
+      sums[1] += Math.abs((byte) (value - left));
+      sums[2] += Math.abs((byte) (value - up));
+      sums[3] += Math.abs((byte) (value - ((left + up) >>> 1)));
+      sums[4] += Math.abs((byte) (value - paeth(left, up, upLeft)));
+    }
+    int filter = 0;
+    for (int f = 1; f < sums.length; f++) {
+      if (sums[f] < sums[filter]) {
+        filter = f;
+      }
+    }
+    output[offset] = (byte) filter;
+    for (int i = 0; i < row.length; i++) {
+      int value = row[i] & 0xFF;
+      int left = i < pixelBytes ? 0 : row[i - pixelBytes] & 0xFF;
+      int up = above[i] & 0xFF;
+      int upLeft = i < pixelBytes ? 0 : above[i - pixelBytes] & 0xFF;
+      int predicted;
+      switch (filter) {
+        case 1:
+          predicted = left;
+          break;
+        case 2:
+          predicted = up;
+          break;
+        case 3:
+          predicted = (left + up) >>> 1;
+          break;
+        case 4:
+          predicted = paeth(left, up, upLeft);
+          break;
+        default:
+          predicted = 0;
+      }
+      output[offset + 1 + i] = (byte) (value - predicted);
+    }
+  }
+
+  private static int paeth(int left, int up, int upLeft) {
+    int estimate = left + up - upLeft;
+    int leftDistance = Math.abs(estimate - left);
+    int upDistance = Math.abs(estimate - up);
+    int upLeftDistance = Math.abs(estimate - upLeft);
+    if (leftDistance <= upDistance && leftDistance <= upLeftDistance) {
+      return left;
+    }
+    return upDistance <= upLeftDistance ? up : upLeft;
+  }
+
+  /**
+   * Deflate a block as raw deflate data, primed with the end of the previous block. Every
+   * block but the last ends with a sync flush, so the next block starts on a byte boundary.
+   */
+  private byte[] deflate(byte[] previous, byte[] data, boolean last) {
+    Deflater deflater = new Deflater(compressionLevel, true);
+    try {
+      if (previous != null) {
+        int length = Math.min(DICTIONARY_BYTES, previous.length);
+        deflater.setDictionary(previous, previous.length - length, length);
+      }
+      deflater.setInput(data);
+      if (last) {
+        deflater.finish();
+      }
+      byte[] output = new byte[Math.max(64, data.length / 2)];
+      int size = 0;
+      while (true) {
+        if (size == output.length) {
+          output = Arrays.copyOf(output, output.length * 2);
+        }
+        int space = output.length - size;
+        int written = deflater.deflate(output, size, space,
+                last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+        size += written;
+        if (last ? deflater.finished() : written < space) {
+          return Arrays.copyOf(output, size);
+        }
+      }
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private byte[] zlibHeader() {
+    int level;
+    if (compressionLevel < 2) {
+      level = 0;
+    } else if (compressionLevel < 6) {
+      level = 1;
+    } else {
+      level = compressionLevel == 6 ? 2 : 3;
+    }
+    int header = 0x78 << 8 | level << 6;
+    header += 31 - header % 31;
+    return new byte[]{(byte) (header >> 8), (byte) header};
+  }
+
+  /**
+   * Combine the Adler-32 checksums of two consecutive pieces of data into the checksum of
+   * their concatenation, as zlib's {@code adler32_combine} does.
+   *
+   * @param first        The checksum of the first piece.
+   * @param second       The checksum of the second piece.
+   * @param secondLength The length of the second piece.
+   * @return The checksum of both pieces.
+   */
+  static long combineAdler32(long first, long second, long secondLength) {
+    long remainder = secondLength % ADLER_BASE;
+    long sum1 = first & 0xFFFF;
+    long sum2 = (remainder * sum1) % ADLER_BASE;
+    sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+    sum2 += ((first >> 16) & 0xFFFF) + ((second >> 16) & 0xFFFF) + ADLER_BASE - remainder;
+    sum1 %= ADLER_BASE;
+    sum2 %= ADLER_BASE;
+    return sum2 << 16 | sum1;
+  }
+
+  private static void writeChunk(OutputStream out, String type, byte[]... parts)
+          throws IOException {
+    long length = 0;
+    for (byte[] part : parts) {
+      length += part.length;
+    }
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    byte[] word = new byte[4];
+    putInt(word, 0, (int) length);
+    out.write(word);
+    out.write(typeBytes);
+    for (byte[] part : parts) {
+      out.write(part);
+      crc.update(part);
+    }
+    putInt(word, 0, (int) crc.getValue());
+    out.write(word);
+  }
+
+  private static void putInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+}
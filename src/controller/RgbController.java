@@ -2,25 +2,59 @@ package controller;
 
 import java.io.IOException;
 import java.io.FileInputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import codec.EncodingParameters;
 import exceptions.FileFormatNotSupportedException;
+import model.BorderModeEnum;
 import model.ImageData;
+import model.ImageLayoutEnum;
 import model.ImageProcessorModel;
+import model.ImageRowSink;
+import model.ImageRowSource;
+import model.ImageSource;
+import model.ImageTarget;
+import model.RowConvolution;
+import model.RowOperations;
+import model.RowStage;
 import view.ImageProcessorView;
 
 /**
  * The RgbController class implements the ImageController
  * interface for controlling RGB image processing.
+ *
+ * <p>Saves can optionally be written behind: the image is copied and encoded on a
+ * background thread while the next commands run. At most a fixed number of saves are
+ * pending at once, after which a save waits for a slot. A save written behind reports
+ * {@code save Operation queued} instead of success, since the file is not written yet.
+ * Pending saves are finished before a load, at exit, at the end of a script and at the end
+ * of the run, and saves that failed are reported through the view.
+ *
+ * <p>The {@code stream} command applies a chain of row operations and filters to an image
+ * file without loading it into the model, reading and writing one row at a time.
  */
 public class RgbController implements ImageController {
   private final ImageProcessorModel rgbImageProcessor;
   private final ImageFileIO rgbImageFileIO;
   private final ImageProcessorView textView;
   private final Readable in;
+  private final ThreadPoolExecutor saveExecutor;
+  private final Semaphore saveSlots;
+  private final Deque<PendingSave> pendingSaves;
 
   /**
    * Constructs an RgbController with the provided components.
@@ -31,10 +65,64 @@ public class RgbController implements ImageController {
    */
   public RgbController(ImageProcessorModel rgbImageProcessor,
                        ImageProcessorView textView, Readable in) {
+    this(rgbImageProcessor, textView, in, 0);
+  }
+
+  /**
+   * Constructs an RgbController that writes saves behind on a background thread, with at
+   * most the given number of saves pending at once.
+   *
+   * @param rgbImageProcessor The model for managing RGB image data.
+   * @param textView          The view for displaying image processing results.
+   * @param in                The input source for user interactions.
+   * @param maxPendingSaves   The number of saves that may be pending at once, or 0 to save
+   *                          synchronously.
+   * @throws IllegalArgumentException If the number of pending saves is negative.
+   */
+  public RgbController(ImageProcessorModel rgbImageProcessor, ImageProcessorView textView,
+                       Readable in, int maxPendingSaves) throws IllegalArgumentException {
+    this(rgbImageProcessor, textView, in, maxPendingSaves, null);
+  }
+
+  /**
+   * Constructs an RgbController that writes saves behind on a background thread and keeps
+   * decoded images in a cache directory, so a file loaded again by a later run is not
+   * decoded again.
+   *
+   * @param rgbImageProcessor    The model for managing RGB image data.
+   * @param textView             The view for displaying image processing results.
+   * @param in                   The input source for user interactions.
+   * @param maxPendingSaves      The number of saves that may be pending at once, or 0 to
+   *                             save synchronously.
+   * @param decodeCacheDirectory The directory of the decode cache, or null for no cache.
+   * @throws IllegalArgumentException If the number of pending saves is negative.
+   */
+  public RgbController(ImageProcessorModel rgbImageProcessor, ImageProcessorView textView,
+                       Readable in, int maxPendingSaves, Path decodeCacheDirectory)
+          throws IllegalArgumentException {
+    if (maxPendingSaves < 0) {
+      throw new IllegalArgumentException("Invalid number of pending saves");
+    }
     this.rgbImageProcessor = rgbImageProcessor;
-    this.rgbImageFileIO = new RgbImageFileIO();
+    this.rgbImageFileIO = decodeCacheDirectory == null ? new RgbImageFileIO()
+            : new CachedImageFileIO(new RgbImageFileIO(), decodeCacheDirectory);
     this.textView = textView;
     this.in = in;
+    this.pendingSaves = new ArrayDeque<>();
+    if (maxPendingSaves == 0) {
+      this.saveExecutor = null;
+      this.saveSlots = null;
+    } else {
+      // a single thread keeps saves to the same path in command order
+      this.saveExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "image-save");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.saveExecutor.allowCoreThreadTimeOut(true);
+      this.saveSlots = new Semaphore(maxPendingSaves);
+    }
   }
 
   @Override
@@ -43,6 +131,7 @@ public class RgbController implements ImageController {
     Scanner scanner = new Scanner(in);
     processScanner(scanner);
     scanner.close();
+    finishSaves(true);
   }
 
   private void processScanner(Scanner sc)
@@ -52,6 +141,7 @@ public class RgbController implements ImageController {
       try {
         String result = processOperation(s);
         if (result.equals("exit")) {
+          finishSaves(true);
           textView.display("Program Terminated");
           break;
         } else if (!result.isBlank()) {
@@ -60,6 +150,96 @@ public class RgbController implements ImageController {
       } catch (Exception e) {
         textView.display(e.getMessage());
       }
+      finishSaves(false);
+    }
+  }
+
+  private void save(String filePath, ImageData imageData, EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    if (saveExecutor == null) {
+      rgbImageFileIO.save(filePath, imageData, parameters);
+      return;
+    }
+    rgbImageFileIO.checkSaveFormat(filePath);
+    try {
+      saveSlots.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to save " + filePath);
+    }
+    try {
+      Future<Void> future = saveExecutor.submit(() -> {
+        try {
+          rgbImageFileIO.save(filePath, imageData, parameters);
+          return null;
+        } finally {
+          saveSlots.release();
+        }
+      });
+      pendingSaves.addLast(new PendingSave(filePath, future));
+    } catch (RuntimeException e) {
+      saveSlots.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Get the source of an image file, which the model reads whole or one row at a time.
+   */
+  private ImageSource fileSource(String filePath) {
+    return new ImageSource() {
+      @Override
+      public ImageData readImage() throws IOException {
+        return rgbImageFileIO.load(filePath);
+      }
+
+      @Override
+      public ImageRowSource openRows() throws IOException {
+        return rgbImageFileIO.openRowReader(filePath);
+      }
+    };
+  }
+
+  /**
+   * Get the target of an image file. Whole images are saved, or written behind, as usual;
+   * images written one row at a time are written synchronously, after any pending saves so
+   * an earlier save to the same path cannot overwrite them. Both are encoded with the given
+   * parameters.
+   */
+  private ImageTarget fileTarget(String filePath, EncodingParameters parameters) {
+    return new ImageTarget() {
+      @Override
+      public void writeImage(ImageData imageData) throws IOException {
+        save(filePath, imageData, parameters);
+      }
+
+      @Override
+      public ImageRowSink openRows(int width, int height, int maxValue) throws IOException {
+        finishSaves(true);
+        return rgbImageFileIO.openRowWriter(filePath, width, height, maxValue, parameters);
+      }
+    };
+  }
+
+  /**
+   * Report the saves that have finished, in the order they were made. When waiting, every
+   * pending save is finished first; otherwise only the saves already done are reported.
+   */
+  private void finishSaves(boolean wait) throws IOException {
+    while (!pendingSaves.isEmpty()) {
+      PendingSave save = pendingSaves.peekFirst();
+      if (!wait && !save.future.isDone()) {
+        return;
+      }
+      try {
+        save.future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting to save " + save.filePath);
+      } catch (ExecutionException e) {
+        textView.display("Save to " + save.filePath + " failed: " + e.getCause().getMessage());
+      }
+      pendingSaves.removeFirst();
     }
   }
 
@@ -73,6 +253,7 @@ public class RgbController implements ImageController {
     Scanner sc = new Scanner(new FileInputStream(filePath));
     processScanner(sc);
     sc.close();
+    finishSaves(true);
     return "Run Script Operation successful";
   }
 
@@ -90,8 +271,11 @@ public class RgbController implements ImageController {
     String result;
     if (operation.startsWith("load ")
             || operation.startsWith("save ")
-            || operation.startsWith("run ")) {
+            || operation.startsWith("run ")
+            || operation.startsWith("stream ")) {
       result = executeIOOperation(command, arguments);
+    } else if (arguments.length == 2 && command.equals("layout")) {
+      result = setLayout(arguments[1]);
     } else if (arguments.length == 3) {
       result = executeThreeArgCommand(command, arguments);
     } else if (arguments.length == 4) {
@@ -106,6 +290,21 @@ public class RgbController implements ImageController {
     return result;
   }
 
+  /**
+   * Set the memory layout of the images loaded or created by later commands, by the name of
+   * an {@link ImageLayoutEnum} in any case.
+   */
+  private String setLayout(String layoutName) throws IllegalArgumentException {
+    ImageLayoutEnum layout;
+    try {
+      layout = ImageLayoutEnum.valueOf(layoutName.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid image layout: " + layoutName);
+    }
+    rgbImageProcessor.setLayout(layout);
+    return "layout Operation performed successfully";
+  }
+
   private String executeFiveArgCommand(String command, String[] arguments)
           throws IllegalArgumentException {
     switch (command) {
@@ -127,62 +326,208 @@ public class RgbController implements ImageController {
 
   private String executeFourArgCommand(String command, String[] arguments)
           throws IllegalArgumentException {
-    if (command.equals("brighten")) {
-      int increment = Integer.parseInt(arguments[1]);
-      rgbImageProcessor.brighten(arguments[2], arguments[3], increment);
-    } else {
-      return "Unknown command: " + command;
+    switch (command) {
+      case "brighten":
+        int increment = Integer.parseInt(arguments[1]);
+        rgbImageProcessor.brighten(arguments[2], arguments[3], increment);
+        break;
+      case "blur":
+        rgbImageProcessor.blur(arguments[1], arguments[2], borderMode(arguments[3]));
+        break;
+      case "sharpen":
+        rgbImageProcessor.sharpen(arguments[1], arguments[2], borderMode(arguments[3]));
+        break;
+      default:
+        return "Unknown command: " + command;
     }
     return command + " Operation performed successfully";
   }
 
+  /**
+   * Get the {@link BorderModeEnum} with the given name in any case.
+   */
+  private static BorderModeEnum borderMode(String borderModeName)
+          throws IllegalArgumentException {
+    try {
+      return BorderModeEnum.valueOf(borderModeName.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid border mode: " + borderModeName);
+    }
+  }
+
   private String executeIOOperation(String command, String[] arguments)
           throws IOException, FileFormatNotSupportedException {
-    String filePath = arguments[1];
-    int filePathEndIndex = 1;
-    if (arguments[1].startsWith("\"")) {
-      StringBuilder sb = new StringBuilder();
-      for (int i = 1; i < arguments.length; i++) {
-        sb.append(arguments[i]).append(" ");
-        filePathEndIndex = i;
-        if (arguments[i].endsWith("\"")) {
-          break;
-        }
-      }
-      filePath = sb.toString().trim();
-      if (!filePath.endsWith("\"")) {
-        return "Invalid Command";
-      }
-      filePath = filePath.replaceAll("\"", "");
+    int filePathEndIndex = filePathEnd(arguments, 1);
+    if (filePathEndIndex == -1) {
+      return "Invalid Command";
     }
+    String filePath = filePath(arguments, 1, filePathEndIndex);
     switch (command) {
       case "load":
         if (filePathEndIndex != arguments.length - 2) {
           return "Invalid Command";
         }
         String imageName = arguments[arguments.length - 1];
-        ImageData imageData = rgbImageFileIO.load(filePath);
-        rgbImageProcessor.addImage(imageName, imageData);
+        finishSaves(true);
+        rgbImageProcessor.loadImage(imageName, fileSource(filePath));
         break;
       case "save":
-        if (filePathEndIndex != arguments.length - 2) {
+        if (filePathEndIndex > arguments.length - 2) {
           return "Invalid Command";
         }
-        String destImageName = arguments[arguments.length - 1];
-        ImageData destImageData = rgbImageProcessor.getImageData(destImageName);
-        rgbImageFileIO.save(filePath, destImageData);
+        String destImageName = arguments[filePathEndIndex + 1];
+        EncodingParameters parameters = saveParameters(arguments, filePathEndIndex + 2);
+        if (parameters == null) {
+          return "Invalid Command";
+        }
+        int pending = pendingSaves.size();
+        rgbImageProcessor.saveImage(destImageName, fileTarget(filePath, parameters));
+        if (pendingSaves.size() > pending) {
+          // the file is not written yet, and a failure is reported once the save finishes
+          return "save Operation queued";
+        }
         break;
       case "run":
         if (filePathEndIndex != arguments.length - 1) {
           return "Invalid Command";
         }
         return runScript(filePath);
+      case "stream":
+        return stream(filePath, arguments, filePathEndIndex + 1);
       default:
         return "Invalid Command";
     }
     return command + " Operation performed successfully";
   }
 
+  /**
+   * Get the encoding parameters of a save from the options that follow the image name:
+   * {@code quality q} sets the JPEG quality from 0 to 1, {@code compression level} the PNG
+   * compression level from 0 to 9, {@code progressive} writes progressive JPG and
+   * interlaced PNG files, {@code optimize-huffman} computes the JPEG Huffman tables,
+   * {@code parallel-png} encodes PNG files on every core, {@code compressed} deflates RIMG
+   * files and {@code binary} saves PPM files in the binary (P6) format.
+   *
+   * @return The parameters, or null if an option is unknown or has no value.
+   * @throws IllegalArgumentException If the value of an option is out of range.
+   */
+  private static EncodingParameters saveParameters(String[] arguments, int start)
+          throws IllegalArgumentException {
+    EncodingParameters parameters = new EncodingParameters();
+    for (int i = start; i < arguments.length; i++) {
+      switch (arguments[i]) {
+        case "quality":
+          if (i == arguments.length - 1) {
+            return null;
+          }
+          parameters = parameters.withJpegQuality(Float.parseFloat(arguments[++i]));
+          break;
+        case "compression":
+          if (i == arguments.length - 1) {
+            return null;
+          }
+          parameters = parameters.withPngCompressionLevel(Integer.parseInt(arguments[++i]));
+          break;
+        case "progressive":
+          parameters = parameters.withProgressive(true);
+          break;
+        case "optimize-huffman":
+          parameters = parameters.withOptimizeHuffmanTables(true);
+          break;
+        case "parallel-png":
+          parameters = parameters.withParallelPng(true);
+          break;
+        case "compressed":
+          parameters = parameters.withCompressedRimg(true);
+          break;
+        case "binary":
+          parameters = parameters.withBinaryNetpbm(true);
+          break;
+        default:
+          return null;
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Find the last argument of the file path that starts at the given argument. A path in
+   * double quotes may contain whitespace, so it runs on to the argument ending the quote.
+   *
+   * @return The index of the last argument of the path, or -1 if the quote is not closed.
+   */
+  private static int filePathEnd(String[] arguments, int start) {
+    if (!arguments[start].startsWith("\"")) {
+      return start;
+    }
+    for (int i = start; i < arguments.length; i++) {
+      if (arguments[i].endsWith("\"")) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String filePath(String[] arguments, int start, int end) {
+    if (!arguments[start].startsWith("\"")) {
+      return arguments[start];
+    }
+    return String.join(" ", Arrays.asList(arguments).subList(start, end + 1))
+            .replaceAll("\"", "");
+  }
+
+  /**
+   * Stream an image from a file to another through a chain of row stages, without
+   * loading it into the model. The arguments from the given index are the destination
+   * path followed by the operations, in the order they are applied.
+   */
+  private String stream(String sourcePath, String[] arguments, int start)
+          throws IOException, FileFormatNotSupportedException {
+    int destinationEnd = start < arguments.length ? filePathEnd(arguments, start) : -1;
+    if (destinationEnd == -1 || destinationEnd == arguments.length - 1) {
+      return "Invalid Command";
+    }
+    String destinationPath = filePath(arguments, start, destinationEnd);
+    RowStage stage = null;
+    for (int i = destinationEnd + 1; i < arguments.length; i++) {
+      RowStage next;
+      switch (arguments[i]) {
+        case "brighten":
+          if (i == arguments.length - 1) {
+            return "Invalid Command";
+          }
+          next = RowOperations.brighten(Integer.parseInt(arguments[++i]));
+          break;
+        case "horizontal-flip":
+          next = RowOperations.horizontalFlip();
+          break;
+        case "sepia":
+          next = RowOperations.sepia();
+          break;
+        case "blur":
+          next = RowConvolution.blur();
+          break;
+        case "sharpen":
+          next = RowConvolution.sharpen();
+          break;
+        case "red-component":
+        case "green-component":
+        case "blue-component":
+        case "value-component":
+        case "luma-component":
+        case "intensity-component":
+          next = RowOperations.visualizeComponent(arguments[i]);
+          break;
+        default:
+          return "Operation cannot be streamed: " + arguments[i];
+      }
+      stage = stage == null ? next : stage.andThen(next);
+    }
+    finishSaves(true);
+    rgbImageFileIO.stream(sourcePath, destinationPath, stage);
+    return "stream Operation performed successfully";
+  }
+
   private String executeThreeArgCommand(String command, String[] arguments)
           throws IllegalArgumentException {
     switch (command) {
@@ -203,6 +548,9 @@ public class RgbController implements ImageController {
       case "blur":
         rgbImageProcessor.blur(arguments[1], arguments[2]);
         break;
+      case "separable-blur":
+        rgbImageProcessor.separableBlur(arguments[1], arguments[2]);
+        break;
       case "sharpen":
         rgbImageProcessor.sharpen(arguments[1], arguments[2]);
         break;
@@ -214,4 +562,14 @@ public class RgbController implements ImageController {
     }
     return command + " Operation performed successfully";
   }
-}
\ No newline at end of file
+
+  private static final class PendingSave {
+    private final String filePath;
+    private final Future<Void> future;
+
+    private PendingSave(String filePath, Future<Void> future) {
+      this.filePath = filePath;
+      this.future = future;
+    }
+  }
+}
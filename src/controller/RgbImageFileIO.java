@@ -1,193 +1,191 @@
 package controller;
 
-import java.awt.color.ColorSpace;
-import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
-import java.io.FileInputStream;
-
-import javax.imageio.ImageIO;
-
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageCodec;
+import codec.ImageRowReader;
+import codec.ImageRowWriter;
 import exceptions.FileFormatNotSupportedException;
 import model.ImageData;
-
-import java.awt.Color;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import model.RowStage;
 
 /**
  * The RgbImageFileIO class implements the ImageFileIO interface and
  * provides methods for loading and saving RGB image data.
+ *
+ * <p>Each format is read and written by an {@link ImageCodec} from an
+ * {@link ImageCodecRegistry}, chosen from the extension of the path or, for loads of
+ * files with an unknown extension, from the first bytes of the file. Codecs installed on
+ * the class path come before the built-in PNG, JPG, PPM, PGM and RIMG codecs.
  */
 class RgbImageFileIO implements ImageFileIO {
+  private static final EncodingParameters DEFAULT_PARAMETERS = new EncodingParameters();
+  private static final DecodingParameters DEFAULT_DECODING = new DecodingParameters();
+  private final ImageCodecRegistry codecs;
+
+  /**
+   * Constructs an RgbImageFileIO that saves PPM files in the plain (P3) format.
+   */
+  RgbImageFileIO() {
+    this(false);
+  }
+
+  /**
+   * Constructs an RgbImageFileIO that saves PPM files in either the plain (P3) or the
+   * binary (P6) format. PGM files are always saved in the binary (P5) format, and both
+   * formats of each are accepted on load.
+   *
+   * @param binaryPpm true to save PPM files as P6, false to save them as P3.
+   */
+  RgbImageFileIO(boolean binaryPpm) {
+    this(binaryPpm, 1);
+  }
+
+  /**
+   * Constructs an RgbImageFileIO that saves PPM files in either the plain (P3) or the
+   * binary (P6) format, writing the given number of values on each line of a plain file.
+   *
+   * @param binaryPpm          true to save PPM files as P6, false to save them as P3.
+   * @param plainValuesPerLine The number of values on each line of a plain PPM file.
+   * @throws IllegalArgumentException If the number of values per line is not positive.
+   */
+  RgbImageFileIO(boolean binaryPpm, int plainValuesPerLine) throws IllegalArgumentException {
+    this(ImageCodecRegistry.withInstalledCodecs(builtInCodecs(binaryPpm, plainValuesPerLine)));
+  }
+
+  /**
+   * Constructs an RgbImageFileIO that reads and writes files with the given codecs.
+   *
+   * @param codecs The codecs of the supported formats.
+   * @throws IllegalArgumentException If the registry is null.
+   */
+  RgbImageFileIO(ImageCodecRegistry codecs) throws IllegalArgumentException {
+    if (codecs == null) {
+      throw new IllegalArgumentException("Invalid codecs");
+    }
+    this.codecs = codecs;
+  }
+
+  /**
+   * Get the codecs that come with the program.
+   *
+   * @param binaryPpm          true to save PPM files as P6, false to save them as P3.
+   * @param plainValuesPerLine The number of values on each line of a plain PPM file.
+   * @return The PNG, JPG, PPM, PGM and RIMG codecs.
+   * @throws IllegalArgumentException If the number of values per line is not positive.
+   */
+  static List<ImageCodec> builtInCodecs(boolean binaryPpm, int plainValuesPerLine)
+          throws IllegalArgumentException {
+    return Arrays.asList(ImageIoCodec.png(), ImageIoCodec.jpg(),
+            NetpbmCodec.ppm(binaryPpm, plainValuesPerLine), NetpbmCodec.pgm(), new RimgCodec());
+  }
 
   @Override
   public ImageData load(String filePath) throws IOException, FileFormatNotSupportedException {
-    int startingIndex = filePath.lastIndexOf(".");
-    String extension = filePath.substring(startingIndex == -1 ? 0 : startingIndex)
-            .replace(".", "");
+    return load(filePath, DEFAULT_DECODING);
+  }
+
+  @Override
+  public ImageData load(String filePath, DecodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    ImageCodec codec = codecs.forContent(filePath);
     try {
-      FileFormatEnum fileFormatEnum = FileFormatEnum.valueOf(extension);
-      switch (fileFormatEnum) {
-        case png:
-        case jpg:
-          return loadGeneralFormat(filePath);
-        case ppm:
-          return loadPPM(filePath);
-        default:
-          throw new FileFormatNotSupportedException("Unsupported File format");
-      }
+      return codec.load(filePath, parameters);
     } catch (IllegalArgumentException e) {
       throw new FileFormatNotSupportedException("Unsupported File format");
     }
   }
 
-  private ImageData loadPPM(String filePath) throws IOException {
-    try {
-      Scanner sc = new Scanner(new FileInputStream(filePath));
-      StringBuilder builder = new StringBuilder();
-      while (sc.hasNextLine()) {
-        String s = sc.nextLine();
-        if (s.charAt(0) != '#') {
-          builder.append(s).append(System.lineSeparator());
-        }
-      }
-      sc = new Scanner(builder.toString());
-      String token = sc.next();
-      if (!token.equals("P3")) {
-        throw new IOException("Invalid PPM file: plain RAW file should begin with P3");
-      }
-      int width = sc.nextInt();
-      int height = sc.nextInt();
-      int maxValue = sc.nextInt();
-      int[][][] imageData = new int[3][height][width];
-      for (int i = 0; i < height; i++) {
-        for (int j = 0; j < width; j++) {
-          int red = sc.nextInt();
-          int green = sc.nextInt();
-          int blue = sc.nextInt();
-          if (red < 0 || green < 0 || blue < 0
-                  || red > maxValue || green > maxValue || blue > maxValue) {
-            throw new IOException("Corrupted PPM file");
-          }
-          imageData[0][i][j] = red;
-          imageData[1][i][j] = green;
-          imageData[2][i][j] = blue;
-        }
-      }
-      return new ImageData(imageData, maxValue);
-    } catch (NoSuchElementException e) {
-      throw new IOException("Corrupted PPM file.");
-    } catch (FileNotFoundException e) {
-      throw new FileNotFoundException("File Not Found");
-    }
+  @Override
+  public void save(String filePath, ImageData imageModel)
+          throws IOException, FileFormatNotSupportedException {
+    save(filePath, imageModel, DEFAULT_PARAMETERS);
   }
 
-  private static ImageData loadGeneralFormat(String filePath) throws IOException {
-    File imageFile = new File(filePath);
+  @Override
+  public void save(String filePath, ImageData imageModel, EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    ImageCodec codec = codecs.forPath(filePath);
     try {
-      BufferedImage image = ImageIO.read(imageFile);
-
-      if (image != null) {
-        int width = image.getWidth();
-        int height = image.getHeight();
-        int[][][] imageData = new int[3][height][width];
-
-        ColorModel colorModel = image.getColorModel();
-        if (colorModel.getColorSpace().getType() == ColorSpace.TYPE_RGB) {
-
-          for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-              Color pixelColor = new Color(image.getRGB(j, i));
-
-              int red = pixelColor.getRed();
-              int green = pixelColor.getGreen();
-              int blue = pixelColor.getBlue();
-              imageData[0][i][j] = red;
-              imageData[1][i][j] = green;
-              imageData[2][i][j] = blue;
-            }
-          }
-
-          int bitDepth = image.getColorModel().getPixelSize();
-          int numOfChannels = image.getColorModel().getComponentSize().length;
-          int bitDepthPerChannel = bitDepth / numOfChannels;
-          return new ImageData(imageData, (int) Math.pow(2, bitDepthPerChannel) - 1);
-        } else {
-          throw new IOException("Invalid Image");
-        }
-      } else {
-        throw new IOException("Invalid Image.");
-      }
-    } catch (IOException e) {
-      throw new IOException("Invalid Image.");
+      codec.save(filePath, imageModel, parameters);
+    } catch (IllegalArgumentException e) {
+      throw new FileFormatNotSupportedException("Unsupported File format");
     }
   }
 
   @Override
-  public void save(String filePath, ImageData imageModel)
-          throws IOException, FileFormatNotSupportedException {
-    int startingIndex = filePath.lastIndexOf(".");
-    String extension = filePath.substring(startingIndex == -1 ? 0 : startingIndex)
-            .replace(".", "");
+  public void checkSaveFormat(String filePath) throws FileFormatNotSupportedException {
+    codecs.forPath(filePath);
+  }
 
+  @Override
+  public ImageRowReader openRowReader(String filePath)
+          throws IOException, FileFormatNotSupportedException {
+    ImageCodec codec = codecs.forContent(filePath);
     try {
-      FileFormatEnum fileFormatEnum = FileFormatEnum.valueOf(extension);
-      switch (fileFormatEnum) {
-        case png:
-        case jpg:
-          saveGeneralFormat(fileFormatEnum.toString().toUpperCase(), filePath, imageModel);
-          break;
-        case ppm:
-          savePPM(filePath, imageModel);
-          break;
-        default:
-          throw new FileFormatNotSupportedException("Unsupported File format");
-      }
+      return codec.openRowReader(filePath);
     } catch (IllegalArgumentException e) {
       throw new FileFormatNotSupportedException("Unsupported File format");
     }
   }
 
-  private void savePPM(String filePath, ImageData imageData) throws IOException {
-    int[][][] data = imageData.getData();
-    int width = data[0][0].length;
-    int height = data[0].length;
-
-    BufferedWriter writer = new BufferedWriter(new FileWriter(filePath));
-    writer.write("P3\n");
-    writer.write(width + " " + height + "\n");
-    writer.write(imageData.getMaxValue() + "\n");
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int red = data[0][y][x];
-        int green = data[1][y][x];
-        int blue = data[2][y][x];
-        writer.write(red + "\n" + green + "\n" + blue + "\n");
-      }
-    }
-    writer.close();
+  @Override
+  public ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue)
+          throws IOException, FileFormatNotSupportedException {
+    return openRowWriter(filePath, width, height, maxValue, DEFAULT_PARAMETERS);
   }
 
-  private void saveGeneralFormat(String imageFormat, String destinationPath, ImageData imageData)
-          throws IOException {
-    int[][][] pixelValues = imageData.getData();
-    int width = pixelValues[0][0].length;
-    int height = pixelValues[0].length;
-
-    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+  @Override
+  public ImageRowWriter openRowWriter(String filePath, int width, int height, int maxValue,
+                                      EncodingParameters parameters)
+          throws IOException, FileFormatNotSupportedException {
+    ImageCodec codec = codecs.forPath(filePath);
+    try {
+      return codec.openRowWriter(filePath, width, height, maxValue, parameters);
+    } catch (IllegalArgumentException e) {
+      throw new FileFormatNotSupportedException("Unsupported File format");
+    }
+  }
 
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int rgb = pixelValues[0][y][x] << 16 | pixelValues[1][y][x] << 8 | pixelValues[2][y][x];
-        image.setRGB(x, y, rgb);
+  @Override
+  public void stream(String sourcePath, String destinationPath, RowStage stage)
+          throws IOException, FileFormatNotSupportedException {
+    ImageCodec source = codecs.forContent(sourcePath);
+    ImageCodec destination = codecs.forPath(destinationPath);
+    Path target = Paths.get(destinationPath);
+    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+    try {
+      try (ImageRowReader reader = source.openRowReader(sourcePath);
+           ImageRowWriter writer = destination.openRowWriter(temporary.toString(),
+                   reader.getWidth(), reader.getHeight(), reader.getMaxValue(),
+                   DEFAULT_PARAMETERS)) {
+        int maxValue = reader.getMaxValue();
+        int[][] rows = new int[3][reader.getWidth()];
+        for (int y = 0; y < reader.getHeight(); y++) {
+          reader.readRow(rows);
+          int[][] output = stage.push(rows, maxValue);
+          if (output != null) {
+            writer.writeRow(output);
+          }
+        }
+        int[][] output;
+        while ((output = stage.flush(maxValue)) != null) {
+          writer.writeRow(output);
+        }
       }
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temporary);
+      throw e;
     }
-    File outputFile = new File(destinationPath);
-    ImageIO.write(image, imageFormat, outputFile);
   }
 }
@@ -0,0 +1,70 @@
+package controller;
+
+import java.awt.Rectangle;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.NoSuchFileException;
+import java.util.Collections;
+import java.util.List;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageCodec;
+import model.ImageData;
+
+/**
+ * The RimgCodec class reads and writes {@link RimgFile RIMG} files. Files are saved with a
+ * raw payload, so they load with bulk reads, unless the encoding parameters ask for
+ * compressed files.
+ */
+final class RimgCodec implements ImageCodec {
+  static final String EXTENSION = "rimg";
+
+  @Override
+  public List<String> getExtensions() {
+    return Collections.singletonList(EXTENSION);
+  }
+
+  @Override
+  public boolean matches(byte[] header, int length) {
+    return length >= 4 && header[0] == 'R' && header[1] == 'I' && header[2] == 'M'
+            && header[3] == 'G';
+  }
+
+  /**
+   * Load the file in bulk, then keep the region and subsampling asked for.
+   */
+  @Override
+  public ImageData load(String filePath, DecodingParameters parameters) throws IOException {
+    ImageData image;
+    try {
+      image = RimgFile.read(filePath);
+    } catch (NoSuchFileException e) {
+      throw new FileNotFoundException("File Not Found");
+    }
+    if (parameters.isFullImage()) {
+      return image;
+    }
+    Rectangle region = parameters.requireSourceRegion(image.getWidth(), image.getHeight());
+    int xSubsampling = parameters.getXSubsampling();
+    int ySubsampling = parameters.getYSubsampling();
+    int[][][] data = new int[3][DecodingParameters.subsampledLength(region.height,
+            ySubsampling)][DecodingParameters.subsampledLength(region.width, xSubsampling)];
+    for (int c = 0; c < 3; c++) {
+      for (int i = 0; i < data[c].length; i++) {
+        IntBuffer row = image.getRow(c, region.y + i * ySubsampling);
+        for (int j = 0; j < data[c][i].length; j++) {
+          data[c][i][j] = row.get(region.x + j * xSubsampling);
+        }
+      }
+    }
+    return new ImageData(data, image.getMaxValue());
+  }
+
+  @Override
+  public void save(String filePath, ImageData imageData, EncodingParameters parameters)
+          throws IOException {
+    RimgFile.write(filePath, imageData, parameters.isCompressedRimg());
+  }
+}
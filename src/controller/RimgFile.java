@@ -0,0 +1,291 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import model.ImageData;
+
+/**
+ * The RimgFile class reads and writes the project's own image format, which stores the
+ * channels exactly as the model holds them so that loading is a bulk copy rather than a
+ * decode. A file is a 20-byte header followed by the payload:
+ *
+ * <pre>
+ *   0  "RIMG"
+ *   4  version (1)
+ *   5  channel count (3)
+ *   6  bytes per sample (1, 2 or 4)
+ *   7  compression (0 raw, 1 row deltas deflated at the fastest level)
+ *   8  width, height and max value, 32-bit integers
+ * </pre>
+ *
+ * <p>The payload is planar: every row of the red channel from top to bottom, then green,
+ * then blue. Samples and header integers are little-endian. Samples use the fewest bytes
+ * that hold every value of the image, with 4-byte samples for negative values.
+ */
+final class RimgFile {
+  private static final byte[] MAGIC = {'R', 'I', 'M', 'G'};
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 20;
+  private static final int CHANNELS = 3;
+  private static final int RAW = 0;
+  private static final int DEFLATED = 1;
+  private static final int MAX_READ_BYTES = 1 << 26;
+  // deflate cannot expand data by more than this ratio
+  private static final long MAX_DEFLATE_RATIO = 1032;
+
+  private RimgFile() {
+  }
+
+  /**
+   * Write an image to a file.
+   *
+   * @param filePath   The path of the file to write.
+   * @param imageData  The image to write.
+   * @param compressed true to deflate the payload, false to store it raw.
+   * @throws IOException If the file cannot be written.
+   */
+  static void write(String filePath, ImageData imageData, boolean compressed)
+          throws IOException {
+    int width = imageData.getWidth();
+    int height = imageData.getHeight();
+    int sampleBytes = sampleBytesFor(imageData);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.put(MAGIC).put((byte) VERSION).put((byte) CHANNELS).put((byte) sampleBytes)
+            .put((byte) (compressed ? DEFLATED : RAW))
+            .putInt(width).putInt(height).putInt(imageData.getMaxValue());
+
+    try (FileChannel file = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      file.write(header.flip());
+      OutputStream out = new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16);
+      Deflater deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+      try {
+        if (compressed) {
+          out = new DeflaterOutputStream(out, deflater, 1 << 16);
+        }
+        int[] values = new int[width];
+        ByteBuffer row = ByteBuffer.allocate(width * sampleBytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int c = 0; c < CHANNELS; c++) {
+          for (int y = 0; y < height; y++) {
+            imageData.copyRow(c, y, values, 0);
+            if (compressed) {
+              for (int x = width - 1; x > 0; x--) {
+                values[x] -= values[x - 1];
+              }
+            }
+            row.clear();
+            putSamples(row, values, sampleBytes);
+            out.write(row.array(), 0, row.position());
+          }
+        }
+        out.close();
+      } finally {
+        if (deflater != null) {
+          deflater.end();
+        }
+      }
+    }
+  }
+
+  /**
+   * Read an image from a file.
+   *
+   * @param filePath The path of the file to read.
+   * @return The image.
+   * @throws IOException If the file cannot be read or is not a valid RIMG file.
+   */
+  static ImageData read(String filePath) throws IOException {
+    try (FileChannel file = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      readFully(file, header);
+      byte[] magic = new byte[MAGIC.length];
+      header.get(magic);
+      int version = header.get();
+      int channels = header.get();
+      int sampleBytes = header.get();
+      int compression = header.get();
+      int width = header.getInt();
+      int height = header.getInt();
+      int maxValue = header.getInt();
+      long rowBytes = (long) width * sampleBytes;
+      if (!Arrays.equals(magic, MAGIC) || version != VERSION || channels != CHANNELS
+              || (sampleBytes != 1 && sampleBytes != 2 && sampleBytes != 4)
+              || (compression != RAW && compression != DEFLATED)
+              || width < 0 || height < 0 || maxValue < 0 || rowBytes > Integer.MAX_VALUE
+              || !payloadFits(file.size() - HEADER_BYTES, rowBytes * height, compression)) {
+        throw new IOException("Corrupted RIMG file.");
+      }
+
+      int[][][] data = new int[CHANNELS][height][width];
+      if (compression == RAW) {
+        readRaw(file, data, sampleBytes);
+      } else {
+        readDeflated(file, data, sampleBytes);
+      }
+      return new ImageData(data, maxValue);
+    }
+  }
+
+  /**
+   * Check the size of the image against the payload in the file before any sample is
+   * allocated. A raw payload holds exactly the samples, and a deflated one cannot hold more
+   * than the largest expansion of deflate.
+   */
+  private static boolean payloadFits(long payloadBytes, long channelBytes, int compression) {
+    if (channelBytes > Long.MAX_VALUE / CHANNELS) {
+      return false;
+    }
+    long imageBytes = CHANNELS * channelBytes;
+    if (compression == RAW) {
+      return payloadBytes == imageBytes;
+    }
+    return imageBytes / MAX_DEFLATE_RATIO <= payloadBytes;
+  }
+
+  /**
+   * Read a raw payload in bulk, many rows at a time.
+   */
+  private static void readRaw(FileChannel file, int[][][] data, int sampleBytes)
+          throws IOException {
+    int height = data[0].length;
+    int width = height == 0 ? 0 : data[0][0].length;
+    int rowBytes = width * sampleBytes;
+    if (rowBytes == 0) {
+      return;
+    }
+    int rowsPerRead = Math.max(1, MAX_READ_BYTES / rowBytes);
+    ByteBuffer band = ByteBuffer.allocate(Math.min(height, rowsPerRead) * rowBytes)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    for (int[][] channel : data) {
+      for (int startRow = 0; startRow < height; startRow += rowsPerRead) {
+        int rows = Math.min(rowsPerRead, height - startRow);
+        band.clear().limit(rows * rowBytes);
+        readFully(file, band);
+        for (int y = startRow; y < startRow + rows; y++) {
+          getSamples(band, channel[y], sampleBytes);
+        }
+      }
+    }
+  }
+
+  /**
+   * Inflate a deflated payload row by row, undoing the row deltas.
+   */
+  private static void readDeflated(FileChannel file, int[][][] data, int sampleBytes)
+          throws IOException {
+    int height = data[0].length;
+    int width = height == 0 ? 0 : data[0][0].length;
+    ByteBuffer row = ByteBuffer.allocate(width * sampleBytes).order(ByteOrder.LITTLE_ENDIAN);
+    try (InputStream in = new InflaterInputStream(
+            new BufferedInputStream(Channels.newInputStream(file), 1 << 16))) {
+      for (int[][] channel : data) {
+        for (int y = 0; y < height; y++) {
+          if (in.readNBytes(row.array(), 0, row.capacity()) != row.capacity()) {
+            throw new IOException("Corrupted RIMG file.");
+          }
+          row.clear();
+          int[] values = channel[y];
+          getSamples(row, values, sampleBytes);
+          for (int x = 1; x < width; x++) {
+            values[x] = wrapSample(values[x - 1] + values[x], sampleBytes);
+          }
+        }
+      }
+      // reading to the end checks the trailer of the stream
+      if (in.read() != -1) {
+        throw new IOException("Corrupted RIMG file.");
+      }
+    } catch (EOFException | ZipException e) {
+      throw new IOException("Corrupted RIMG file.");
+    }
+  }
+
+  private static int sampleBytesFor(ImageData imageData) {
+    int minValue = 0;
+    int maxValue = imageData.getMaxValue();
+    int[] values = new int[imageData.getWidth()];
+    for (int c = 0; c < imageData.getChannelCount(); c++) {
+      for (int y = 0; y < imageData.getHeight(); y++) {
+        imageData.copyRow(c, y, values, 0);
+        for (int value : values) {
+          minValue = Math.min(minValue, value);
+          maxValue = Math.max(maxValue, value);
+        }
+      }
+    }
+    if (minValue < 0 || maxValue > 0xFFFF) {
+      return 4;
+    }
+    return maxValue > 0xFF ? 2 : 1;
+  }
+
+  private static void putSamples(ByteBuffer row, int[] values, int sampleBytes) {
+    for (int value : values) {
+      switch (sampleBytes) {
+        case 1:
+          row.put((byte) value);
+          break;
+        case 2:
+          row.putShort((short) value);
+          break;
+        default:
+          row.putInt(value);
+      }
+    }
+  }
+
+  private static void getSamples(ByteBuffer row, int[] values, int sampleBytes) {
+    for (int x = 0; x < values.length; x++) {
+      switch (sampleBytes) {
+        case 1:
+          values[x] = row.get() & 0xFF;
+          break;
+        case 2:
+          values[x] = row.getShort() & 0xFFFF;
+          break;
+        default:
+          values[x] = row.getInt();
+      }
+    }
+  }
+
+  /**
+   * Wrap a sum of samples back into the range of a sample, as the deltas were stored modulo
+   * the sample size.
+   */
+  private static int wrapSample(int value, int sampleBytes) {
+    switch (sampleBytes) {
+      case 1:
+        return value & 0xFF;
+      case 2:
+        return value & 0xFFFF;
+      default:
+        return value;
+    }
+  }
+
+  private static void readFully(FileChannel file, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (file.read(buffer) < 0) {
+        throw new IOException("Corrupted RIMG file.");
+      }
+    }
+    buffer.flip();
+  }
+}
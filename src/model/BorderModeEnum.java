@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * The BorderModeEnum represents the ways a convolution can read pixels that fall
+ * outside the edges of a channel.
+ */
+public enum BorderModeEnum {
+  /**
+   * Pixels outside the channel are treated as zero and do not contribute to the result.
+   */
+  ZERO {
+    @Override
+    int sourceIndex(int index, int size) {
+      return index >= 0 && index < size ? index : -1;
+    }
+  },
+
+  /**
+   * Pixels outside the channel take the value of the nearest edge pixel.
+   */
+  CLAMP {
+    @Override
+    int sourceIndex(int index, int size) {
+      return Math.max(Math.min(index, size - 1), 0);
+    }
+  },
+
+  /**
+   * Pixels outside the channel are reflected about the edge pixel, which is not repeated,
+   * so that index -1 reads index 1.
+   */
+  MIRROR {
+    @Override
+    int sourceIndex(int index, int size) {
+      if (size == 1) {
+        return 0;
+      }
+      int period = 2 * (size - 1);
+      int folded = Math.floorMod(index, period);
+      return folded < size ? folded : period - folded;
+    }
+  },
+
+  /**
+   * Pixels outside the channel are read from the opposite edge, as if the channel tiled
+   * the plane.
+   */
+  WRAP {
+    @Override
+    int sourceIndex(int index, int size) {
+      return Math.floorMod(index, size);
+    }
+  };
+
+  /**
+   * Map a possibly out of range index along one axis onto the index that should be read.
+   *
+   * @param index The index to map, which may be negative or past the end of the axis.
+   * @param size  The length of the axis, which must be positive.
+   * @return The index to read, or -1 if the pixel contributes nothing.
+   */
+  abstract int sourceIndex(int index, int size);
+
+  /**
+   * Build a lookup table mapping every index in {@code [-radius, size + radius)} onto the
+   * index that should be read, so that entry {@code i} holds the source of index
+   * {@code i - radius}.
+   *
+   * @param size   The length of the axis.
+   * @param radius The number of indices read past each edge.
+   * @return The lookup table, with -1 for pixels that contribute nothing.
+   */
+  int[] indexTable(int size, int radius) {
+    int[] table = new int[size + 2 * radius];
+    for (int i = 0; i < table.length; i++) {
+      table[i] = size == 0 ? -1 : sourceIndex(i - radius, size);
+    }
+    return table;
+  }
+}
@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * The BytePixelBuffer class stores unsigned 8-bit pixel values, one byte per value.
+ */
+class BytePixelBuffer extends PixelBuffer {
+  static final int MAX_VALUE = 0xFF;
+  private final byte[] values;
+
+  /**
+   * Constructs a BytePixelBuffer backed by the given array.
+   *
+   * @param values The backing array.
+   */
+  BytePixelBuffer(byte[] values) {
+    this.values = values;
+  }
+
+  @Override
+  int size() {
+    return values.length;
+  }
+
+  @Override
+  int get(int index) {
+    return values[index] & MAX_VALUE;
+  }
+
+  @Override
+  void read(int from, int[] dst, int dstPos, int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = values[from + i] & MAX_VALUE;
+    }
+  }
+
+  @Override
+  void write(int to, int[] src, int srcPos, int length) {
+    for (int i = 0; i < length; i++) {
+      values[to + i] = (byte) src[srcPos + i];
+    }
+  }
+
+  @Override
+  void copy(int from, PixelBuffer dst, int to, int length) {
+    System.arraycopy(values, from, ((BytePixelBuffer) dst).values, to, length);
+  }
+
+  @Override
+  PixelBuffer newBuffer(int size) {
+    return new BytePixelBuffer(new byte[size]);
+  }
+}
@@ -1,17 +1,24 @@
 package model;
 
+import java.util.Arrays;
+
 /**
  * The Channel class implements the ChannelModel interface
  * and represents a channel with pixel data.
+ * The pixel data is held in a single contiguous row-major buffer, where the value at
+ * row y and column x is stored at index {@code y * width + x}. When the maximum pixel
+ * value is known the buffer uses the narrowest of byte, short or int storage.
  */
 class Channel implements ChannelModel {
-  private final int[][] channelValues;
+  private final PixelBuffer channelValues;
+  private final int height;
+  private final int width;
 
   /**
    * Constructs an empty Channel with zero height and width.
    */
   Channel() {
-    channelValues = new int[0][0];
+    this(0, 0);
   }
 
   /**
@@ -25,7 +32,9 @@ class Channel implements ChannelModel {
     if (height < 0 || width < 0) {
       throw new IllegalArgumentException("Invalid height and width for Channel");
     }
-    channelValues = new int[height][width];
+    this.height = height;
+    this.width = width;
+    this.channelValues = PixelBuffer.allocate(height * width, 0);
   }
 
   /**
@@ -35,15 +44,96 @@ class Channel implements ChannelModel {
    * @throws IllegalArgumentException If the provided array is not rectangular.
    */
   Channel(int[][] channelValues) throws IllegalArgumentException {
+    this(channelValues, -1);
+  }
+
+  /**
+   * Constructs a Channel with the provided channel values, stored in the narrowest
+   * representation that can hold the maximum pixel value.
+   *
+   * @param channelValues The two-dimensional array representing the channel values.
+   * @param maxValue      The maximum pixel value of the image the channel belongs to.
+   * @throws IllegalArgumentException If the provided array is not rectangular.
+   */
+  Channel(int[][] channelValues, int maxValue) throws IllegalArgumentException {
     checkRectangularArray(channelValues);
-    if (channelValues.length == 0) {
-      this.channelValues = new int[0][0];
-    } else {
-      this.channelValues = new int[channelValues.length][channelValues[0].length];
-      for (int i = 0; i < channelValues.length; i++) {
-        System.arraycopy(channelValues[i], 0, this.channelValues[i], 0, channelValues[0].length);
+    this.height = channelValues.length;
+    this.width = height == 0 ? 0 : channelValues[0].length;
+    int[] values = new int[height * width];
+    for (int i = 0; i < height; i++) {
+      System.arraycopy(channelValues[i], 0, values, i * width, width);
+    }
+    this.channelValues = PixelBuffer.of(values, maxValue);
+  }
+
+  /**
+   * Constructs a Channel that takes ownership of the provided row-major array.
+   * The array is not copied, so the caller must not modify it afterwards.
+   *
+   * @param height        The height of the channel.
+   * @param width         The width of the channel.
+   * @param channelValues The row-major array of channel values.
+   * @throws IllegalArgumentException If the array length does not match height and width.
+   */
+  Channel(int height, int width, int[] channelValues) throws IllegalArgumentException {
+    this(height, width, channelValues, -1);
+  }
+
+  /**
+   * Constructs a Channel from the provided row-major array, stored in the narrowest
+   * representation that can hold the maximum pixel value. If the array is kept as ints
+   * it is not copied, so the caller must not modify it afterwards.
+   *
+   * @param height        The height of the channel.
+   * @param width         The width of the channel.
+   * @param channelValues The row-major array of channel values.
+   * @param maxValue      The maximum pixel value of the image the channel belongs to.
+   * @throws IllegalArgumentException If the array length does not match height and width.
+   */
+  Channel(int height, int width, int[] channelValues, int maxValue)
+          throws IllegalArgumentException {
+    if (height < 0 || width < 0 || channelValues == null
+            || channelValues.length != height * width) {
+      throw new IllegalArgumentException("Invalid Channel Value Matrix");
+    }
+    this.height = height;
+    this.width = width;
+    this.channelValues = PixelBuffer.of(channelValues, maxValue);
+  }
+
+  /**
+   * Constructs a Channel from one channel of the given image data, reading the rows of
+   * the image data directly into the narrowest representation that can hold them.
+   *
+   * @param imageData The image data to read.
+   * @param channel   The index of the channel to read.
+   * @throws IllegalArgumentException If the image data has no such channel.
+   */
+  Channel(ImageData imageData, int channel) throws IllegalArgumentException {
+    if (channel < 0 || channel >= imageData.getChannelCount()) {
+      throw new IllegalArgumentException("Invalid Channel Value Matrix");
+    }
+    this.height = imageData.getHeight();
+    this.width = imageData.getWidth();
+    int limit = PixelBuffer.limit(imageData.getMaxValue());
+    for (int y = 0; y < height && limit >= 0; y++) {
+      for (int value : imageData.rowValues(channel, y)) {
+        if (value < 0 || value > limit) {
+          limit = -1;
+          break;
+        }
       }
     }
+    this.channelValues = PixelBuffer.allocate(height * width, limit);
+    for (int y = 0; y < height; y++) {
+      channelValues.write(y * width, imageData.rowValues(channel, y), 0, width);
+    }
+  }
+
+  private Channel(int height, int width, PixelBuffer channelValues) {
+    this.height = height;
+    this.width = width;
+    this.channelValues = channelValues;
   }
 
   /**
@@ -72,73 +162,235 @@ class Channel implements ChannelModel {
 
   @Override
   public int[][] getChannelValues() {
-    int[][] newValues = new int[getHeight()][getWidth()];
-    for (int i = 0; i < getHeight(); i++) {
-      System.arraycopy(channelValues[i], 0, newValues[i], 0, newValues[0].length);
+    int[][] newValues = new int[height][width];
+    for (int i = 0; i < height; i++) {
+      channelValues.read(i * width, newValues[i], 0, width);
     }
     return newValues;
   }
 
   @Override
   public ChannelModel getVerticalFlipChannel() {
-    int[][] newValues = new int[getHeight()][getWidth()];
-    for (int y = 0; y < getHeight(); y++) {
-      for (int x = 0; x < getWidth(); x++) {
-        newValues[getHeight() - 1 - y][x] = channelValues[y][x];
+    PixelBuffer newValues = channelValues.newBuffer(channelValues.size());
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      for (int y = startRow; y < endRow; y++) {
+        channelValues.copy(y * width, newValues, (height - 1 - y) * width, width);
       }
-    }
-    return new Channel(newValues);
+    });
+    return new Channel(height, width, newValues);
   }
 
   @Override
   public ChannelModel getHorizontalFlipChannel() {
-    int[][] newValues = new int[getHeight()][getWidth()];
-    for (int y = 0; y < getHeight(); y++) {
-      for (int x = 0; x < getWidth(); x++) {
-        newValues[y][getWidth() - 1 - x] = channelValues[y][x];
+    PixelBuffer newValues = channelValues.newBuffer(channelValues.size());
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      int[] row = new int[width];
+      int[] flippedRow = new int[width];
+      for (int y = startRow; y < endRow; y++) {
+        channelValues.read(y * width, row, 0, width);
+        for (int x = 0; x < width; x++) {
+          flippedRow[width - 1 - x] = row[x];
+        }
+        newValues.write(y * width, flippedRow, 0, width);
       }
-    }
-    return new Channel(newValues);
+    });
+    return new Channel(height, width, newValues);
   }
 
   @Override
   public ChannelModel addBuffer(int buffer, int maxPixelValue) {
-    int[][] newValues = new int[getHeight()][getWidth()];
-    for (int y = 0; y < getHeight(); y++) {
-      for (int x = 0; x < getWidth(); x++) {
-        newValues[y][x] = Math.max(Math.min(channelValues[y][x] + buffer, maxPixelValue), 0);
+    PixelBuffer newValues = PixelBuffer.allocate(channelValues.size(), maxPixelValue);
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      int[] row = new int[width];
+      for (int y = startRow; y < endRow; y++) {
+        channelValues.read(y * width, row, 0, width);
+        for (int x = 0; x < width; x++) {
+          row[x] = Math.max(Math.min(row[x] + buffer, maxPixelValue), 0);
+        }
+        newValues.write(y * width, row, 0, width);
       }
-    }
-    return new Channel(newValues);
+    });
+    return new Channel(height, width, newValues);
   }
 
   @Override
   public ChannelModel applyConvolution(double[][] kernel, int maxPixelValue)
           throws IllegalArgumentException {
-    isKernelValid(kernel);
-    int kernelHeight = kernel.length;
-    int kernelWidth = kernel[0].length;
-    int kernelWidthRadius = kernelWidth / 2;
-    int kernelHeightRadius = kernelHeight / 2;
-    int[][] newValues = new int[getHeight()][getWidth()];
-
-    for (int y = 0; y < getHeight(); y++) {
-      for (int x = 0; x < getWidth(); x++) {
-        int pixel = 0;
+    return applyConvolution(kernel, maxPixelValue, BorderModeEnum.ZERO);
+  }
 
+  /**
+   * Convolve each band of rows through a window of as many source rows as the kernel is
+   * tall, read from the buffer and padded by the border mode, so the channel is never
+   * copied whole into an int array.
+   */
+  @Override
+  public ChannelModel applyConvolution(double[][] kernel, int maxPixelValue,
+                                       BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    isKernelValid(kernel);
+    isBorderModeValid(borderMode);
+    FixedPointKernel fixedPointKernel = new FixedPointKernel(kernel);
+    int[] weights = fixedPointKernel.getWeights();
+    int kernelHeight = fixedPointKernel.getHeight();
+    int kernelWidth = fixedPointKernel.getWidth();
+    int[] rowIndex = borderMode.indexTable(height, kernelHeight / 2);
+    int[] columnIndex = borderMode.indexTable(width, kernelWidth / 2);
+    PixelBuffer newValues = PixelBuffer.allocate(channelValues.size(), maxPixelValue);
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      int[][] window = new int[kernelHeight][columnIndex.length];
+      long[] sums = new long[width];
+      int[] newRow = new int[width];
+      for (int i = startRow; i < startRow + kernelHeight - 1; i++) {
+        readPaddedRow(rowIndex[i], columnIndex, window[i % kernelHeight]);
+      }
+      for (int y = startRow; y < endRow; y++) {
+        int lastRow = y + kernelHeight - 1;
+        readPaddedRow(rowIndex[lastRow], columnIndex, window[lastRow % kernelHeight]);
+        Arrays.fill(sums, 0);
         for (int ky = 0; ky < kernelHeight; ky++) {
+          int[] inputRow = window[(y + ky) % kernelHeight];
           for (int kx = 0; kx < kernelWidth; kx++) {
-            int inputX = x - kernelWidthRadius + kx;
-            int inputY = y - kernelHeightRadius + ky;
-            if (inputX >= 0 && inputX < getWidth() && inputY >= 0 && inputY < getHeight()) {
-              pixel += (int) Math.round(channelValues[inputY][inputX] * kernel[ky][kx]);
+            long weight = weights[ky * kernelWidth + kx];
+            if (weight == 0) {
+              continue;
             }
+            for (int x = 0; x < width; x++) {
+              sums[x] += FixedPointKernel.roundTap(inputRow[x + kx] * weight);
+            }
+          }
+        }
+        for (int x = 0; x < width; x++) {
+          newRow[x] = clamp(sums[x], maxPixelValue);
+        }
+        newValues.write(y * width, newRow, 0, width);
+      }
+    });
+    return new Channel(height, width, newValues);
+  }
+
+  private static int clamp(long pixel, int maxPixelValue) {
+    return (int) Math.max(Math.min(pixel, maxPixelValue), 0);
+  }
+
+  /**
+   * Read a source row into the middle of a padded row and fill the padding on both sides
+   * from the column index table of the border mode. A negative source row reads as zero.
+   */
+  private void readPaddedRow(int sourceRow, int[] columnIndex, int[] paddedRow) {
+    if (sourceRow < 0) {
+      Arrays.fill(paddedRow, 0);
+      return;
+    }
+    int radius = (paddedRow.length - width) / 2;
+    channelValues.read(sourceRow * width, paddedRow, radius, width);
+    for (int i = 0; i < radius; i++) {
+      int left = columnIndex[i];
+      int right = columnIndex[radius + width + i];
+      paddedRow[i] = left < 0 ? 0 : paddedRow[radius + left];
+      paddedRow[radius + width + i] = right < 0 ? 0 : paddedRow[radius + right];
+    }
+  }
+
+  @Override
+  public ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                                int maxPixelValue)
+          throws IllegalArgumentException {
+    return applySeparableConvolution(columnKernel, rowKernel, maxPixelValue,
+            BorderModeEnum.ZERO);
+  }
+
+  @Override
+  public ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                                int maxPixelValue, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    SeparableKernel kernel = new SeparableKernel(columnKernel, rowKernel);
+    isBorderModeValid(borderMode);
+    int[] columnWeights = FixedPointKernel.quantize(kernel.getColumnKernel());
+    int[] rowWeights = FixedPointKernel.quantize(kernel.getRowKernel());
+    int columnRadius = columnWeights.length / 2;
+    int rowRadius = rowWeights.length / 2;
+    checkSeparableRange(columnWeights, rowWeights);
+    int[] rowIndex = borderMode.indexTable(height, columnRadius);
+    int[] columnIndex = borderMode.indexTable(width, rowRadius);
+    PixelBuffer newValues = PixelBuffer.allocate(channelValues.size(), maxPixelValue);
+    long half = 1L << (2 * FixedPointKernel.FRACTION_BITS - 1);
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      // the rows of the horizontal pass under the column kernel
+      long[][] window = new long[columnWeights.length][width];
+      int[] paddedRow = new int[columnIndex.length];
+      long[] sums = new long[width];
+      int[] newRow = new int[width];
+      for (int i = startRow; i < startRow + columnWeights.length - 1; i++) {
+        convolveRow(rowIndex[i], columnIndex, rowWeights, paddedRow,
+                window[i % columnWeights.length]);
+      }
+      for (int y = startRow; y < endRow; y++) {
+        int lastRow = y + columnWeights.length - 1;
+        convolveRow(rowIndex[lastRow], columnIndex, rowWeights, paddedRow,
+                window[lastRow % columnWeights.length]);
+        Arrays.fill(sums, 0);
+        for (int ky = 0; ky < columnWeights.length; ky++) {
+          long weight = columnWeights[ky];
+          long[] horizontalPass = window[(y + ky) % columnWeights.length];
+          for (int x = 0; x < width; x++) {
+            sums[x] += horizontalPass[x] * weight;
           }
         }
-        newValues[y][x] = Math.max(Math.min(pixel, maxPixelValue), 0);
+        for (int x = 0; x < width; x++) {
+          long pixel = (sums[x] + half) >> (2 * FixedPointKernel.FRACTION_BITS);
+          newRow[x] = clamp(pixel, maxPixelValue);
+        }
+        newValues.write(y * width, newRow, 0, width);
+      }
+    });
+    return new Channel(height, width, newValues);
+  }
+
+  /**
+   * Apply the row kernel to one source row, kept unrounded in Q16.
+   */
+  private void convolveRow(int sourceRow, int[] columnIndex, int[] rowWeights,
+                           int[] paddedRow, long[] horizontalPass) {
+    readPaddedRow(sourceRow, columnIndex, paddedRow);
+    for (int x = 0; x < width; x++) {
+      long sum = 0;
+      for (int kx = 0; kx < rowWeights.length; kx++) {
+        sum += (long) paddedRow[x + kx] * rowWeights[kx];
+      }
+      horizontalPass[x] = sum;
+    }
+  }
+
+  private void checkSeparableRange(int[] columnWeights, int[] rowWeights)
+          throws IllegalArgumentException {
+    long maxAbsValue = 0;
+    int[] row = new int[width];
+    for (int y = 0; y < height; y++) {
+      channelValues.read(y * width, row, 0, width);
+      for (int value : row) {
+        maxAbsValue = Math.max(maxAbsValue, Math.abs((long) value));
       }
     }
-    return new Channel(newValues);
+    double bound = (double) maxAbsValue * sumOfMagnitudes(columnWeights)
+            * sumOfMagnitudes(rowWeights);
+    if (bound >= Long.MAX_VALUE / 2.0) {
+      throw new IllegalArgumentException("Kernel too large for fixed point convolution");
+    }
+  }
+
+  private static double sumOfMagnitudes(int[] weights) {
+    double sum = 0;
+    for (int weight : weights) {
+      sum += Math.abs((double) weight);
+    }
+    return sum;
+  }
+
+  private void isBorderModeValid(BorderModeEnum borderMode) throws IllegalArgumentException {
+    if (borderMode == null) {
+      throw new IllegalArgumentException("Invalid border mode");
+    }
   }
 
   private void isKernelValid(double[][] kernel) throws IllegalArgumentException {
@@ -149,19 +401,19 @@ class Channel implements ChannelModel {
 
   @Override
   public int getHeight() {
-    return channelValues.length;
+    return height;
   }
 
   @Override
   public int getWidth() {
-    return getHeight() == 0 ? 0 : channelValues[0].length;
+    return width;
   }
 
   @Override
   public int getValue(int y, int x) throws IllegalArgumentException {
-    if (y >= getHeight() || y < 0 || x >= getWidth() || x < 0) {
+    if (y >= height || y < 0 || x >= width || x < 0) {
       throw new IllegalArgumentException("Invalid pixel values for the image.");
     }
-    return channelValues[y][x];
+    return channelValues.get(y * width + x);
   }
 }
@@ -36,7 +36,8 @@ interface ChannelModel {
 
   /**
    * Apply convolution with the given kernel on the channel values and return a
-   * new channel with the resultant values.
+   * new channel with the resultant values. Each kernel tap is rounded to an integer
+   * before it is added to the result.
    *
    * @param kernel         The convolution kernel to apply.
    * @param maxPixelValues The maximum pixel values allowed in the channel.
@@ -44,6 +45,52 @@ interface ChannelModel {
    */
   ChannelModel applyConvolution(double[][] kernel, int maxPixelValues);
 
+  /**
+   * Apply convolution with the given kernel on the channel values, reading pixels past
+   * the edges of the channel according to the given border mode, and return a new
+   * channel with the resultant values. Each kernel tap is rounded to an integer
+   * before it is added to the result.
+   *
+   * @param kernel         The convolution kernel to apply.
+   * @param maxPixelValues The maximum pixel values allowed in the channel.
+   * @param borderMode     How pixels outside the channel are read.
+   * @return A new ChannelModel with the convolution result.
+   * @throws IllegalArgumentException If the kernel or the border mode is invalid.
+   */
+  ChannelModel applyConvolution(double[][] kernel, int maxPixelValues, BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
+  /**
+   * Apply convolution with the separable kernel {@code columnKernel x rowKernel} on the
+   * channel values as a horizontal pass followed by a vertical pass, and return a new
+   * channel with the resultant values. Unlike {@link #applyConvolution(double[][], int)}
+   * the result of each pixel is rounded once, after both passes.
+   *
+   * @param columnKernel   The vertical one-dimensional kernel.
+   * @param rowKernel      The horizontal one-dimensional kernel.
+   * @param maxPixelValues The maximum pixel values allowed in the channel.
+   * @return A new ChannelModel with the convolution result.
+   * @throws IllegalArgumentException If either kernel is null or of even length.
+   */
+  ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                         int maxPixelValues) throws IllegalArgumentException;
+
+  /**
+   * Apply convolution with the separable kernel {@code columnKernel x rowKernel} on the
+   * channel values as two one-dimensional passes, reading pixels past the edges of the
+   * channel according to the given border mode.
+   *
+   * @param columnKernel   The vertical one-dimensional kernel.
+   * @param rowKernel      The horizontal one-dimensional kernel.
+   * @param maxPixelValues The maximum pixel values allowed in the channel.
+   * @param borderMode     How pixels outside the channel are read.
+   * @return A new ChannelModel with the convolution result.
+   * @throws IllegalArgumentException If either kernel or the border mode is invalid.
+   */
+  ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                         int maxPixelValues, BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
   /**
    * Get the channel height.
    *
@@ -0,0 +1,125 @@
+package model;
+
+/**
+ * The FixedPointKernel class holds convolution weights quantized to signed Q16 fixed point,
+ * that is every weight {@code w} is stored as the integer {@code round(w * 2^16)}, so that
+ * convolution loops can run on integer multiply-accumulate only.
+ *
+ * <p>Error bound: a weight that is a multiple of {@code 2^-16}, which covers every kernel
+ * built from halves, quarters, eighths and sixteenths such as the blur and sharpen kernels,
+ * is represented exactly, and {@link #roundTap(long)} then returns exactly
+ * {@code Math.round(value * weight)}. Any other weight is off by at most {@code 2^-17},
+ * so a tap on a value {@code v} is off by at most {@code |v| * 2^-17} before rounding, and
+ * the rounded tap differs from {@code Math.round(v * weight)} by at most
+ * {@code |v| * 2^-17 + 1}. For 8-bit values the error before rounding is below 0.002 and for
+ * 16-bit values below 0.5, so a rounded tap is off by at most one, and only when the exact
+ * product lies within that distance of a half. For 32-bit values a tap may be off by up to
+ * {@code 2^14 + 1}.
+ *
+ * <p>Range: a rounded tap of any int value and weight fits in 47 bits, and a kernel has at
+ * most {@code 2^16} weights, so the taps of a pixel always sum without overflow in a long.
+ */
+final class FixedPointKernel {
+  static final int FRACTION_BITS = 16;
+  static final long ONE = 1L << FRACTION_BITS;
+  static final long HALF = ONE >> 1;
+  static final int MAX_TAPS = 1 << 16;
+  private static final double MAX_WEIGHT = (double) Integer.MAX_VALUE / ONE;
+  private final int[] weights;
+  private final int height;
+  private final int width;
+
+  /**
+   * Constructs a FixedPointKernel by quantizing the given two-dimensional kernel.
+   *
+   * @param kernel The kernel to quantize.
+   * @throws IllegalArgumentException If the kernel is not rectangular, has an even size,
+   *                                  has more than {@link #MAX_TAPS} weights or has a
+   *                                  weight too large for fixed point.
+   */
+  FixedPointKernel(double[][] kernel) throws IllegalArgumentException {
+    if (kernel == null || kernel.length % 2 == 0 || kernel[0].length % 2 == 0
+            || (long) kernel.length * kernel[0].length > MAX_TAPS) {
+      throw new IllegalArgumentException("Invalid Kernel");
+    }
+    this.height = kernel.length;
+    this.width = kernel[0].length;
+    this.weights = new int[height * width];
+    for (int i = 0; i < height; i++) {
+      if (kernel[i].length != width) {
+        throw new IllegalArgumentException("Invalid Kernel");
+      }
+      for (int j = 0; j < width; j++) {
+        weights[i * width + j] = quantize(kernel[i][j]);
+      }
+    }
+  }
+
+  /**
+   * Quantize a single weight to Q16 fixed point.
+   *
+   * @param weight The weight to quantize.
+   * @return The weight multiplied by {@code 2^16} and rounded to the nearest integer.
+   * @throws IllegalArgumentException If the weight is not finite or too large.
+   */
+  static int quantize(double weight) throws IllegalArgumentException {
+    if (Double.isNaN(weight) || Math.abs(weight) > MAX_WEIGHT) {
+      throw new IllegalArgumentException("Invalid Kernel");
+    }
+    return (int) Math.round(weight * ONE);
+  }
+
+  /**
+   * Quantize a one-dimensional kernel to Q16 fixed point.
+   *
+   * @param kernel The kernel to quantize.
+   * @return The quantized weights.
+   * @throws IllegalArgumentException If a weight is not finite or too large.
+   */
+  static int[] quantize(double[] kernel) throws IllegalArgumentException {
+    int[] quantized = new int[kernel.length];
+    for (int i = 0; i < kernel.length; i++) {
+      quantized[i] = quantize(kernel[i]);
+    }
+    return quantized;
+  }
+
+  /**
+   * Round a Q16 product of a value and a weight to the nearest integer, with halves
+   * rounded up, matching {@code Math.round}. The result is a long because the product of
+   * a large value and a large weight does not fit in an int.
+   *
+   * @param product The product of a pixel value and a quantized weight.
+   * @return The rounded integer.
+   */
+  static long roundTap(long product) {
+    return (product + HALF) >> FRACTION_BITS;
+  }
+
+  /**
+   * Get the quantized weights in row-major order.
+   *
+   * @return The quantized weights. The array must not be modified.
+   */
+  int[] getWeights() {
+    return weights;
+  }
+
+  /**
+   * Get the kernel height.
+   *
+   * @return The number of kernel rows.
+   */
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * Get the kernel width.
+   *
+   * @return The number of kernel columns.
+   */
+  int getWidth() {
+    return width;
+  }
+}
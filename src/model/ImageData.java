@@ -1,5 +1,6 @@
 package model;
 
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -8,6 +9,8 @@ import java.util.Objects;
  * storing pixel information about an image.
  * This class is often used as an entity for passing image data to and from the model,
  * controller, and view components.
+ * The pixel data is not modified after construction: {@link #getData()} returns a deep
+ * copy, while the dimension, value and row accessors read the pixels without copying.
  */
 public class ImageData {
   private final int[][][] data;
@@ -38,6 +41,9 @@ public class ImageData {
     }
     for (int[][] channelValues : data) {
       Channel.checkRectangularArray(channelValues);
+      if (channelValues.length > 0 && channelValues[0].length != data[0][0].length) {
+        throw new IllegalArgumentException("Channel Widths are not the same");
+      }
     }
     this.data = data;
     this.maxValue = maxValue;
@@ -51,15 +57,97 @@ public class ImageData {
    *         represent color components like red, green, and blue.
    */
   public int[][][] getData() {
-    int[][][] copy = new int[data.length][data[0].length][data[0][0].length];
+    int[][][] copy = new int[data.length][][];
     for (int i = 0; i < data.length; i++) {
-      for (int j = 0; j < data[0].length; j++) {
-        System.arraycopy(data[i][j], 0, copy[i][j], 0, data[i][j].length);
+      copy[i] = new int[data[i].length][];
+      for (int j = 0; j < data[i].length; j++) {
+        copy[i][j] = data[i][j].clone();
       }
     }
     return copy;
   }
 
+  /**
+   * Get the number of channels in the image.
+   *
+   * @return The number of channels in the image.
+   */
+  public int getChannelCount() {
+    return data.length;
+  }
+
+  /**
+   * Get the height of the image.
+   *
+   * @return The number of rows in each channel.
+   */
+  public int getHeight() {
+    return data.length == 0 ? 0 : data[0].length;
+  }
+
+  /**
+   * Get the width of the image.
+   *
+   * @return The number of columns in each channel.
+   */
+  public int getWidth() {
+    return getHeight() == 0 ? 0 : data[0][0].length;
+  }
+
+  /**
+   * Get a single pixel value without copying the image.
+   *
+   * @param channel The channel of the value.
+   * @param y       The row of the value.
+   * @param x       The column of the value.
+   * @return The pixel value.
+   * @throws IndexOutOfBoundsException If the position is outside the image.
+   */
+  public int getValue(int channel, int y, int x) throws IndexOutOfBoundsException {
+    return data[channel][y][x];
+  }
+
+  /**
+   * Get a read-only view of one row of a channel. The view shares the pixel data of the
+   * image, so no values are copied.
+   *
+   * @param channel The channel of the row.
+   * @param y       The row to view.
+   * @return A read-only buffer over the values of the row.
+   * @throws IndexOutOfBoundsException If the row is outside the image.
+   */
+  public IntBuffer getRow(int channel, int y) throws IndexOutOfBoundsException {
+    return IntBuffer.wrap(data[channel][y]).asReadOnlyBuffer();
+  }
+
+  /**
+   * Copy one row of a channel into the given array, so that a caller can reuse a
+   * single row buffer for the whole image.
+   *
+   * @param channel The channel of the row.
+   * @param y       The row to copy.
+   * @param dst     The destination array.
+   * @param dstPos  The starting position in the destination array.
+   * @throws IndexOutOfBoundsException If the row is outside the image or the destination
+   *                                   is too small.
+   */
+  public void copyRow(int channel, int y, int[] dst, int dstPos)
+          throws IndexOutOfBoundsException {
+    System.arraycopy(data[channel][y], 0, dst, dstPos, data[channel][y].length);
+  }
+
+  /**
+   * Get the array backing one row of a channel, for model code that reads pixels
+   * without copying them. The array must not be modified.
+   *
+   * @param channel The channel of the row.
+   * @param y       The row to get.
+   * @return The array backing the row.
+   */
+  int[] rowValues(int channel, int y) {
+    return data[channel][y];
+  }
+
   /**
    * Get the maximum pixel value in the image.
    *
@@ -80,13 +168,13 @@ public class ImageData {
     }
     ImageData imageData = (ImageData) o;
     return getMaxValue() == imageData.getMaxValue()
-            && Arrays.deepEquals(getData(), imageData.getData());
+            && Arrays.deepEquals(data, imageData.data);
   }
 
   @Override
   public int hashCode() {
     int result = Objects.hash(getMaxValue());
-    result = 31 * result + Arrays.deepHashCode(getData());
+    result = 31 * result + Arrays.deepHashCode(data);
     return result;
   }
 }
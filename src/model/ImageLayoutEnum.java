@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * The ImageLayoutEnum represents the ways an RGB image can lay out its pixels in memory.
+ */
+public enum ImageLayoutEnum {
+  /**
+   * Each color component is held in its own channel plane.
+   */
+  PLANAR,
+
+  /**
+   * The color components of a pixel are packed together into a single int, in the same
+   * layout as {@code BufferedImage.TYPE_INT_RGB}. Only used for images whose values
+   * fit in 8 bits, other images fall back to the planar layout.
+   */
+  INTERLEAVED,
+
+  /**
+   * The image is divided into square tiles held in a temporary file, with only a bounded
+   * number of tiles in memory, for images too large to process on the heap.
+   */
+  TILED
+}
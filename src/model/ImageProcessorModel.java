@@ -1,5 +1,6 @@
 package model;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -29,6 +30,35 @@ public interface ImageProcessorModel {
    */
   ImageData getImageData(String imageName) throws IllegalArgumentException;
 
+  /**
+   * Add an image read from a source, taking it whole or one row at a time as the layout
+   * of the model prefers. This reads the whole image and adds it with
+   * {@link #addImage(String, ImageData)}.
+   *
+   * @param destImageName The unique name to associate with the added image.
+   * @param source        The source of the image.
+   * @throws IOException              If the image cannot be read.
+   * @throws IllegalArgumentException If the destImageName or the image is invalid.
+   */
+  default void loadImage(String destImageName, ImageSource source)
+          throws IOException, IllegalArgumentException {
+    addImage(destImageName, source.readImage());
+  }
+
+  /**
+   * Write an image to a target, giving it whole or one row at a time as the layout of the
+   * model prefers. This gives the target the result of {@link #getImageData(String)}.
+   *
+   * @param imageName The name of the image to write.
+   * @param target    The target of the image.
+   * @throws IOException              If the image cannot be written.
+   * @throws IllegalArgumentException If the image with the specified name does not exist.
+   */
+  default void saveImage(String imageName, ImageTarget target)
+          throws IOException, IllegalArgumentException {
+    target.writeImage(getImageData(imageName));
+  }
+
   /**
    * Visualize the image using the specified component and associate it with a new name.
    *
@@ -115,6 +145,35 @@ public interface ImageProcessorModel {
    */
   void blur(String imageName, String destImageName) throws IllegalArgumentException;
 
+  /**
+   * Apply a blur effect to the image, reading the pixels past its edges as the given border
+   * mode says, and associate the result with a new name. {@link BorderModeEnum#ZERO} gives
+   * the same result as {@link #blur(String, String)}.
+   *
+   * @param imageName     The name of the image to apply the blur effect.
+   * @param destImageName The name to associate with the blurred image.
+   *                      Must not contain whitespace, line breaks, or tabs.
+   * @param borderMode    The way pixels past the edges of the image are read.
+   * @throws IllegalArgumentException If the image does not exist, if the
+   *                      destImageName is invalid or if the border mode is null.
+   */
+  void blur(String imageName, String destImageName, BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
+  /**
+   * Apply the blur effect as a horizontal and a vertical pass of one-dimensional kernels,
+   * which costs 6 instead of 9 multiplications per value. The sum of each pixel is rounded
+   * once instead of once per kernel entry, so a value may be one more or one less than the
+   * value given by {@link #blur}.
+   *
+   * @param imageName     The name of the image to apply the blur effect.
+   * @param destImageName The name to associate with the blurred image.
+   *                      Must not contain whitespace, line breaks, or tabs.
+   * @throws IllegalArgumentException If the image does not exist or if the
+   *                      destImageName is invalid.
+   */
+  void separableBlur(String imageName, String destImageName) throws IllegalArgumentException;
+
   /**
    * Apply a sharpening effect to the image and associate the result with a new name.
    *
@@ -126,6 +185,21 @@ public interface ImageProcessorModel {
    */
   void sharpen(String imageName, String destImageName) throws IllegalArgumentException;
 
+  /**
+   * Apply a sharpening effect to the image, reading the pixels past its edges as the given
+   * border mode says, and associate the result with a new name. {@link BorderModeEnum#ZERO}
+   * gives the same result as {@link #sharpen(String, String)}.
+   *
+   * @param imageName     The name of the image to apply the sharpening effect.
+   * @param destImageName The name to associate with the sharpened image.
+   *                      Must not contain whitespace, line breaks, or tabs.
+   * @param borderMode    The way pixels past the edges of the image are read.
+   * @throws IllegalArgumentException If the image does not exist, if the destImageName
+   *                      is invalid or if the border mode is null.
+   */
+  void sharpen(String imageName, String destImageName, BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
   /**
    * Apply a sepia tone effect to the image and associate the result with a new name.
    *
@@ -136,4 +210,20 @@ public interface ImageProcessorModel {
    *                      is invalid.
    */
   void sepia(String imageName, String destImageName) throws IllegalArgumentException;
+
+  /**
+   * Set the memory layout of the images added to the model from now on. Images already in
+   * the model keep their layout.
+   *
+   * @param layout The memory layout of new images.
+   * @throws IllegalArgumentException If the layout is null.
+   */
+  void setLayout(ImageLayoutEnum layout) throws IllegalArgumentException;
+
+  /**
+   * Release the resources held by the model, such as the temporary files of its images.
+   * The model should not be used afterwards. This does nothing by default.
+   */
+  default void close() {
+  }
 }
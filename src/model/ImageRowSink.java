@@ -0,0 +1,20 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The ImageRowSink interface takes the rows of an image one at a time, from top to
+ * bottom. The size and max value of the image are fixed when the sink is opened, and the
+ * image is complete once every row is written and the sink is closed.
+ */
+public interface ImageRowSink extends Closeable {
+
+  /**
+   * Write the next row of the image.
+   *
+   * @param rows The red, green and blue values of the row, {@code [3][width]}.
+   * @throws IOException If the row cannot be written, or every row has been written.
+   */
+  void writeRow(int[][] rows) throws IOException;
+}
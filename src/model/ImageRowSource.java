@@ -0,0 +1,42 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The ImageRowSource interface gives the rows of an image one at a time, from top to
+ * bottom, so an image can be passed between a file and the model without ever being held
+ * whole in memory.
+ */
+public interface ImageRowSource extends Closeable {
+
+  /**
+   * Get the image width.
+   *
+   * @return The number of values in each row.
+   */
+  int getWidth();
+
+  /**
+   * Get the image height.
+   *
+   * @return The number of rows.
+   */
+  int getHeight();
+
+  /**
+   * Get the maximum pixel value of the image.
+   *
+   * @return The maximum pixel value.
+   */
+  int getMaxValue();
+
+  /**
+   * Read the next row of the image.
+   *
+   * @param rows The arrays to fill with the red, green and blue values of the row,
+   *             {@code [3][width]}.
+   * @throws IOException If the row cannot be read, or every row has been read.
+   */
+  void readRow(int[][] rows) throws IOException;
+}
@@ -0,0 +1,27 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * The ImageSource interface supplies an image to {@link ImageProcessorModel#loadImage}
+ * either whole or one row at a time, so the model can take it in the form that suits the
+ * layout it holds images in.
+ */
+public interface ImageSource {
+
+  /**
+   * Read the whole image.
+   *
+   * @return The image.
+   * @throws IOException If the image cannot be read.
+   */
+  ImageData readImage() throws IOException;
+
+  /**
+   * Open the image to read it one row at a time.
+   *
+   * @return The rows of the image, which the caller closes.
+   * @throws IOException If the image cannot be opened.
+   */
+  ImageRowSource openRows() throws IOException;
+}
@@ -0,0 +1,30 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * The ImageTarget interface receives an image from {@link ImageProcessorModel#saveImage}
+ * either whole or one row at a time, so the model can give it in the form that suits the
+ * layout it holds images in.
+ */
+public interface ImageTarget {
+
+  /**
+   * Write the whole image.
+   *
+   * @param imageData The image, which the target may keep.
+   * @throws IOException If the image cannot be written.
+   */
+  void writeImage(ImageData imageData) throws IOException;
+
+  /**
+   * Open a sink to write an image one row at a time.
+   *
+   * @param width    The width of the image.
+   * @param height   The height of the image.
+   * @param maxValue The maximum pixel value of the image.
+   * @return The sink, which the caller closes once every row is written.
+   * @throws IOException If the image cannot be written.
+   */
+  ImageRowSink openRows(int width, int height, int maxValue) throws IOException;
+}
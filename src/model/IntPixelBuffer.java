@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * The IntPixelBuffer class stores pixel values as ints. It is used for images whose maximum
+ * value does not fit in 16 bits and for channels that are not tied to a maximum value.
+ */
+class IntPixelBuffer extends PixelBuffer {
+  private final int[] values;
+
+  /**
+   * Constructs an IntPixelBuffer backed by the given array.
+   *
+   * @param values The backing array.
+   */
+  IntPixelBuffer(int[] values) {
+    this.values = values;
+  }
+
+  @Override
+  int size() {
+    return values.length;
+  }
+
+  @Override
+  int get(int index) {
+    return values[index];
+  }
+
+  @Override
+  void read(int from, int[] dst, int dstPos, int length) {
+    System.arraycopy(values, from, dst, dstPos, length);
+  }
+
+  @Override
+  void write(int to, int[] src, int srcPos, int length) {
+    System.arraycopy(src, srcPos, values, to, length);
+  }
+
+  @Override
+  void copy(int from, PixelBuffer dst, int to, int length) {
+    System.arraycopy(values, from, ((IntPixelBuffer) dst).values, to, length);
+  }
+
+  @Override
+  PixelBuffer newBuffer(int size) {
+    return new IntPixelBuffer(new int[size]);
+  }
+
+  @Override
+  int[] toIntArray() {
+    return values;
+  }
+}
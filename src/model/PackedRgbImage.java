@@ -0,0 +1,301 @@
+package model;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * The PackedRgbImage class implements the RgbImageModel interface and represents an
+ * RGB image whose pixels are stored interleaved, one int per pixel packed as
+ * {@code 0xRRGGBB}. Per-pixel color operations read all three components of a pixel
+ * from a single array element. The packed layout only holds 8-bit components, so
+ * the maximum pixel value of the image cannot exceed 255.
+ */
+class PackedRgbImage implements RgbImageModel {
+  static final int MAX_PACKED_VALUE = 255;
+  private int[] pixels;
+  private int height;
+  private int width;
+  private int maxPixelValue;
+
+  /**
+   * Constructs an empty PackedRgbImage with a maximum pixel value of 255.
+   */
+  PackedRgbImage() {
+    pixels = new int[0];
+    height = 0;
+    width = 0;
+    maxPixelValue = MAX_PACKED_VALUE;
+  }
+
+  /**
+   * Constructs a PackedRgbImage that takes ownership of the provided packed pixels.
+   *
+   * @param height        The height of the image.
+   * @param width         The width of the image.
+   * @param pixels        The row-major packed pixels of the image.
+   * @param maxPixelValue The maximum pixel value for the image.
+   * @throws IllegalArgumentException If the pixel count does not match the size of
+   *                                  the image or the maximum value is out of range.
+   */
+  PackedRgbImage(int height, int width, int[] pixels, int maxPixelValue)
+          throws IllegalArgumentException {
+    if (height < 0 || width < 0 || pixels == null || pixels.length != height * width) {
+      throw new IllegalArgumentException("Invalid Channel Size");
+    }
+    checkMaxValue(maxPixelValue);
+    this.pixels = pixels;
+    this.height = height;
+    this.width = width;
+    this.maxPixelValue = maxPixelValue;
+  }
+
+  /**
+   * Checks whether the given image data can be held in the packed layout, that is
+   * it has three channels of the same size and all of its values fit in 8 bits.
+   *
+   * @param imageData The image data to check.
+   * @return true if the image data can be packed, false otherwise.
+   */
+  static boolean canPack(ImageData imageData) {
+    if (imageData.getChannelCount() != 3 || imageData.getMaxValue() > MAX_PACKED_VALUE) {
+      return false;
+    }
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < imageData.getHeight(); y++) {
+        for (int value : imageData.rowValues(c, y)) {
+          if (value < 0 || value > MAX_PACKED_VALUE) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private static void checkMaxValue(int maxPixelValue) throws IllegalArgumentException {
+    if (maxPixelValue < 0 || maxPixelValue > MAX_PACKED_VALUE) {
+      throw new IllegalArgumentException("Max value not supported by packed image");
+    }
+  }
+
+  private static int pack(int red, int green, int blue) {
+    return red << 16 | green << 8 | blue;
+  }
+
+  private int clamp(int value) {
+    return Math.max(Math.min(value, maxPixelValue), 0);
+  }
+
+  @Override
+  public RgbImageModel visualizeComponent(ComponentEnum componentEnum)
+          throws IllegalArgumentException {
+    if (componentEnum == null) {
+      throw new IllegalArgumentException("Invalid component to visualize");
+    }
+    int[] newPixels = new int[pixels.length];
+    switch (componentEnum) {
+      case RED:
+        for (int i = 0; i < pixels.length; i++) {
+          newPixels[i] = pixels[i] & 0xFF0000;
+        }
+        break;
+      case GREEN:
+        for (int i = 0; i < pixels.length; i++) {
+          newPixels[i] = pixels[i] & 0x00FF00;
+        }
+        break;
+      case BLUE:
+        for (int i = 0; i < pixels.length; i++) {
+          newPixels[i] = pixels[i] & 0x0000FF;
+        }
+        break;
+      case LUMA:
+        double[][] buffer = {
+                {0.2126, 0.7152, 0.0722},
+                {0.2126, 0.7152, 0.0722},
+                {0.2126, 0.7152, 0.0722},
+        };
+        return applyTone(buffer);
+      case INTENSITY:
+        for (int i = 0; i < pixels.length; i++) {
+          int pixel = pixels[i];
+          int value = clamp(((pixel >> 16 & 0xFF) + (pixel >> 8 & 0xFF) + (pixel & 0xFF)) / 3);
+          newPixels[i] = pack(value, value, value);
+        }
+        break;
+      case VALUE:
+        for (int i = 0; i < pixels.length; i++) {
+          int pixel = pixels[i];
+          int value = clamp(Math.max(Math.max(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF),
+                  pixel & 0xFF));
+          newPixels[i] = pack(value, value, value);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid component to visualize");
+    }
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public RgbImageModel horizontalFlip() {
+    int[] newPixels = new int[pixels.length];
+    for (int y = 0; y < height; y++) {
+      int rowStart = y * width;
+      int rowEnd = rowStart + width - 1;
+      for (int x = 0; x < width; x++) {
+        newPixels[rowEnd - x] = pixels[rowStart + x];
+      }
+    }
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public RgbImageModel verticalFlip() {
+    int[] newPixels = new int[pixels.length];
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(pixels, y * width, newPixels, (height - 1 - y) * width, width);
+    }
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public RgbImageModel brighten(int increment) {
+    int[] newPixels = new int[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      int pixel = pixels[i];
+      newPixels[i] = pack(clamp((pixel >> 16 & 0xFF) + increment),
+              clamp((pixel >> 8 & 0xFF) + increment),
+              clamp((pixel & 0xFF) + increment));
+    }
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public RgbImageModel applyFilter(double[][] kernel) throws IllegalArgumentException {
+    return applyToChannels(channel -> channel.applyConvolution(kernel, maxPixelValue));
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel)
+          throws IllegalArgumentException {
+    return applyToChannels(channel
+        -> channel.applySeparableConvolution(columnKernel, rowKernel, maxPixelValue));
+  }
+
+  @Override
+  public RgbImageModel applyFilter(double[][] kernel, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    return applyToChannels(channel
+        -> channel.applyConvolution(kernel, maxPixelValue, borderMode));
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel,
+                                            BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    return applyToChannels(channel
+        -> channel.applySeparableConvolution(columnKernel, rowKernel, maxPixelValue,
+            borderMode));
+  }
+
+  private RgbImageModel applyToChannels(UnaryOperator<ChannelModel> operation) {
+    int[] red = new int[pixels.length];
+    int[] green = new int[pixels.length];
+    int[] blue = new int[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      red[i] = pixels[i] >> 16 & 0xFF;
+      green[i] = pixels[i] >> 8 & 0xFF;
+      blue[i] = pixels[i] & 0xFF;
+    }
+    int[][][] result = new int[3][][];
+    ParallelRows.invokeAll(
+        () -> result[0] = operation.apply(new Channel(height, width, red)).getChannelValues(),
+        () -> result[1] = operation.apply(new Channel(height, width, green)).getChannelValues(),
+        () -> result[2] = operation.apply(new Channel(height, width, blue)).getChannelValues());
+    int[][] newRed = result[0];
+    int[][] newGreen = result[1];
+    int[][] newBlue = result[2];
+
+    int[] newPixels = new int[pixels.length];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        newPixels[y * width + x] = pack(newRed[y][x], newGreen[y][x], newBlue[y][x]);
+      }
+    }
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public RgbImageModel applyTone(double[][] buffer) throws IllegalArgumentException {
+    if (buffer.length != 3) {
+      throw new IllegalArgumentException("Invalid tone buffer");
+    }
+    for (double[] doubles : buffer) {
+      if (doubles.length != 3) {
+        throw new IllegalArgumentException("Invalid tone buffer");
+      }
+    }
+    int[] newPixels = new int[pixels.length];
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      for (int i = startRow * width; i < endRow * width; i++) {
+        int pixel = pixels[i];
+        double redValue = pixel >> 16 & 0xFF;
+        double greenValue = pixel >> 8 & 0xFF;
+        double blueValue = pixel & 0xFF;
+
+        int newRed = clamp((int) Math.round(
+                buffer[0][0] * redValue + buffer[0][1] * greenValue + buffer[0][2] * blueValue));
+        int newGreen = clamp((int) Math.round(
+                buffer[1][0] * redValue + buffer[1][1] * greenValue + buffer[1][2] * blueValue));
+        int newBlue = clamp((int) Math.round(
+                buffer[2][0] * redValue + buffer[2][1] * greenValue + buffer[2][2] * blueValue));
+        newPixels[i] = pack(newRed, newGreen, newBlue);
+      }
+    });
+    return new PackedRgbImage(height, width, newPixels, maxPixelValue);
+  }
+
+  @Override
+  public ImageData getImageData() {
+    int[][][] data = new int[3][height][width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int pixel = pixels[y * width + x];
+        data[0][y][x] = pixel >> 16 & 0xFF;
+        data[1][y][x] = pixel >> 8 & 0xFF;
+        data[2][y][x] = pixel & 0xFF;
+      }
+    }
+    return new ImageData(data, maxPixelValue);
+  }
+
+  @Override
+  public void loadImageData(ImageData imageData) throws IllegalArgumentException {
+    if (imageData.getChannelCount() != 3) {
+      throw new IllegalArgumentException("Invalid Channel Value Matrix");
+    }
+    checkMaxValue(imageData.getMaxValue());
+    int newHeight = imageData.getHeight();
+    int newWidth = imageData.getWidth();
+    int[] newPixels = new int[newHeight * newWidth];
+    for (int y = 0; y < newHeight; y++) {
+      int[] redRow = imageData.rowValues(0, y);
+      int[] greenRow = imageData.rowValues(1, y);
+      int[] blueRow = imageData.rowValues(2, y);
+      for (int x = 0; x < newWidth; x++) {
+        int red = redRow[x];
+        int green = greenRow[x];
+        int blue = blueRow[x];
+        if ((red | green | blue) < 0 || red > MAX_PACKED_VALUE
+                || green > MAX_PACKED_VALUE || blue > MAX_PACKED_VALUE) {
+          throw new IllegalArgumentException("Pixel value not supported by packed image");
+        }
+        newPixels[y * newWidth + x] = pack(red, green, blue);
+      }
+    }
+    this.pixels = newPixels;
+    this.height = newHeight;
+    this.width = newWidth;
+    this.maxPixelValue = imageData.getMaxValue();
+  }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The ParallelRows class splits per-row and per-channel work of the model across the
+ * threads of the fork/join pool the caller is running in. When the caller is not running
+ * inside a fork/join pool, or the pool has a parallelism of one, all work runs
+ * sequentially on the calling thread, so the parallelism of an operation is decided by
+ * the pool it is invoked from. Runtime exceptions thrown by the work are rethrown
+ * unchanged on the calling thread.
+ */
+final class ParallelRows {
+  private static final int MIN_ROWS_PER_TASK = 16;
+  private static final int TASKS_PER_THREAD = 4;
+
+  /**
+   * Represents the work for a contiguous band of rows.
+   */
+  @FunctionalInterface
+  interface RowBand {
+    /**
+     * Process the rows in {@code [startRow, endRow)}.
+     *
+     * @param startRow The first row of the band.
+     * @param endRow   The row after the last row of the band.
+     */
+    void apply(int startRow, int endRow);
+  }
+
+  private ParallelRows() {
+  }
+
+  /**
+   * Run an operation inside the given pool, so that the work it hands to this class is
+   * spread across the threads of the pool, and wait for its result.
+   *
+   * @param pool      The pool to run in, or null to run on the calling thread.
+   * @param operation The operation to run.
+   * @param <T>       The type of the result.
+   * @return The result of the operation.
+   */
+  static <T> T invoke(ForkJoinPool pool, Supplier<T> operation) {
+    if (pool == null) {
+      return operation.get();
+    }
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    T result = pool.invoke(ForkJoinTask.adapt(() -> {
+      try {
+        return operation.get();
+      } catch (RuntimeException e) {
+        failure.set(e);
+        return null;
+      }
+    }));
+    rethrow(failure);
+    return result;
+  }
+
+  /**
+   * Process {@code rows} rows in bands, in parallel when running inside a fork/join pool.
+   * Bands never overlap, so the body may write to the rows of its band without
+   * synchronization.
+   *
+   * @param rows The number of rows to process.
+   * @param body The work for one band of rows.
+   */
+  static void forEachBand(int rows, RowBand body) {
+    int parallelism = parallelism();
+    if (parallelism <= 1 || rows < 2 * MIN_ROWS_PER_TASK) {
+      body.apply(0, rows);
+      return;
+    }
+    int grain = Math.max(MIN_ROWS_PER_TASK, rows / (parallelism * TASKS_PER_THREAD));
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    new BandTask(body, 0, rows, grain, failure).invoke();
+    rethrow(failure);
+  }
+
+  /**
+   * Run independent tasks, in parallel when running inside a fork/join pool.
+   *
+   * @param tasks The tasks to run.
+   */
+  static void invokeAll(Runnable... tasks) {
+    if (parallelism() <= 1) {
+      for (Runnable task : tasks) {
+        task.run();
+      }
+      return;
+    }
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    ForkJoinTask<?>[] forkJoinTasks = new ForkJoinTask<?>[tasks.length];
+    for (int i = 0; i < tasks.length; i++) {
+      Runnable task = tasks[i];
+      forkJoinTasks[i] = ForkJoinTask.adapt(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+        }
+      });
+    }
+    ForkJoinTask.invokeAll(forkJoinTasks);
+    rethrow(failure);
+  }
+
+  private static int parallelism() {
+    ForkJoinPool pool = ForkJoinTask.getPool();
+    return pool == null ? 1 : pool.getParallelism();
+  }
+
+  private static void rethrow(AtomicReference<RuntimeException> failure) {
+    RuntimeException e = failure.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  private static final class BandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final RowBand body;
+    private final int startRow;
+    private final int endRow;
+    private final int grain;
+    private final AtomicReference<RuntimeException> failure;
+
+    private BandTask(RowBand body, int startRow, int endRow, int grain,
+                     AtomicReference<RuntimeException> failure) {
+      this.body = body;
+      this.startRow = startRow;
+      this.endRow = endRow;
+      this.grain = grain;
+      this.failure = failure;
+    }
+
+    @Override
+    protected void compute() {
+      if (endRow - startRow <= grain) {
+        try {
+          body.apply(startRow, endRow);
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+        }
+        return;
+      }
+      int middle = (startRow + endRow) >>> 1;
+      ForkJoinTask.invokeAll(new BandTask(body, startRow, middle, grain, failure),
+              new BandTask(body, middle, endRow, grain, failure));
+    }
+  }
+}
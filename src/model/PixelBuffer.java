@@ -0,0 +1,134 @@
+package model;
+
+/**
+ * The PixelBuffer class represents the flat, row-major storage behind a single channel.
+ * Implementations store values in the narrowest primitive type able to hold the
+ * maximum pixel value of the image, so that 8-bit images take one byte per value
+ * and 16-bit images take two bytes per value.
+ */
+abstract class PixelBuffer {
+
+  /**
+   * Allocate a zero filled buffer with the narrowest representation that
+   * can hold values up to the given maximum.
+   *
+   * @param size     The number of values in the buffer.
+   * @param maxValue The largest value that will be stored in the buffer.
+   * @return A new zero filled buffer.
+   */
+  static PixelBuffer allocate(int size, int maxValue) {
+    if (maxValue >= 0 && maxValue <= BytePixelBuffer.MAX_VALUE) {
+      return new BytePixelBuffer(new byte[size]);
+    } else if (maxValue >= 0 && maxValue <= ShortPixelBuffer.MAX_VALUE) {
+      return new ShortPixelBuffer(new short[size]);
+    }
+    return new IntPixelBuffer(new int[size]);
+  }
+
+  /**
+   * Create a buffer holding the given values, using the narrowest representation that
+   * can hold the maximum value. If any value falls outside the range of that representation
+   * the values are kept as ints. An int representation takes ownership of the array.
+   *
+   * @param values   The row-major values of the buffer.
+   * @param maxValue The maximum value of the image the values belong to.
+   * @return A buffer holding the given values.
+   */
+  static PixelBuffer of(int[] values, int maxValue) {
+    int limit = limit(maxValue);
+    if (limit < 0) {
+      return new IntPixelBuffer(values);
+    }
+    for (int value : values) {
+      if (value < 0 || value > limit) {
+        return new IntPixelBuffer(values);
+      }
+    }
+    PixelBuffer buffer = allocate(values.length, limit);
+    buffer.write(0, values, 0, values.length);
+    return buffer;
+  }
+
+  /**
+   * Get the largest value held by the narrowest representation for the given maximum,
+   * which is the maximum to pass to {@link #allocate(int, int)} once all values are known
+   * to lie between zero and the limit.
+   *
+   * @param maxValue The maximum value of the image the values belong to.
+   * @return The largest value of the byte or short representation, or -1 if the values
+   *         need an int representation.
+   */
+  static int limit(int maxValue) {
+    if (maxValue >= 0 && maxValue <= BytePixelBuffer.MAX_VALUE) {
+      return BytePixelBuffer.MAX_VALUE;
+    } else if (maxValue >= 0 && maxValue <= ShortPixelBuffer.MAX_VALUE) {
+      return ShortPixelBuffer.MAX_VALUE;
+    }
+    return -1;
+  }
+
+  /**
+   * Get the number of values in the buffer.
+   *
+   * @return The number of values in the buffer.
+   */
+  abstract int size();
+
+  /**
+   * Get the value at the given index.
+   *
+   * @param index The index of the value.
+   * @return The value at the given index.
+   */
+  abstract int get(int index);
+
+  /**
+   * Copy a run of values from this buffer into an int array.
+   *
+   * @param from   The index of the first value to read.
+   * @param dst    The destination array.
+   * @param dstPos The starting position in the destination array.
+   * @param length The number of values to copy.
+   */
+  abstract void read(int from, int[] dst, int dstPos, int length);
+
+  /**
+   * Copy a run of values from an int array into this buffer.
+   *
+   * @param to     The index of the first value to write.
+   * @param src    The source array.
+   * @param srcPos The starting position in the source array.
+   * @param length The number of values to copy.
+   */
+  abstract void write(int to, int[] src, int srcPos, int length);
+
+  /**
+   * Copy a run of values into another buffer of the same representation.
+   *
+   * @param from   The index of the first value to read.
+   * @param dst    The destination buffer, created by {@link #newBuffer(int)}.
+   * @param to     The index of the first value to write in the destination.
+   * @param length The number of values to copy.
+   */
+  abstract void copy(int from, PixelBuffer dst, int to, int length);
+
+  /**
+   * Allocate an empty buffer with the same representation as this buffer.
+   *
+   * @param size The number of values in the new buffer.
+   * @return A new zero filled buffer.
+   */
+  abstract PixelBuffer newBuffer(int size);
+
+  /**
+   * Get the values of this buffer as an int array. The returned array may be the
+   * backing array of the buffer and must not be modified.
+   *
+   * @return The values of this buffer.
+   */
+  int[] toIntArray() {
+    int[] values = new int[size()];
+    read(0, values, 0, values.length);
+    return values;
+  }
+}
@@ -1,5 +1,7 @@
 package model;
 
+import java.util.function.UnaryOperator;
+
 /**
  * The RgbImage class implements the RgbImageModel interface and
  * represents an RGB image composed of red, green, and blue channels.
@@ -84,20 +86,33 @@ class RgbImage implements RgbImageModel {
   }
 
   private RgbImage applyFunctionToChannels(TriFunction<RgbImage, Integer, Integer, Integer> fun) {
-
-    int[][] values = new int[red.getHeight()][red.getWidth()];
-
-    for (int i = 0; i < red.getHeight(); i++) {
-      for (int j = 0; j < red.getWidth(); j++) {
-        values[i][j] = Math.max(Math.min(fun.apply(this, i, j), maxPixelValue), 0);
+    int height = red.getHeight();
+    int width = red.getWidth();
+    int[] values = new int[height * width];
+
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      for (int i = startRow; i < endRow; i++) {
+        for (int j = 0; j < width; j++) {
+          values[i * width + j] = Math.max(Math.min(fun.apply(this, i, j), maxPixelValue), 0);
+        }
       }
-    }
-    return new RgbImage(new Channel(values),
-            new Channel(values),
-            new Channel(values),
+    });
+    ChannelModel channel = new Channel(height, width, values, maxPixelValue);
+    return new RgbImage(channel,
+            channel,
+            channel,
             maxPixelValue);
   }
 
+  private RgbImage mapChannels(UnaryOperator<ChannelModel> operation) {
+    ChannelModel[] result = new ChannelModel[3];
+    ParallelRows.invokeAll(
+        () -> result[0] = operation.apply(red),
+        () -> result[1] = operation.apply(green),
+        () -> result[2] = operation.apply(blue));
+    return new RgbImage(result[0], result[1], result[2], maxPixelValue);
+  }
+
   private RgbImageModel getLumaComponent() throws IllegalArgumentException {
     double[][] buffer = {
             {0.2126, 0.7152, 0.0722},
@@ -109,38 +124,44 @@ class RgbImage implements RgbImageModel {
 
   @Override
   public RgbImageModel horizontalFlip() {
-    return new RgbImage(
-            red.getHorizontalFlipChannel(),
-            green.getHorizontalFlipChannel(),
-            blue.getHorizontalFlipChannel(),
-            maxPixelValue);
+    return mapChannels(channel -> channel.getHorizontalFlipChannel());
   }
 
   @Override
   public RgbImageModel verticalFlip() {
-    return new RgbImage(
-            red.getVerticalFlipChannel(),
-            green.getVerticalFlipChannel(),
-            blue.getVerticalFlipChannel(),
-            maxPixelValue);
+    return mapChannels(channel -> channel.getVerticalFlipChannel());
   }
 
   @Override
   public RgbImageModel brighten(int increment) {
-    return new RgbImage(
-            red.addBuffer(increment, maxPixelValue),
-            green.addBuffer(increment, maxPixelValue),
-            blue.addBuffer(increment, maxPixelValue),
-            maxPixelValue);
+    return mapChannels(channel -> channel.addBuffer(increment, maxPixelValue));
   }
 
   @Override
   public RgbImageModel applyFilter(double[][] kernel) throws IllegalArgumentException {
-    return new RgbImage(
-            red.applyConvolution(kernel, maxPixelValue),
-            green.applyConvolution(kernel, maxPixelValue),
-            blue.applyConvolution(kernel, maxPixelValue),
-            maxPixelValue);
+    return mapChannels(channel -> channel.applyConvolution(kernel, maxPixelValue));
+  }
+
+  @Override
+  public RgbImageModel applyFilter(double[][] kernel, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    return mapChannels(channel -> channel.applyConvolution(kernel, maxPixelValue, borderMode));
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel)
+          throws IllegalArgumentException {
+    return mapChannels(channel
+        -> channel.applySeparableConvolution(columnKernel, rowKernel, maxPixelValue));
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel,
+                                            BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    return mapChannels(channel
+        -> channel.applySeparableConvolution(columnKernel, rowKernel, maxPixelValue,
+            borderMode));
   }
 
   @Override
@@ -153,36 +174,41 @@ class RgbImage implements RgbImageModel {
         throw new IllegalArgumentException("Invalid tone buffer");
       }
     }
-    int[][] newRed = new int[red.getHeight()][red.getWidth()];
-    int[][] newGreen = new int[red.getHeight()][red.getWidth()];
-    int[][] newBlue = new int[red.getHeight()][red.getWidth()];
-
-    for (int i = 0; i < red.getHeight(); i++) {
-      for (int j = 0; j < red.getWidth(); j++) {
-        double redValue = red.getValue(i, j);
-        double greenValue = green.getValue(i, j);
-        double blueValue = blue.getValue(i, j);
-
-        newRed[i][j] = (int) Math.round(
-                buffer[0][0] * redValue + buffer[0][1] * greenValue + buffer[0][2] * blueValue
-        );
-        newRed[i][j] = Math.max(Math.min(newRed[i][j], maxPixelValue), 0);
-        newGreen[i][j] = (int) Math.round(
-                buffer[1][0] * redValue + buffer[1][1] * greenValue + buffer[1][2] * blueValue
-        );
-        newGreen[i][j] = Math.max(Math.min(newGreen[i][j], maxPixelValue), 0);
-        newBlue[i][j] = (int) Math.round(
-                buffer[2][0] * redValue + buffer[2][1] * greenValue + buffer[2][2] * blueValue
-        );
-        newBlue[i][j] = Math.max(Math.min(newBlue[i][j], maxPixelValue), 0);
-
+    int height = red.getHeight();
+    int width = red.getWidth();
+    int[] newRed = new int[height * width];
+    int[] newGreen = new int[height * width];
+    int[] newBlue = new int[height * width];
+
+    ParallelRows.forEachBand(height, (startRow, endRow) -> {
+      for (int i = startRow; i < endRow; i++) {
+        for (int j = 0; j < width; j++) {
+          double redValue = red.getValue(i, j);
+          double greenValue = green.getValue(i, j);
+          double blueValue = blue.getValue(i, j);
+          int index = i * width + j;
+
+          newRed[index] = (int) Math.round(
+                  buffer[0][0] * redValue + buffer[0][1] * greenValue + buffer[0][2] * blueValue
+          );
+          newRed[index] = Math.max(Math.min(newRed[index], maxPixelValue), 0);
+          newGreen[index] = (int) Math.round(
+                  buffer[1][0] * redValue + buffer[1][1] * greenValue + buffer[1][2] * blueValue
+          );
+          newGreen[index] = Math.max(Math.min(newGreen[index], maxPixelValue), 0);
+          newBlue[index] = (int) Math.round(
+                  buffer[2][0] * redValue + buffer[2][1] * greenValue + buffer[2][2] * blueValue
+          );
+          newBlue[index] = Math.max(Math.min(newBlue[index], maxPixelValue), 0);
+
+        }
       }
-    }
+    });
 
     return new RgbImage(
-            new Channel(newRed),
-            new Channel(newGreen),
-            new Channel(newBlue),
+            new Channel(height, width, newRed, maxPixelValue),
+            new Channel(height, width, newGreen, maxPixelValue),
+            new Channel(height, width, newBlue, maxPixelValue),
             maxPixelValue);
   }
 
@@ -198,15 +224,14 @@ class RgbImage implements RgbImageModel {
   @Override
   public void loadImageData(ImageData imageData) throws IllegalArgumentException {
     checkValidRgbImageData(imageData);
-    red = new Channel(imageData.getData()[0]);
-    green = new Channel(imageData.getData()[1]);
-    blue = new Channel(imageData.getData()[2]);
+    red = new Channel(imageData, 0);
+    green = new Channel(imageData, 1);
+    blue = new Channel(imageData, 2);
     this.maxPixelValue = imageData.getMaxValue();
   }
 
   private void checkValidRgbImageData(ImageData imageData) throws IllegalArgumentException {
-    int[][][] data = imageData.getData();
-    if (data.length != 3) {
+    if (imageData.getChannelCount() != 3) {
       throw new IllegalArgumentException("Invalid Channel Value Matrix");
     }
   }
@@ -50,6 +50,45 @@ interface RgbImageModel {
    */
   RgbImageModel applyFilter(double[][] kernel) throws IllegalArgumentException;
 
+  /**
+   * Apply a filter to the RGB image using the provided kernel, reading pixels past the
+   * edges of the image according to the given border mode.
+   *
+   * @param kernel     The 2D kernel for the filter.
+   * @param borderMode How pixels outside the image are read.
+   * @return An RgbImageModel representing the image with the applied filter.
+   * @throws IllegalArgumentException If the kernel or the border mode is invalid.
+   */
+  RgbImageModel applyFilter(double[][] kernel, BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
+  /**
+   * Apply a filter to the RGB image using the separable kernel formed by the outer
+   * product of the given column and row kernels, as two one-dimensional passes.
+   *
+   * @param columnKernel The vertical one-dimensional kernel.
+   * @param rowKernel    The horizontal one-dimensional kernel.
+   * @return An RgbImageModel representing the image with the applied filter.
+   * @throws IllegalArgumentException If either kernel is invalid.
+   */
+  RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel)
+          throws IllegalArgumentException;
+
+  /**
+   * Apply a filter to the RGB image using the separable kernel formed by the outer
+   * product of the given column and row kernels, reading pixels past the edges of the
+   * image according to the given border mode.
+   *
+   * @param columnKernel The vertical one-dimensional kernel.
+   * @param rowKernel    The horizontal one-dimensional kernel.
+   * @param borderMode   How pixels outside the image are read.
+   * @return An RgbImageModel representing the image with the applied filter.
+   * @throws IllegalArgumentException If either kernel or the border mode is invalid.
+   */
+  RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel,
+                                     BorderModeEnum borderMode)
+          throws IllegalArgumentException;
+
   /**
    * Apply a sepia tone effect to the RGB image using the specified buffer.
    *
@@ -1,8 +1,11 @@
 package model;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
 
 /**
  * This class represents a rgb model that manages a set of rgb images associated with specific
@@ -10,23 +13,88 @@ import java.util.Map;
  * manipulations on the available images.
  */
 public class RgbImageProcessor implements ImageProcessorModel {
+  static final double[][] BLUR_KERNEL = {
+          {1.0 / 16, 1.0 / 8, 1.0 / 16},
+          {1.0 / 8, 1.0 / 4, 1.0 / 8},
+          {1.0 / 16, 1.0 / 8, 1.0 / 16}
+  };
+  static final SeparableKernel SEPARABLE_BLUR_KERNEL = SeparableKernel.fromKernel(BLUR_KERNEL);
+  static final double[][] SHARPEN_KERNEL = {
+          {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+          {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+  };
   private final Map<String, RgbImageModel> imageList;
+  private ImageLayoutEnum layout;
+  private ForkJoinPool pool;
 
   /**
    * Constructs an empty set of rgb images with key as image name
    * and value as single rgb image.
    */
   public RgbImageProcessor() {
+    this(ImageLayoutEnum.PLANAR);
+  }
+
+  /**
+   * Constructs an empty set of rgb images with key as image name
+   * and value as single rgb image, holding loaded images in the given memory layout.
+   *
+   * @param layout The memory layout used for images added to the processor.
+   * @throws IllegalArgumentException If the layout is null.
+   */
+  public RgbImageProcessor(ImageLayoutEnum layout) throws IllegalArgumentException {
+    if (layout == null) {
+      throw new IllegalArgumentException("Invalid image layout");
+    }
     imageList = new HashMap<>();
+    this.layout = layout;
+  }
+
+  @Override
+  public void setLayout(ImageLayoutEnum layout) throws IllegalArgumentException {
+    if (layout == null) {
+      throw new IllegalArgumentException("Invalid image layout");
+    }
+    this.layout = layout;
+  }
+
+  /**
+   * Get the memory layout of the images added to the processor.
+   *
+   * @return The memory layout of new images.
+   */
+  public ImageLayoutEnum getLayout() {
+    return layout;
+  }
+
+  /**
+   * Set the number of threads used to process images. Operations on the red, green and
+   * blue channels, and on bands of rows within each channel, are spread across these
+   * threads. A parallelism of one processes images on the calling thread. The threads of
+   * the previous parallelism are shut down, and those of the last one by {@link #close()}.
+   *
+   * @param parallelism The number of threads used to process images.
+   * @throws IllegalArgumentException If the parallelism is less than one.
+   */
+  public void setParallelism(int parallelism) throws IllegalArgumentException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Invalid parallelism");
+    }
+    if (pool != null && pool.getParallelism() == parallelism) {
+      return;
+    }
+    shutdownPool();
+    pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
   }
 
   @Override
   public void addImage(String destImageName, ImageData imageData)
           throws IllegalArgumentException {
     checkValidImageName(destImageName);
-    RgbImageModel imageModel = new RgbImage();
-    imageModel.loadImageData(imageData);
-    imageList.put(destImageName, imageModel);
+    putImage(destImageName, createImage(imageData));
   }
 
   @Override
@@ -36,6 +104,41 @@ public class RgbImageProcessor implements ImageProcessorModel {
     return imageModel.getImageData();
   }
 
+  /**
+   * Add an image read from a source. Tiled images are filled from the rows of the source,
+   * so the whole image is never held in memory; other layouts read the whole image.
+   */
+  @Override
+  public void loadImage(String destImageName, ImageSource source)
+          throws IOException, IllegalArgumentException {
+    if (layout != ImageLayoutEnum.TILED) {
+      addImage(destImageName, source.readImage());
+      return;
+    }
+    checkValidImageName(destImageName);
+    TiledRgbImage image = new TiledRgbImage();
+    try (ImageRowSource rows = source.openRows()) {
+      image.loadRows(rows);
+    }
+    putImage(destImageName, image);
+  }
+
+  /**
+   * Write an image to a target. Tiled images are written one row at a time, so the whole
+   * image is never held in memory; other layouts give the target the whole image.
+   */
+  @Override
+  public void saveImage(String imageName, ImageTarget target)
+          throws IOException, IllegalArgumentException {
+    checkImageNameExists(imageName);
+    RgbImageModel image = imageList.get(imageName);
+    if (image instanceof TiledRgbImage) {
+      ((TiledRgbImage) image).writeRows(target);
+    } else {
+      target.writeImage(image.getImageData());
+    }
+  }
+
   @Override
   public void visualizeComponent(String imageName, String destImageName, String component)
           throws IllegalArgumentException {
@@ -43,8 +146,8 @@ public class RgbImageProcessor implements ImageProcessorModel {
     checkImageNameExists(imageName);
     ComponentEnum componentEnum = ComponentEnum.fromString(component);
 
-    RgbImageModel destImage = imageList.get(imageName).visualizeComponent(componentEnum);
-    imageList.put(destImageName, destImage);
+    RgbImageModel destImage = process(imageName, image -> image.visualizeComponent(componentEnum));
+    putImage(destImageName, destImage);
   }
 
   @Override
@@ -52,8 +155,8 @@ public class RgbImageProcessor implements ImageProcessorModel {
           throws IllegalArgumentException {
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).horizontalFlip();
-    imageList.put(destImageName, destImage);
+    RgbImageModel destImage = process(imageName, image -> image.horizontalFlip());
+    putImage(destImageName, destImage);
   }
 
   @Override
@@ -61,8 +164,8 @@ public class RgbImageProcessor implements ImageProcessorModel {
           throws IllegalArgumentException {
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).verticalFlip();
-    imageList.put(destImageName, destImage);
+    RgbImageModel destImage = process(imageName, image -> image.verticalFlip());
+    putImage(destImageName, destImage);
   }
 
   @Override
@@ -70,8 +173,8 @@ public class RgbImageProcessor implements ImageProcessorModel {
           throws IllegalArgumentException {
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).brighten(increment);
-    imageList.put(destImageName, destImage);
+    RgbImageModel destImage = process(imageName, image -> image.brighten(increment));
+    putImage(destImageName, destImage);
   }
 
   @Override
@@ -90,13 +193,16 @@ public class RgbImageProcessor implements ImageProcessorModel {
     }
 
     RgbImageModel rgbImageModel = imageList.get(imageName);
-    RgbImageModel newRed = rgbImageModel.visualizeComponent(ComponentEnum.RED);
-    RgbImageModel newGreen = rgbImageModel.visualizeComponent(ComponentEnum.GREEN);
-    RgbImageModel newBlue = rgbImageModel.visualizeComponent(ComponentEnum.BLUE);
+    RgbImageModel newRed = ParallelRows.invoke(pool,
+        () -> rgbImageModel.visualizeComponent(ComponentEnum.RED));
+    RgbImageModel newGreen = ParallelRows.invoke(pool,
+        () -> rgbImageModel.visualizeComponent(ComponentEnum.GREEN));
+    RgbImageModel newBlue = ParallelRows.invoke(pool,
+        () -> rgbImageModel.visualizeComponent(ComponentEnum.BLUE));
 
-    imageList.put(redName, newRed);
-    imageList.put(greenName, newGreen);
-    imageList.put(blueName, newBlue);
+    putImage(redName, newRed);
+    putImage(greenName, newGreen);
+    putImage(blueName, newBlue);
   }
 
   @Override
@@ -111,42 +217,65 @@ public class RgbImageProcessor implements ImageProcessorModel {
     ImageData green = imageList.get(componentImageList.get(1)).getImageData();
     ImageData blue = imageList.get(componentImageList.get(2)).getImageData();
 
-    int[][][] newData = {red.getData()[0], green.getData()[1], blue.getData()[2]};
+    if (green.getHeight() != red.getHeight() || blue.getHeight() != red.getHeight()
+            || green.getWidth() != red.getWidth() || blue.getWidth() != red.getWidth()) {
+      throw new IllegalArgumentException("Invalid Channel Size");
+    }
+    int[][][] newData = new int[3][red.getHeight()][];
+    for (int y = 0; y < red.getHeight(); y++) {
+      newData[0][y] = red.rowValues(0, y);
+      newData[1][y] = green.rowValues(1, y);
+      newData[2][y] = blue.rowValues(2, y);
+    }
     ImageData newImageData = new ImageData(newData, red.getMaxValue());
 
-    RgbImageModel newImage = new RgbImage();
-    newImage.loadImageData(newImageData);
-    imageList.put(destImageName, newImage);
+    putImage(destImageName, createImage(newImageData));
   }
 
   @Override
   public void blur(String imageName, String destImageName)
           throws IllegalArgumentException {
-    double[][] blurKernel = {
-            {1.0 / 16, 1.0 / 8, 1.0 / 16},
-            {1.0 / 8, 1.0 / 4, 1.0 / 8},
-            {1.0 / 16, 1.0 / 8, 1.0 / 16}
-    };
+    blur(imageName, destImageName, BorderModeEnum.ZERO);
+  }
+
+  @Override
+  public void blur(String imageName, String destImageName, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    checkValidImageName(destImageName);
+    checkImageNameExists(imageName);
+    checkBorderMode(borderMode);
+    RgbImageModel destImage = process(imageName,
+        image -> image.applyFilter(BLUR_KERNEL, borderMode));
+    putImage(destImageName, destImage);
+  }
+
+  @Override
+  public void separableBlur(String imageName, String destImageName)
+          throws IllegalArgumentException {
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).applyFilter(blurKernel);
-    imageList.put(destImageName, destImage);
+    double[] columnKernel = SEPARABLE_BLUR_KERNEL.getColumnKernel();
+    double[] rowKernel = SEPARABLE_BLUR_KERNEL.getRowKernel();
+    RgbImageModel destImage = process(imageName,
+        image -> image.applySeparableFilter(columnKernel, rowKernel));
+    putImage(destImageName, destImage);
   }
 
   @Override
   public void sharpen(String imageName, String destImageName)
           throws IllegalArgumentException {
-    double[][] sharpenKernel = {
-            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
-            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
-            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
-            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
-            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
-    };
+    sharpen(imageName, destImageName, BorderModeEnum.ZERO);
+  }
+
+  @Override
+  public void sharpen(String imageName, String destImageName, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).applyFilter(sharpenKernel);
-    imageList.put(destImageName, destImage);
+    checkBorderMode(borderMode);
+    RgbImageModel destImage = process(imageName,
+        image -> image.applyFilter(SHARPEN_KERNEL, borderMode));
+    putImage(destImageName, destImage);
   }
 
   @Override
@@ -158,8 +287,60 @@ public class RgbImageProcessor implements ImageProcessorModel {
     };
     checkValidImageName(destImageName);
     checkImageNameExists(imageName);
-    RgbImageModel destImage = imageList.get(imageName).applyTone(buffer);
-    imageList.put(destImageName, destImage);
+    RgbImageModel destImage = process(imageName, image -> image.applyTone(buffer));
+    putImage(destImageName, destImage);
+  }
+
+  /**
+   * Delete the temporary files of the tiled images held by the processor, remove every
+   * image and shut down the threads used to process images. The processor is empty
+   * afterwards and processes images on the calling thread.
+   */
+  @Override
+  public void close() {
+    for (RgbImageModel image : imageList.values()) {
+      closeImage(image);
+    }
+    imageList.clear();
+    shutdownPool();
+  }
+
+  private void shutdownPool() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  private void putImage(String imageName, RgbImageModel image) {
+    RgbImageModel oldImage = imageList.put(imageName, image);
+    if (oldImage != null && !imageList.containsValue(oldImage)) {
+      closeImage(oldImage);
+    }
+  }
+
+  private void closeImage(RgbImageModel image) {
+    if (image instanceof TiledRgbImage) {
+      ((TiledRgbImage) image).close();
+    }
+  }
+
+  private RgbImageModel process(String imageName, UnaryOperator<RgbImageModel> operation) {
+    RgbImageModel image = imageList.get(imageName);
+    return ParallelRows.invoke(pool, () -> operation.apply(image));
+  }
+
+  private RgbImageModel createImage(ImageData imageData) throws IllegalArgumentException {
+    RgbImageModel imageModel;
+    if (layout == ImageLayoutEnum.INTERLEAVED && PackedRgbImage.canPack(imageData)) {
+      imageModel = new PackedRgbImage();
+    } else if (layout == ImageLayoutEnum.TILED) {
+      imageModel = new TiledRgbImage();
+    } else {
+      imageModel = new RgbImage();
+    }
+    imageModel.loadImageData(imageData);
+    return imageModel;
   }
 
   private void checkValidImageName(String imageName) throws IllegalArgumentException {
@@ -173,4 +354,10 @@ public class RgbImageProcessor implements ImageProcessorModel {
       throw new IllegalArgumentException("Image does not exist");
     }
   }
+
+  private void checkBorderMode(BorderModeEnum borderMode) throws IllegalArgumentException {
+    if (borderMode == null) {
+      throw new IllegalArgumentException("Invalid border mode");
+    }
+  }
 }
@@ -0,0 +1,126 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The RowConvolution class applies a convolution filter to an image streamed one row at a
+ * time. It holds a sliding window of as many rows of each channel as the kernel is tall,
+ * so an image of any height is filtered in the memory of a few rows, and gives output row
+ * {@code y} once input row {@code y + kernelHeight / 2} has been pushed.
+ *
+ * <p>Pixels outside the image are zero, as in {@link BorderModeEnum#ZERO}, and every tap is
+ * rounded as in {@link FixedPointKernel}, so the result is the same as the filter of the
+ * model. A RowConvolution keeps the rows of one image and cannot be reused for another.
+ */
+public final class RowConvolution implements RowStage {
+  private final int[] weights;
+  private final int kernelHeight;
+  private final int kernelWidth;
+  private int[][][] window;
+  private long[] sums;
+  private int[][] output;
+  private int width;
+  private int received;
+  private int stored;
+  private int emitted;
+
+  /**
+   * Constructs a RowConvolution with the given kernel.
+   *
+   * @param kernel The kernel, with an odd number of rows and columns.
+   * @throws IllegalArgumentException If the kernel is not rectangular, has an even size,
+   *                                  or has a weight too large for fixed point.
+   */
+  public RowConvolution(double[][] kernel) throws IllegalArgumentException {
+    FixedPointKernel fixedPointKernel = new FixedPointKernel(kernel);
+    this.weights = fixedPointKernel.getWeights();
+    this.kernelHeight = fixedPointKernel.getHeight();
+    this.kernelWidth = fixedPointKernel.getWidth();
+    // the rows above the image are zero and already in the window
+    this.stored = kernelHeight / 2;
+  }
+
+  /**
+   * Create a stage that blurs the image like {@link ImageProcessorModel#blur}.
+   *
+   * @return The stage.
+   */
+  public static RowConvolution blur() {
+    return new RowConvolution(RgbImageProcessor.BLUR_KERNEL);
+  }
+
+  /**
+   * Create a stage that sharpens the image like {@link ImageProcessorModel#sharpen}.
+   *
+   * @return The stage.
+   */
+  public static RowConvolution sharpen() {
+    return new RowConvolution(RgbImageProcessor.SHARPEN_KERNEL);
+  }
+
+  @Override
+  public int[][] push(int[][] rows, int maxValue) throws IllegalArgumentException {
+    if (window == null) {
+      width = rows[0].length;
+      window = new int[3][kernelHeight][width + kernelWidth - 1];
+      sums = new long[width];
+      output = new int[3][width];
+    }
+    int slot = stored % kernelHeight;
+    for (int c = 0; c < 3; c++) {
+      if (rows[c].length != width) {
+        throw new IllegalArgumentException("Invalid row");
+      }
+      System.arraycopy(rows[c], 0, window[c][slot], kernelWidth / 2, width);
+    }
+    stored++;
+    received++;
+    return stored - emitted == kernelHeight ? convolveNextRow(maxValue) : null;
+  }
+
+  @Override
+  public int[][] flush(int maxValue) {
+    if (emitted == received) {
+      return null;
+    }
+    // the rows below the image are zero
+    while (stored - emitted < kernelHeight) {
+      int slot = stored % kernelHeight;
+      for (int c = 0; c < 3; c++) {
+        Arrays.fill(window[c][slot], 0);
+      }
+      stored++;
+    }
+    return convolveNextRow(maxValue);
+  }
+
+  /**
+   * Convolve the window into the output row, each window row being padded with zeros at
+   * both ends. Taps are summed in a long as in the filter of the model, so large values
+   * and weights cannot overflow.
+   */
+  private int[][] convolveNextRow(int maxValue) {
+    for (int c = 0; c < 3; c++) {
+      int[] newRow = output[c];
+      Arrays.fill(sums, 0);
+      for (int ky = 0; ky < kernelHeight; ky++) {
+        int[] inputRow = window[c][(emitted + ky) % kernelHeight];
+        int weightIndex = ky * kernelWidth;
+        for (int kx = 0; kx < kernelWidth; kx++) {
+          long weight = weights[weightIndex + kx];
+          if (weight == 0) {
+            continue;
+          }
+          for (int x = 0; x < width; x++) {
+            sums[x] += FixedPointKernel.roundTap(inputRow[x + kx] * weight);
+          }
+        }
+      }
+      for (int x = 0; x < width; x++) {
+        newRow[x] = (int) Math.max(Math.min(sums[x], maxValue), 0);
+      }
+    }
+    emitted++;
+    return output;
+  }
+}
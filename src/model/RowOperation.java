@@ -0,0 +1,45 @@
+package model;
+
+/**
+ * The RowOperation interface represents an image operation whose output row depends only
+ * on the same row of the input, such as brighten, sepia, a component visualization or a
+ * horizontal flip. Such operations can be applied while an image is streamed from one
+ * file to another, one row at a time, without holding the image in memory.
+ *
+ * <p>As a {@link RowStage} a row operation gives each row back as soon as it is pushed.
+ */
+@FunctionalInterface
+public interface RowOperation extends RowStage {
+
+  /**
+   * Apply the operation to one row of an image, in place.
+   *
+   * @param rows     The red, green and blue values of the row, {@code [3][width]}.
+   * @param maxValue The maximum pixel value of the image.
+   */
+  void apply(int[][] rows, int maxValue);
+
+  @Override
+  default int[][] push(int[][] rows, int maxValue) {
+    apply(rows, maxValue);
+    return rows;
+  }
+
+  @Override
+  default int[][] flush(int maxValue) {
+    return null;
+  }
+
+  /**
+   * Chain another operation after this one.
+   *
+   * @param next The operation applied to the output of this one.
+   * @return An operation that applies this operation and then the next.
+   */
+  default RowOperation andThen(RowOperation next) {
+    return (rows, maxValue) -> {
+      apply(rows, maxValue);
+      next.apply(rows, maxValue);
+    };
+  }
+}
@@ -0,0 +1,137 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The RowOperations class creates the {@link RowOperation row operations} of the image
+ * operations that work on each row on its own. Each gives the same values as the
+ * operation of the same name in {@link ImageProcessorModel}.
+ */
+public final class RowOperations {
+  private static final double[][] SEPIA_TONE = {
+          {0.393, 0.769, 0.189},
+          {0.349, 0.686, 0.168},
+          {0.272, 0.534, 0.131}
+  };
+  private static final double[][] LUMA_TONE = {
+          {0.2126, 0.7152, 0.0722},
+          {0.2126, 0.7152, 0.0722},
+          {0.2126, 0.7152, 0.0722}
+  };
+
+  private RowOperations() {
+  }
+
+  /**
+   * Create an operation that adds an increment to every value, clamped to the range of
+   * the image.
+   *
+   * @param increment The value added, negative to darken.
+   * @return The operation.
+   */
+  public static RowOperation brighten(int increment) {
+    return (rows, maxValue) -> {
+      for (int[] row : rows) {
+        for (int x = 0; x < row.length; x++) {
+          row[x] = clamp(row[x] + increment, maxValue);
+        }
+      }
+    };
+  }
+
+  /**
+   * Create an operation that flips the row horizontally.
+   *
+   * @return The operation.
+   */
+  public static RowOperation horizontalFlip() {
+    return (rows, maxValue) -> {
+      for (int[] row : rows) {
+        for (int left = 0, right = row.length - 1; left < right; left++, right--) {
+          int value = row[left];
+          row[left] = row[right];
+          row[right] = value;
+        }
+      }
+    };
+  }
+
+  /**
+   * Create an operation that gives the sepia tone of the row.
+   *
+   * @return The operation.
+   */
+  public static RowOperation sepia() {
+    return (rows, maxValue) -> applyTone(rows, maxValue, SEPIA_TONE);
+  }
+
+  /**
+   * Create an operation that visualizes a component of the row.
+   *
+   * @param component The name of the component, such as {@code red-component}.
+   * @return The operation.
+   * @throws IllegalArgumentException If the component is not recognized.
+   */
+  public static RowOperation visualizeComponent(String component)
+          throws IllegalArgumentException {
+    ComponentEnum componentEnum = ComponentEnum.fromString(component);
+    if (componentEnum == null) {
+      throw new IllegalArgumentException("Invalid component to visualize");
+    }
+    switch (componentEnum) {
+      case RED:
+        return (rows, maxValue) -> keepChannel(rows, 0);
+      case GREEN:
+        return (rows, maxValue) -> keepChannel(rows, 1);
+      case BLUE:
+        return (rows, maxValue) -> keepChannel(rows, 2);
+      case LUMA:
+        return (rows, maxValue) -> applyTone(rows, maxValue, LUMA_TONE);
+      case INTENSITY:
+        return (rows, maxValue) -> {
+          for (int x = 0; x < rows[0].length; x++) {
+            setGray(rows, x, clamp((rows[0][x] + rows[1][x] + rows[2][x]) / 3, maxValue));
+          }
+        };
+      case VALUE:
+        return (rows, maxValue) -> {
+          for (int x = 0; x < rows[0].length; x++) {
+            setGray(rows, x,
+                    clamp(Math.max(Math.max(rows[0][x], rows[1][x]), rows[2][x]), maxValue));
+          }
+        };
+      default:
+        throw new IllegalArgumentException("Invalid component to visualize");
+    }
+  }
+
+  private static void keepChannel(int[][] rows, int channel) {
+    for (int c = 0; c < rows.length; c++) {
+      if (c != channel) {
+        Arrays.fill(rows[c], 0);
+      }
+    }
+  }
+
+  private static void setGray(int[][] rows, int x, int value) {
+    rows[0][x] = value;
+    rows[1][x] = value;
+    rows[2][x] = value;
+  }
+
+  private static void applyTone(int[][] rows, int maxValue, double[][] tone) {
+    for (int x = 0; x < rows[0].length; x++) {
+      double red = rows[0][x];
+      double green = rows[1][x];
+      double blue = rows[2][x];
+      for (int c = 0; c < 3; c++) {
+        rows[c][x] = clamp((int) Math.round(
+                tone[c][0] * red + tone[c][1] * green + tone[c][2] * blue), maxValue);
+      }
+    }
+  }
+
+  private static int clamp(int value, int maxValue) {
+    return Math.max(Math.min(value, maxValue), 0);
+  }
+}
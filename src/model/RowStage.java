@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * The RowStage interface represents one step of a pipeline that streams an image from
+ * top to bottom, one row at a time. A stage may hold a few input rows before it can give
+ * an output row, as a convolution needs the rows below the one it computes, but it gives
+ * exactly one output row for every input row once it has been flushed.
+ *
+ * <p>Rows returned by a stage belong to the stage and are only valid until its next call.
+ * The next stage may change them in place.
+ */
+public interface RowStage {
+
+  /**
+   * Give the stage the next row of the image.
+   *
+   * @param rows     The red, green and blue values of the row, {@code [3][width]}, which
+   *                 the stage may change in place.
+   * @param maxValue The maximum pixel value of the image.
+   * @return The next output row, or null if the stage needs more rows first.
+   */
+  int[][] push(int[][] rows, int maxValue);
+
+  /**
+   * Get the next of the output rows still held by the stage, once every input row has
+   * been pushed. Called until it returns null.
+   *
+   * @param maxValue The maximum pixel value of the image.
+   * @return The next output row, or null if every output row has been given.
+   */
+  int[][] flush(int maxValue);
+
+  /**
+   * Chain another stage after this one.
+   *
+   * @param next The stage given the output rows of this one.
+   * @return A stage that pushes the output of this stage through the next.
+   */
+  default RowStage andThen(RowStage next) {
+    RowStage first = this;
+    return new RowStage() {
+      @Override
+      public int[][] push(int[][] rows, int maxValue) {
+        int[][] middle = first.push(rows, maxValue);
+        return middle == null ? null : next.push(middle, maxValue);
+      }
+
+      @Override
+      public int[][] flush(int maxValue) {
+        int[][] middle;
+        while ((middle = first.flush(maxValue)) != null) {
+          int[][] output = next.push(middle, maxValue);
+          if (output != null) {
+            return output;
+          }
+        }
+        return next.flush(maxValue);
+      }
+    };
+  }
+}
@@ -0,0 +1,92 @@
+package model;
+
+/**
+ * The SeparableKernel class represents a two-dimensional convolution kernel that is the
+ * outer product of a column vector and a row vector. Convolving with such a kernel can be
+ * done as a horizontal pass with the row vector followed by a vertical pass with the
+ * column vector, which costs {@code kh + kw} multiplications per pixel instead of
+ * {@code kh * kw}.
+ */
+final class SeparableKernel {
+  private static final double TOLERANCE = 1e-9;
+  private final double[] columnKernel;
+  private final double[] rowKernel;
+
+  /**
+   * Constructs a SeparableKernel from its column and row vectors.
+   *
+   * @param columnKernel The vertical one-dimensional kernel.
+   * @param rowKernel    The horizontal one-dimensional kernel.
+   * @throws IllegalArgumentException If either vector is null, empty or of even length.
+   */
+  SeparableKernel(double[] columnKernel, double[] rowKernel) throws IllegalArgumentException {
+    if (columnKernel == null || rowKernel == null
+            || columnKernel.length % 2 == 0 || rowKernel.length % 2 == 0) {
+      throw new IllegalArgumentException("Invalid Kernel");
+    }
+    this.columnKernel = columnKernel.clone();
+    this.rowKernel = rowKernel.clone();
+  }
+
+  /**
+   * Factor a two-dimensional kernel into a column and a row vector if it has rank one.
+   *
+   * @param kernel The two-dimensional kernel to factor.
+   * @return The separable form of the kernel, or null if the kernel is not separable.
+   * @throws IllegalArgumentException If the kernel is not rectangular or has an even size.
+   */
+  static SeparableKernel fromKernel(double[][] kernel) throws IllegalArgumentException {
+    if (kernel == null || kernel.length % 2 == 0 || kernel[0].length % 2 == 0) {
+      throw new IllegalArgumentException("Invalid Kernel");
+    }
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    for (int i = 0; i < kernel.length; i++) {
+      if (kernel[i].length != kernel[0].length) {
+        throw new IllegalArgumentException("Invalid Kernel");
+      }
+      for (int j = 0; j < kernel[i].length; j++) {
+        if (Math.abs(kernel[i][j]) > Math.abs(kernel[pivotRow][pivotColumn])) {
+          pivotRow = i;
+          pivotColumn = j;
+        }
+      }
+    }
+    double pivot = kernel[pivotRow][pivotColumn];
+    if (pivot == 0) {
+      return null;
+    }
+    double[] columnKernel = new double[kernel.length];
+    double[] rowKernel = kernel[pivotRow].clone();
+    for (int i = 0; i < kernel.length; i++) {
+      columnKernel[i] = kernel[i][pivotColumn] / pivot;
+    }
+    for (int i = 0; i < kernel.length; i++) {
+      for (int j = 0; j < rowKernel.length; j++) {
+        if (Math.abs(columnKernel[i] * rowKernel[j] - kernel[i][j])
+                > TOLERANCE * Math.abs(pivot)) {
+          return null;
+        }
+      }
+    }
+    return new SeparableKernel(columnKernel, rowKernel);
+  }
+
+  /**
+   * Get the vertical one-dimensional kernel.
+   *
+   * @return A copy of the column vector.
+   */
+  double[] getColumnKernel() {
+    return columnKernel.clone();
+  }
+
+  /**
+   * Get the horizontal one-dimensional kernel.
+   *
+   * @return A copy of the row vector.
+   */
+  double[] getRowKernel() {
+    return rowKernel.clone();
+  }
+}
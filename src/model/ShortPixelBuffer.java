@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * The ShortPixelBuffer class stores unsigned 16-bit pixel values, two bytes per value.
+ */
+class ShortPixelBuffer extends PixelBuffer {
+  static final int MAX_VALUE = 0xFFFF;
+  private final short[] values;
+
+  /**
+   * Constructs a ShortPixelBuffer backed by the given array.
+   *
+   * @param values The backing array.
+   */
+  ShortPixelBuffer(short[] values) {
+    this.values = values;
+  }
+
+  @Override
+  int size() {
+    return values.length;
+  }
+
+  @Override
+  int get(int index) {
+    return values[index] & MAX_VALUE;
+  }
+
+  @Override
+  void read(int from, int[] dst, int dstPos, int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = values[from + i] & MAX_VALUE;
+    }
+  }
+
+  @Override
+  void write(int to, int[] src, int srcPos, int length) {
+    for (int i = 0; i < length; i++) {
+      values[to + i] = (short) src[srcPos + i];
+    }
+  }
+
+  @Override
+  void copy(int from, PixelBuffer dst, int to, int length) {
+    System.arraycopy(values, from, ((ShortPixelBuffer) dst).values, to, length);
+  }
+
+  @Override
+  PixelBuffer newBuffer(int size) {
+    return new ShortPixelBuffer(new short[size]);
+  }
+}
@@ -0,0 +1,393 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The TileStore class holds the three color channels of an image as square tiles of
+ * {@code tileSize x tileSize} pixels. Only a bounded number of tiles are kept in memory;
+ * the least recently used tiles are written to a temporary file and read back on demand,
+ * so the size of an image is limited by the disk rather than the heap. Images whose tiles
+ * all fit in the cache never touch the disk.
+ *
+ * <p>Every tile is held as three planar arrays of {@code tileSize * tileSize} values,
+ * including tiles on the right and bottom edges that extend past the image. Tiles that
+ * were never written read as zero.
+ *
+ * <p>The temporary file is deleted when the store is closed. A store that is never closed
+ * closes its file once it is garbage collected.
+ */
+final class TileStore implements Closeable {
+  static final int DEFAULT_TILE_SIZE = 256;
+  static final int DEFAULT_CACHED_TILES = 32;
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int height;
+  private final int width;
+  private final int tileSize;
+  private final int tileRows;
+  private final int tileColumns;
+  private final int sampleBytes;
+  private final int cachedTiles;
+  private final Map<Integer, int[][]> cache;
+  private final Set<Integer> dirtyTiles;
+  private FileChannel file;
+  private Cleaner.Cleanable cleanable;
+  private boolean closed;
+  private long tileReads;
+
+  /**
+   * Constructs an empty store for an image of the given size.
+   *
+   * @param height      The height of the image.
+   * @param width       The width of the image.
+   * @param tileSize    The width and height of a tile.
+   * @param sampleBytes The number of bytes used to store a value on disk, 1, 2 or 4.
+   * @throws IllegalArgumentException If any of the sizes are out of range.
+   */
+  TileStore(int height, int width, int tileSize, int sampleBytes)
+          throws IllegalArgumentException {
+    this(height, width, tileSize, sampleBytes, DEFAULT_CACHED_TILES);
+  }
+
+  /**
+   * Constructs an empty store for an image of the given size that keeps at most
+   * {@code cachedTiles} tiles in memory.
+   *
+   * @param height      The height of the image.
+   * @param width       The width of the image.
+   * @param tileSize    The width and height of a tile.
+   * @param sampleBytes The number of bytes used to store a value on disk, 1, 2 or 4.
+   * @param cachedTiles The number of tiles kept in memory.
+   * @throws IllegalArgumentException If any of the sizes are out of range.
+   */
+  TileStore(int height, int width, int tileSize, int sampleBytes, int cachedTiles)
+          throws IllegalArgumentException {
+    if (height < 0 || width < 0 || tileSize < 1 || cachedTiles < 1
+            || (sampleBytes != 1 && sampleBytes != 2 && sampleBytes != 4)) {
+      throw new IllegalArgumentException("Invalid tile layout");
+    }
+    this.height = height;
+    this.width = width;
+    this.tileSize = tileSize;
+    this.tileRows = (height + tileSize - 1) / tileSize;
+    this.tileColumns = (width + tileSize - 1) / tileSize;
+    this.sampleBytes = sampleBytes;
+    this.cachedTiles = cachedTiles;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.dirtyTiles = new HashSet<>();
+  }
+
+  /**
+   * Find the smallest number of bytes per value that holds every value in the range.
+   *
+   * @param minValue The smallest value to store.
+   * @param maxValue The largest value to store.
+   * @return 1, 2 or 4.
+   */
+  static int sampleBytesFor(int minValue, int maxValue) {
+    if (minValue < 0 || maxValue > 0xFFFF) {
+      return 4;
+    }
+    return maxValue > 0xFF ? 2 : 1;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getTileSize() {
+    return tileSize;
+  }
+
+  int getTileRows() {
+    return tileRows;
+  }
+
+  int getTileColumns() {
+    return tileColumns;
+  }
+
+  int getSampleBytes() {
+    return sampleBytes;
+  }
+
+  /**
+   * Replace a tile with the given values.
+   *
+   * @param tileRow    The row of the tile.
+   * @param tileColumn The column of the tile.
+   * @param tile       Three planar arrays of {@code tileSize * tileSize} values, which the
+   *                   store takes ownership of.
+   * @throws IllegalArgumentException If the tile is out of range or has the wrong size.
+   */
+  synchronized void writeTile(int tileRow, int tileColumn, int[][] tile)
+          throws IllegalArgumentException {
+    checkOpen();
+    int key = tileKey(tileRow, tileColumn);
+    if (tile.length != 3) {
+      throw new IllegalArgumentException("Invalid tile size");
+    }
+    for (int[] plane : tile) {
+      if (plane.length != tileSize * tileSize) {
+        throw new IllegalArgumentException("Invalid tile size");
+      }
+    }
+    cache.put(key, tile);
+    dirtyTiles.add(key);
+    evict();
+  }
+
+  /**
+   * Read a rectangular region of all three channels. Pixels of the region that fall
+   * outside the image are read through the border mode, so a region may extend past
+   * the edges of the image to provide the halo a convolution needs.
+   *
+   * @param startRow    The first row of the region, which may be negative.
+   * @param startColumn The first column of the region, which may be negative.
+   * @param rows        The number of rows in the region.
+   * @param columns     The number of columns in the region.
+   * @param borderMode  How pixels outside the image are read.
+   * @return Three row-major arrays of {@code rows * columns} values.
+   */
+  synchronized int[][] readRegion(int startRow, int startColumn, int rows, int columns,
+                                  BorderModeEnum borderMode) {
+    checkOpen();
+    int[][] region = new int[3][rows * columns];
+    if (height == 0 || width == 0) {
+      return region;
+    }
+    int[] rowIndex = new int[rows];
+    for (int y = 0; y < rows; y++) {
+      rowIndex[y] = borderMode.sourceIndex(startRow + y, height);
+    }
+    int[] columnIndex = new int[columns];
+    for (int x = 0; x < columns; x++) {
+      columnIndex[x] = borderMode.sourceIndex(startColumn + x, width);
+    }
+    // every tile under the region is fetched once, so a band wider than the cache does
+    // not reload its tiles for each of its rows
+    int[][] rowsByTile = groupByTile(rowIndex, tileRows);
+    int[][] columnsByTile = groupByTile(columnIndex, tileColumns);
+    for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+      if (rowsByTile[tileRow].length == 0) {
+        continue;
+      }
+      for (int tileColumn = 0; tileColumn < tileColumns; tileColumn++) {
+        if (columnsByTile[tileColumn].length == 0) {
+          continue;
+        }
+        int[][] tile = tile(tileRow, tileColumn);
+        for (int y : rowsByTile[tileRow]) {
+          int rowOffset = (rowIndex[y] % tileSize) * tileSize;
+          for (int x : columnsByTile[tileColumn]) {
+            int index = rowOffset + columnIndex[x] % tileSize;
+            region[0][y * columns + x] = tile[0][index];
+            region[1][y * columns + x] = tile[1][index];
+            region[2][y * columns + x] = tile[2][index];
+          }
+        }
+      }
+    }
+    return region;
+  }
+
+  /**
+   * Group the positions of a region by the tile their source index falls in.
+   *
+   * @param sourceIndex The source index of every position, or -1 for none.
+   * @param tileCount   The number of tiles along the axis.
+   * @return For every tile, the positions whose source lies in it, in order.
+   */
+  private int[][] groupByTile(int[] sourceIndex, int tileCount) {
+    int[] counts = new int[tileCount];
+    for (int index : sourceIndex) {
+      if (index >= 0) {
+        counts[index / tileSize]++;
+      }
+    }
+    int[][] positions = new int[tileCount][];
+    for (int tile = 0; tile < tileCount; tile++) {
+      positions[tile] = new int[counts[tile]];
+      counts[tile] = 0;
+    }
+    for (int i = 0; i < sourceIndex.length; i++) {
+      if (sourceIndex[i] >= 0) {
+        int tile = sourceIndex[i] / tileSize;
+        positions[tile][counts[tile]++] = i;
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Get the number of tiles read back from the temporary file so far.
+   *
+   * @return The number of tile reads.
+   */
+  synchronized long getTileReads() {
+    return tileReads;
+  }
+
+  /**
+   * Release the tiles and delete the temporary file. The store cannot be used afterwards.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    cache.clear();
+    dirtyTiles.clear();
+    if (cleanable != null) {
+      cleanable.clean();
+      cleanable = null;
+      file = null;
+    }
+  }
+
+  private void checkOpen() throws IllegalStateException {
+    if (closed) {
+      throw new IllegalStateException("Image has been closed");
+    }
+  }
+
+  private int tileKey(int tileRow, int tileColumn) throws IllegalArgumentException {
+    if (tileRow < 0 || tileRow >= tileRows || tileColumn < 0 || tileColumn >= tileColumns) {
+      throw new IllegalArgumentException("Invalid tile position");
+    }
+    return tileRow * tileColumns + tileColumn;
+  }
+
+  private int[][] tile(int tileRow, int tileColumn) {
+    int key = tileKey(tileRow, tileColumn);
+    int[][] tile = cache.get(key);
+    if (tile == null) {
+      tile = load(key);
+      cache.put(key, tile);
+      evict();
+    }
+    return tile;
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Integer, int[][]>> entries = cache.entrySet().iterator();
+    while (cache.size() > cachedTiles && entries.hasNext()) {
+      Map.Entry<Integer, int[][]> eldest = entries.next();
+      if (dirtyTiles.remove(eldest.getKey())) {
+        store(eldest.getKey(), eldest.getValue());
+      }
+      entries.remove();
+    }
+  }
+
+  private long tileBytes() {
+    return 3L * tileSize * tileSize * sampleBytes;
+  }
+
+  private int[][] load(int key) {
+    int[][] tile = new int[3][tileSize * tileSize];
+    if (file == null) {
+      return tile;
+    }
+    tileReads++;
+    ByteBuffer buffer = ByteBuffer.allocate((int) tileBytes());
+    try {
+      long position = key * tileBytes();
+      while (buffer.hasRemaining()) {
+        if (file.read(buffer, position + buffer.position()) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read image tile", e);
+    }
+    if (buffer.position() < buffer.capacity()) {
+      return tile;
+    }
+    buffer.flip();
+    for (int[] plane : tile) {
+      for (int i = 0; i < plane.length; i++) {
+        switch (sampleBytes) {
+          case 1:
+            plane[i] = buffer.get() & 0xFF;
+            break;
+          case 2:
+            plane[i] = buffer.getShort() & 0xFFFF;
+            break;
+          default:
+            plane[i] = buffer.getInt();
+        }
+      }
+    }
+    return tile;
+  }
+
+  private void store(int key, int[][] tile) {
+    ByteBuffer buffer = ByteBuffer.allocate((int) tileBytes());
+    for (int[] plane : tile) {
+      for (int value : plane) {
+        switch (sampleBytes) {
+          case 1:
+            buffer.put((byte) value);
+            break;
+          case 2:
+            buffer.putShort((short) value);
+            break;
+          default:
+            buffer.putInt(value);
+        }
+      }
+    }
+    buffer.flip();
+    try {
+      long position = key * tileBytes();
+      while (buffer.hasRemaining()) {
+        position += openFile().write(buffer, position);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write image tile", e);
+    }
+  }
+
+  private FileChannel openFile() throws IOException {
+    if (file == null) {
+      Path path = Files.createTempFile("tiles", ".bin");
+      file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+              StandardOpenOption.DELETE_ON_CLOSE);
+      cleanable = CLEANER.register(this, new CloseFile(file));
+    }
+    return file;
+  }
+
+  private static final class CloseFile implements Runnable {
+    private final FileChannel file;
+
+    private CloseFile(FileChannel file) {
+      this.file = file;
+    }
+
+    @Override
+    public void run() {
+      try {
+        file.close();
+      } catch (IOException e) {
+        // the file is deleted on close even if closing reports an error
+      }
+    }
+  }
+}
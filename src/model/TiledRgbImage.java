@@ -0,0 +1,317 @@
+package model;
+
+import java.io.IOException;
+import java.util.function.UnaryOperator;
+
+/**
+ * The TiledRgbImage class implements the RgbImageModel interface and represents an RGB
+ * image whose pixels are held in a {@link TileStore}, so that only a bounded number of
+ * tiles are in memory at any time and the rest live in a temporary file. Operations are
+ * applied one tile at a time: each output tile is computed by running the planar
+ * {@link RgbImage} implementation of the operation on the matching region of the source,
+ * extended by a halo of the kernel radius for convolutions, so the results are the same
+ * as for an image held entirely in memory.
+ *
+ * <p>{@link #loadRows(ImageRowSource)} and {@link #writeRows(ImageTarget)} move the image
+ * between the tiles and a file one band of tile rows at a time, so loading and saving are
+ * bounded in memory as well. {@link #getImageData()} and {@link #loadImageData(ImageData)}
+ * move the whole image through an {@link ImageData}. {@link #close()} deletes the tiles
+ * once the image is no longer needed.
+ */
+class TiledRgbImage implements RgbImageModel {
+  private TileStore store;
+  private int maxPixelValue;
+  private final int tileSize;
+
+  /**
+   * Constructs an empty TiledRgbImage with the default tile size and a maximum pixel
+   * value of 255.
+   */
+  TiledRgbImage() {
+    this(TileStore.DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Constructs an empty TiledRgbImage with the given tile size and a maximum pixel
+   * value of 255.
+   *
+   * @param tileSize The width and height of a tile.
+   * @throws IllegalArgumentException If the tile size is not positive.
+   */
+  TiledRgbImage(int tileSize) throws IllegalArgumentException {
+    this(new TileStore(0, 0, tileSize, 1), 255);
+  }
+
+  private TiledRgbImage(TileStore store, int maxPixelValue) {
+    this.store = store;
+    this.maxPixelValue = maxPixelValue;
+    this.tileSize = store.getTileSize();
+  }
+
+  @Override
+  public RgbImageModel visualizeComponent(ComponentEnum componentEnum)
+          throws IllegalArgumentException {
+    if (componentEnum == null) {
+      throw new IllegalArgumentException("Invalid component to visualize");
+    }
+    return mapTiles(image -> image.visualizeComponent(componentEnum));
+  }
+
+  @Override
+  public RgbImageModel horizontalFlip() {
+    return transformTiles(false, true, 0, 0, BorderModeEnum.ZERO,
+        RgbImageModel::horizontalFlip);
+  }
+
+  @Override
+  public RgbImageModel verticalFlip() {
+    return transformTiles(true, false, 0, 0, BorderModeEnum.ZERO,
+        RgbImageModel::verticalFlip);
+  }
+
+  @Override
+  public RgbImageModel brighten(int increment) throws IllegalArgumentException {
+    return mapTiles(image -> image.brighten(increment));
+  }
+
+  @Override
+  public RgbImageModel applyFilter(double[][] kernel) throws IllegalArgumentException {
+    return applyFilter(kernel, BorderModeEnum.ZERO);
+  }
+
+  @Override
+  public RgbImageModel applyFilter(double[][] kernel, BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    checkBorderMode(borderMode);
+    return transformTiles(false, false, kernel.length / 2, kernel[0].length / 2, borderMode,
+        image -> image.applyFilter(kernel));
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel)
+          throws IllegalArgumentException {
+    return applySeparableFilter(columnKernel, rowKernel, BorderModeEnum.ZERO);
+  }
+
+  @Override
+  public RgbImageModel applySeparableFilter(double[] columnKernel, double[] rowKernel,
+                                            BorderModeEnum borderMode)
+          throws IllegalArgumentException {
+    checkBorderMode(borderMode);
+    SeparableKernel kernel = new SeparableKernel(columnKernel, rowKernel);
+    return transformTiles(false, false, kernel.getColumnKernel().length / 2,
+        kernel.getRowKernel().length / 2, borderMode,
+        image -> image.applySeparableFilter(columnKernel, rowKernel));
+  }
+
+  @Override
+  public RgbImageModel applyTone(double[][] buffer) throws IllegalArgumentException {
+    return mapTiles(image -> image.applyTone(buffer));
+  }
+
+  private void checkBorderMode(BorderModeEnum borderMode) throws IllegalArgumentException {
+    if (borderMode == null) {
+      throw new IllegalArgumentException("Invalid border mode");
+    }
+  }
+
+  private TiledRgbImage mapTiles(UnaryOperator<RgbImageModel> operation) {
+    return transformTiles(false, false, 0, 0, BorderModeEnum.ZERO, operation);
+  }
+
+  /**
+   * Build a new image tile by tile. Each output tile is produced by applying the
+   * operation to the matching source region grown by the halo on every side, and keeping
+   * the centre of the result. Halo pixels outside the image are read through the border
+   * mode, so the operation itself only ever sees zero outside its input.
+   */
+  private TiledRgbImage transformTiles(boolean flipRows, boolean flipColumns, int rowHalo,
+                                       int columnHalo, BorderModeEnum borderMode,
+                                       UnaryOperator<RgbImageModel> operation) {
+    int height = store.getHeight();
+    int width = store.getWidth();
+    TileStore result = new TileStore(height, width, tileSize, store.getSampleBytes());
+    for (int tileRow = 0; tileRow < store.getTileRows(); tileRow++) {
+      for (int tileColumn = 0; tileColumn < store.getTileColumns(); tileColumn++) {
+        int startRow = tileRow * tileSize;
+        int startColumn = tileColumn * tileSize;
+        int rows = Math.min(tileSize, height - startRow);
+        int columns = Math.min(tileSize, width - startColumn);
+        int sourceRow = flipRows ? height - startRow - rows : startRow;
+        int sourceColumn = flipColumns ? width - startColumn - columns : startColumn;
+        int regionRows = rows + 2 * rowHalo;
+        int regionColumns = columns + 2 * columnHalo;
+        int[][] region = store.readRegion(sourceRow - rowHalo, sourceColumn - columnHalo,
+                regionRows, regionColumns, borderMode);
+        RgbImageModel source = new RgbImage(
+                new Channel(regionRows, regionColumns, region[0]),
+                new Channel(regionRows, regionColumns, region[1]),
+                new Channel(regionRows, regionColumns, region[2]),
+                maxPixelValue);
+        ImageData output = operation.apply(source).getImageData();
+
+        int[][] tile = new int[3][tileSize * tileSize];
+        for (int c = 0; c < 3; c++) {
+          for (int y = 0; y < rows; y++) {
+            System.arraycopy(output.rowValues(c, y + rowHalo), columnHalo, tile[c],
+                    y * tileSize, columns);
+          }
+        }
+        result.writeTile(tileRow, tileColumn, tile);
+      }
+    }
+    return new TiledRgbImage(result, maxPixelValue);
+  }
+
+  @Override
+  public ImageData getImageData() {
+    int height = store.getHeight();
+    int width = store.getWidth();
+    int[][][] data = new int[3][height][width];
+    for (int startRow = 0; startRow < height; startRow += tileSize) {
+      int rows = Math.min(tileSize, height - startRow);
+      int[][] band = store.readRegion(startRow, 0, rows, width, BorderModeEnum.ZERO);
+      for (int c = 0; c < 3; c++) {
+        for (int y = 0; y < rows; y++) {
+          System.arraycopy(band[c], y * width, data[c][startRow + y], 0, width);
+        }
+      }
+    }
+    return new ImageData(data, maxPixelValue);
+  }
+
+  @Override
+  public void loadImageData(ImageData imageData) throws IllegalArgumentException {
+    if (imageData.getChannelCount() != 3) {
+      throw new IllegalArgumentException("Invalid Channel Value Matrix");
+    }
+    int height = imageData.getHeight();
+    int width = imageData.getWidth();
+    int minValue = 0;
+    int maxValue = imageData.getMaxValue();
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < height; y++) {
+        for (int value : imageData.rowValues(c, y)) {
+          minValue = Math.min(minValue, value);
+          maxValue = Math.max(maxValue, value);
+        }
+      }
+    }
+    TileStore newStore = new TileStore(height, width, tileSize,
+            TileStore.sampleBytesFor(minValue, maxValue));
+    for (int tileRow = 0; tileRow < newStore.getTileRows(); tileRow++) {
+      for (int tileColumn = 0; tileColumn < newStore.getTileColumns(); tileColumn++) {
+        int startRow = tileRow * tileSize;
+        int startColumn = tileColumn * tileSize;
+        int rows = Math.min(tileSize, height - startRow);
+        int columns = Math.min(tileSize, width - startColumn);
+        int[][] tile = new int[3][tileSize * tileSize];
+        for (int c = 0; c < 3; c++) {
+          for (int y = 0; y < rows; y++) {
+            System.arraycopy(imageData.rowValues(c, startRow + y), startColumn, tile[c],
+                    y * tileSize, columns);
+          }
+        }
+        newStore.writeTile(tileRow, tileColumn, tile);
+      }
+    }
+    replaceStore(newStore);
+    maxPixelValue = imageData.getMaxValue();
+  }
+
+  /**
+   * Replace the image with the rows of a source, filling one band of tiles at a time from
+   * the rows and handing each band to the store, which writes it to disk as needed.
+   *
+   * @param source The rows of the image.
+   * @throws IOException              If a row cannot be read.
+   * @throws IllegalArgumentException If the size of the image is invalid or a value is
+   *                                  out of the range of its max value.
+   */
+  void loadRows(ImageRowSource source) throws IOException, IllegalArgumentException {
+    int height = source.getHeight();
+    int width = source.getWidth();
+    int maxValue = source.getMaxValue();
+    if (maxValue < 0) {
+      throw new IllegalArgumentException("Invalid max value");
+    }
+    TileStore newStore = new TileStore(height, width, tileSize,
+            TileStore.sampleBytesFor(0, maxValue));
+    try {
+      readBands(source, newStore, maxValue);
+    } catch (IOException | RuntimeException e) {
+      newStore.close();
+      throw e;
+    }
+    replaceStore(newStore);
+    maxPixelValue = maxValue;
+  }
+
+  private void readBands(ImageRowSource source, TileStore newStore, int maxValue)
+          throws IOException, IllegalArgumentException {
+    int height = newStore.getHeight();
+    int width = newStore.getWidth();
+    int[][] rows = new int[3][width];
+    for (int tileRow = 0; tileRow < newStore.getTileRows(); tileRow++) {
+      int startRow = tileRow * tileSize;
+      int bandRows = Math.min(tileSize, height - startRow);
+      int[][][] band = new int[newStore.getTileColumns()][3][tileSize * tileSize];
+      for (int y = 0; y < bandRows; y++) {
+        source.readRow(rows);
+        for (int c = 0; c < 3; c++) {
+          for (int value : rows[c]) {
+            if (value < 0 || value > maxValue) {
+              throw new IllegalArgumentException("Pixel value out of range");
+            }
+          }
+          for (int tileColumn = 0; tileColumn < band.length; tileColumn++) {
+            int startColumn = tileColumn * tileSize;
+            System.arraycopy(rows[c], startColumn, band[tileColumn][c], y * tileSize,
+                    Math.min(tileSize, width - startColumn));
+          }
+        }
+      }
+      for (int tileColumn = 0; tileColumn < band.length; tileColumn++) {
+        newStore.writeTile(tileRow, tileColumn, band[tileColumn]);
+      }
+    }
+  }
+
+  private void replaceStore(TileStore newStore) {
+    TileStore oldStore = store;
+    store = newStore;
+    oldStore.close();
+  }
+
+  /**
+   * Write the image to a target one row at a time, reading one band of tiles at a time.
+   *
+   * @param target The target of the image.
+   * @throws IOException If the target cannot be opened or a row cannot be written.
+   */
+  void writeRows(ImageTarget target) throws IOException {
+    int height = store.getHeight();
+    int width = store.getWidth();
+    int[][] rows = new int[3][width];
+    try (ImageRowSink sink = target.openRows(width, height, maxPixelValue)) {
+      for (int startRow = 0; startRow < height; startRow += tileSize) {
+        int bandRows = Math.min(tileSize, height - startRow);
+        int[][] band = store.readRegion(startRow, 0, bandRows, width, BorderModeEnum.ZERO);
+        for (int y = 0; y < bandRows; y++) {
+          for (int c = 0; c < 3; c++) {
+            System.arraycopy(band[c], y * width, rows[c], 0, width);
+          }
+          sink.writeRow(rows);
+        }
+      }
+    }
+  }
+
+  /**
+   * Release the tiles of the image and delete their temporary file. The image cannot be
+   * used afterwards.
+   */
+  void close() {
+    store.close();
+  }
+}
@@ -0,0 +1,63 @@
+package codec;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the region and subsampling decoding parameters.
+ */
+public class DecodingParametersTest {
+
+  @Test
+  public void testDefaultsLoadFullImage() {
+    DecodingParameters parameters = new DecodingParameters();
+    assertTrue(parameters.isFullImage());
+    assertEquals(new Rectangle(0, 0, 40, 30), parameters.sourceRegion(40, 30));
+  }
+
+  @Test
+  public void testSubsamplingIsNotFullImage() {
+    DecodingParameters parameters = new DecodingParameters(2);
+    assertFalse(parameters.isFullImage());
+    assertEquals(2, parameters.getXSubsampling());
+    assertEquals(2, parameters.getYSubsampling());
+    assertEquals(new Rectangle(0, 0, 40, 30), parameters.sourceRegion(40, 30));
+  }
+
+  @Test
+  public void testRegionIsClipped() {
+    DecodingParameters parameters = new DecodingParameters(30, 5, 20, 10, 1, 3);
+    assertEquals(new Rectangle(30, 5, 10, 10), parameters.sourceRegion(40, 30));
+    assertTrue(parameters.sourceRegion(30, 30).isEmpty());
+    assertTrue(parameters.sourceRegion(40, 5).isEmpty());
+  }
+
+  @Test
+  public void testSubsampledLength() {
+    assertEquals(0, DecodingParameters.subsampledLength(0, 3));
+    assertEquals(1, DecodingParameters.subsampledLength(1, 3));
+    assertEquals(1, DecodingParameters.subsampledLength(3, 3));
+    assertEquals(2, DecodingParameters.subsampledLength(4, 3));
+    assertEquals(Integer.MAX_VALUE, DecodingParameters.subsampledLength(Integer.MAX_VALUE, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeOrigin() {
+    new DecodingParameters(-1, 0, 10, 10, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyRegion() {
+    new DecodingParameters(0, 0, 0, 10, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSubsampling() {
+    new DecodingParameters(0);
+  }
+}
@@ -0,0 +1,69 @@
+package codec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the encoding parameters.
+ */
+public class EncodingParametersTest {
+
+  @Test
+  public void testDefaults() {
+    EncodingParameters parameters = new EncodingParameters();
+    assertEquals(0.75f, parameters.getJpegQuality(), 0f);
+    assertEquals(4, parameters.getPngCompressionLevel());
+    assertFalse(parameters.isProgressive());
+    assertFalse(parameters.isOptimizeHuffmanTables());
+    assertFalse(parameters.isParallelPng());
+    assertFalse(parameters.isCompressedRimg());
+    assertFalse(parameters.isBinaryNetpbm());
+  }
+
+  @Test
+  public void testSettings() {
+    EncodingParameters parameters = new EncodingParameters().withJpegQuality(0.5f)
+            .withPngCompressionLevel(9).withProgressive(true).withOptimizeHuffmanTables(true)
+            .withParallelPng(true).withCompressedRimg(true).withBinaryNetpbm(true);
+    assertEquals(0.5f, parameters.getJpegQuality(), 0f);
+    assertEquals(9, parameters.getPngCompressionLevel());
+    assertTrue(parameters.isProgressive());
+    assertTrue(parameters.isOptimizeHuffmanTables());
+    assertTrue(parameters.isParallelPng());
+    assertTrue(parameters.isCompressedRimg());
+    assertTrue(parameters.isBinaryNetpbm());
+  }
+
+  @Test
+  public void testCopiesLeaveOriginalUnchanged() {
+    EncodingParameters defaults = new EncodingParameters();
+    EncodingParameters compressed = defaults.withCompressedRimg(true);
+    assertFalse(defaults.isCompressedRimg());
+    assertTrue(compressed.isCompressedRimg());
+    assertEquals(defaults.getJpegQuality(), compressed.getJpegQuality(), 0f);
+    assertFalse(compressed.withJpegQuality(0.2f).isParallelPng());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testQualityAboveOne() {
+    new EncodingParameters().withJpegQuality(1.5f);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testQualityNotANumber() {
+    new EncodingParameters().withJpegQuality(Float.NaN);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCompressionLevelAboveNine() {
+    new EncodingParameters().withPngCompressionLevel(10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCompressionLevel() {
+    new EncodingParameters().withPngCompressionLevel(-1);
+  }
+}
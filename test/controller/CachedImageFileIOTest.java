@@ -0,0 +1,156 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import codec.DecodingParameters;
+import model.ImageData;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for the decode cache.
+ */
+public class CachedImageFileIOTest {
+
+  /**
+   * An ImageFileIO that counts the files it decodes, as every load goes through the
+   * region load.
+   */
+  private static class CountingImageFileIO extends RgbImageFileIO {
+    private int loads;
+
+    @Override
+    public ImageData load(String filePath, DecodingParameters parameters) throws IOException {
+      loads++;
+      return super.load(filePath, parameters);
+    }
+  }
+
+  private static final ImageData IMAGE = new ImageData(new int[][][]{
+      {{255, 0, 10}, {1, 2, 3}},
+      {{0, 255, 20}, {4, 5, 6}},
+      {{0, 0, 30}, {7, 8, 9}}}, 255);
+
+  private static File pngFile() throws IOException {
+    File file = File.createTempFile("image", ".png");
+    file.deleteOnExit();
+    new RgbImageFileIO().save(file.getPath(), IMAGE);
+    return file;
+  }
+
+  private static Path cacheDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static int entries(Path directory) throws IOException {
+    File[] files = directory.toFile().listFiles();
+    for (File file : files) {
+      file.deleteOnExit();
+    }
+    return files.length;
+  }
+
+  @Test
+  public void testSecondLoadHitsCache() throws IOException {
+    //GIVEN
+    File file = pngFile();
+    Path directory = cacheDirectory();
+    CountingImageFileIO source = new CountingImageFileIO();
+    ImageFileIO imageFileIO = new CachedImageFileIO(source, directory);
+    //WHEN
+    ImageData first = imageFileIO.load(file.getPath());
+    ImageData second = imageFileIO.load(file.getPath());
+    //THEN
+    assertEquals(IMAGE, first);
+    assertEquals(IMAGE, second);
+    assertEquals(1, source.loads);
+    assertEquals(1, entries(directory));
+  }
+
+  @Test
+  public void testModifiedFileMissesCache() throws IOException {
+    //GIVEN
+    File file = pngFile();
+    Path directory = cacheDirectory();
+    CountingImageFileIO source = new CountingImageFileIO();
+    ImageFileIO imageFileIO = new CachedImageFileIO(source, directory);
+    imageFileIO.load(file.getPath());
+    //WHEN
+    Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(1000));
+    ImageData loaded = imageFileIO.load(file.getPath());
+    //THEN
+    assertEquals(IMAGE, loaded);
+    assertEquals(2, source.loads);
+    assertEquals(2, entries(directory));
+  }
+
+  @Test
+  public void testCorruptedEntryIsReplaced() throws IOException {
+    //GIVEN
+    File file = pngFile();
+    Path directory = cacheDirectory();
+    CountingImageFileIO source = new CountingImageFileIO();
+    ImageFileIO imageFileIO = new CachedImageFileIO(source, directory);
+    imageFileIO.load(file.getPath());
+    for (File entry : directory.toFile().listFiles()) {
+      Files.write(entry.toPath(), new byte[]{1, 2, 3});
+    }
+    //WHEN
+    ImageData loaded = imageFileIO.load(file.getPath());
+    ImageData cached = imageFileIO.load(file.getPath());
+    //THEN
+    assertEquals(IMAGE, loaded);
+    assertEquals(IMAGE, cached);
+    assertEquals(2, source.loads);
+  }
+
+  @Test
+  public void testEntryWithInvalidHeaderIsReplaced() throws IOException {
+    //GIVEN
+    File file = pngFile();
+    Path directory = cacheDirectory();
+    CountingImageFileIO source = new CountingImageFileIO();
+    ImageFileIO imageFileIO = new CachedImageFileIO(source, directory);
+    imageFileIO.load(file.getPath());
+    for (File entry : directory.toFile().listFiles()) {
+      byte[] bytes = Files.readAllBytes(entry.toPath());
+      bytes[19] = (byte) 0x80;
+      Files.write(entry.toPath(), bytes);
+    }
+    //WHEN
+    ImageData loaded = imageFileIO.load(file.getPath());
+    //THEN
+    assertEquals(IMAGE, loaded);
+    assertEquals(2, source.loads);
+  }
+
+  @Test
+  public void testRegionLoadBypassesCache() throws IOException {
+    //GIVEN
+    File file = pngFile();
+    Path directory = cacheDirectory();
+    CountingImageFileIO source = new CountingImageFileIO();
+    ImageFileIO imageFileIO = new CachedImageFileIO(source, directory);
+    //WHEN
+    ImageData loaded = imageFileIO.load(file.getPath(),
+            new DecodingParameters(1, 0, 2, 2, 1, 1));
+    //THEN
+    assertEquals(new ImageData(new int[][][]{{{0, 10}, {2, 3}}, {{255, 20}, {5, 6}},
+        {{0, 30}, {8, 9}}}, 255), loaded);
+    assertEquals(1, source.loads);
+    assertEquals(0, entries(directory));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDirectory() {
+    new CachedImageFileIO(new RgbImageFileIO(), null);
+  }
+}
@@ -0,0 +1,222 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import codec.DecodingParameters;
+import codec.EncodingParameters;
+import codec.ImageCodec;
+import exceptions.FileFormatNotSupportedException;
+import model.ImageData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for the codec registry.
+ */
+public class ImageCodecRegistryTest {
+
+  /**
+   * A codec that stores nothing and loads a fixed image, for files starting with "FAKE".
+   */
+  private static class FakeCodec implements ImageCodec {
+    private final String extension;
+
+    FakeCodec(String extension) {
+      this.extension = extension;
+    }
+
+    @Override
+    public List<String> getExtensions() {
+      return Collections.singletonList(extension);
+    }
+
+    @Override
+    public boolean matches(byte[] header, int length) {
+      return length >= 4 && new String(header, 0, 4).equals("FAKE");
+    }
+
+    @Override
+    public ImageData load(String filePath, DecodingParameters parameters) {
+      return new ImageData(new int[][][]{{{1}}, {{2}}, {{3}}}, 255);
+    }
+
+    @Override
+    public void save(String filePath, ImageData imageData, EncodingParameters parameters) {
+      // nothing to write
+    }
+  }
+
+  private static final ImageData IMAGE = new ImageData(new int[][][]{
+      {{255, 0}, {1, 2}}, {{0, 255}, {3, 4}}, {{0, 0}, {5, 6}}}, 255);
+
+  private static File tempFile(String suffix) throws IOException {
+    File file = File.createTempFile("codec", suffix);
+    file.deleteOnExit();
+    return file;
+  }
+
+  private static ImageCodecRegistry builtIns() {
+    return new ImageCodecRegistry(RgbImageFileIO.builtInCodecs(false, 1));
+  }
+
+  @Test
+  public void testForPath() {
+    ImageCodecRegistry registry = builtIns();
+    String[] paths = {"a.png", "dir.x/a.jpg", "a.ppm", "a.pgm", "a.rimg"};
+    for (String path : paths) {
+      //WHEN
+      ImageCodec codec = registry.forPath(path);
+      //THEN
+      assertEquals(ImageCodecRegistry.extension(path), codec.getExtensions().get(0));
+    }
+  }
+
+  @Test
+  public void testForPathUnsupported() {
+    for (String path : new String[]{"a.bmp", "a", "a.PNG", "a.png.txt"}) {
+      try {
+        //WHEN
+        builtIns().forPath(path);
+        fail("Above line should throw an exception");
+      } catch (FileFormatNotSupportedException e) {
+        //THEN
+        assertEquals("Unsupported File format", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testLoadSniffsFilesWithoutKnownExtension() throws IOException {
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    for (String format : new String[]{".png", ".ppm", ".pgm", ".rimg"}) {
+      //GIVEN
+      File saved = tempFile(format);
+      imageFileIO.save(saved.getPath(), IMAGE);
+      File renamed = tempFile(".bin");
+      Files.copy(saved.toPath(), renamed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      //WHEN
+      ImageData loaded = imageFileIO.load(renamed.getPath());
+      //THEN
+      assertEquals(imageFileIO.load(saved.getPath()), loaded);
+    }
+  }
+
+  @Test
+  public void testLoadSniffsFilesWithWrongExtension() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File png = tempFile(".png");
+    imageFileIO.save(png.getPath(), IMAGE);
+    File renamed = tempFile(".ppm");
+    Files.copy(png.toPath(), renamed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    //WHEN
+    ImageCodec codec = builtIns().forContent(renamed.getPath());
+    ImageData loaded = imageFileIO.load(renamed.getPath());
+    //THEN
+    assertTrue(codec.getExtensions().contains("png"));
+    assertEquals(IMAGE, loaded);
+  }
+
+  @Test
+  public void testExtensionCodecPreferredWhenItMatches() throws IOException {
+    //GIVEN
+    ImageCodec fake = new FakeCodec("fake");
+    ImageCodec other = new FakeCodec("other");
+    ImageCodecRegistry registry = new ImageCodecRegistry(Arrays.asList(other, fake));
+    File file = tempFile(".fake");
+    Files.write(file.toPath(), "FAKE".getBytes());
+    //WHEN
+    ImageCodec codec = registry.forContent(file.getPath());
+    //THEN
+    assertSame(fake, codec);
+  }
+
+  @Test
+  public void testMissingFileGoesToExtensionCodec() throws IOException {
+    //GIVEN
+    ImageCodecRegistry registry = builtIns();
+    //WHEN
+    ImageCodec codec = registry.forContent("missing/file.ppm");
+    //THEN
+    assertTrue(codec.getExtensions().contains("ppm"));
+  }
+
+  @Test
+  public void testLoadUnrecognisedContent() throws IOException {
+    //GIVEN
+    File file = tempFile(".bin");
+    Files.write(file.toPath(), "not an image".getBytes());
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (FileFormatNotSupportedException e) {
+      //THEN
+      assertEquals("Unsupported File format", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSignatures() {
+    List<ImageCodec> codecs = RgbImageFileIO.builtInCodecs(false, 1);
+    byte[][] headers = {
+        {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'},
+        {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0},
+        "P6\n".getBytes(), "P2 ".getBytes(), "RIMG".getBytes()};
+    for (int i = 0; i < codecs.size(); i++) {
+      for (int j = 0; j < headers.length; j++) {
+        //THEN
+        assertEquals(i == j, codecs.get(i).matches(headers[j], headers[j].length));
+      }
+    }
+    assertTrue(codecs.get(2).matches("P3#c".getBytes(), 4));
+    assertFalse(codecs.get(2).matches("P36".getBytes(), 3));
+    assertFalse(codecs.get(2).matches("P3".getBytes(), 2));
+  }
+
+  @Test
+  public void testFirstCodecWins() throws IOException {
+    //GIVEN
+    ImageCodec fake = new FakeCodec("png");
+    List<ImageCodec> codecs = new ArrayList<>(Arrays.asList(fake));
+    codecs.addAll(RgbImageFileIO.builtInCodecs(false, 1));
+    ImageFileIO imageFileIO = new RgbImageFileIO(new ImageCodecRegistry(codecs));
+    File file = tempFile(".dat");
+    Files.write(file.toPath(), "FAKE".getBytes());
+    //WHEN
+    ImageCodec codec = new ImageCodecRegistry(codecs).forPath("a.png");
+    ImageData loaded = imageFileIO.load(file.getPath());
+    //THEN
+    assertSame(fake, codec);
+    assertEquals(new ImageData(new int[][][]{{{1}}, {{2}}, {{3}}}, 255), loaded);
+  }
+
+  @Test
+  public void testInstalledCodecsComeFirst() {
+    //GIVEN
+    List<ImageCodec> builtIns = RgbImageFileIO.builtInCodecs(false, 1);
+    //WHEN
+    ImageCodecRegistry registry = ImageCodecRegistry.withInstalledCodecs(builtIns);
+    //THEN
+    List<ImageCodec> codecs = registry.getCodecs();
+    assertEquals(builtIns, codecs.subList(codecs.size() - builtIns.size(), codecs.size()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCodec() {
+    new ImageCodecRegistry(Arrays.asList(new FakeCodec("a"), null));
+  }
+}
@@ -0,0 +1,61 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Test class for the netpbm tokenizer.
+ */
+public class NetpbmTokenizerTest {
+
+  private static NetpbmTokenizer tokenizer(String text) {
+    return new NetpbmTokenizer(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  @Test
+  public void testTokensAndComments() throws IOException {
+    NetpbmTokenizer tokenizer = tokenizer("# header\nP3#magic\n 5\t4 # size\r\n255\n-3 +7#x\n12");
+    assertEquals("P3", tokenizer.nextToken());
+    assertEquals(5, tokenizer.nextInt());
+    assertEquals(4, tokenizer.nextInt());
+    assertEquals(255, tokenizer.nextInt());
+    assertEquals(-3, tokenizer.nextInt());
+    assertEquals(7, tokenizer.nextInt());
+    assertEquals(12, tokenizer.nextInt());
+    assertThrows(NoSuchElementException.class, tokenizer::nextInt);
+  }
+
+  @Test
+  public void testIntegerLimits() throws IOException {
+    NetpbmTokenizer tokenizer = tokenizer("2147483647 -2147483648 2147483648");
+    assertEquals(Integer.MAX_VALUE, tokenizer.nextInt());
+    assertEquals(Integer.MIN_VALUE, tokenizer.nextInt());
+    assertThrows(NoSuchElementException.class, tokenizer::nextInt);
+  }
+
+  @Test
+  public void testInvalidIntegers() {
+    assertThrows(NoSuchElementException.class, () -> tokenizer("12a").nextInt());
+    assertThrows(NoSuchElementException.class, () -> tokenizer("-").nextInt());
+    assertThrows(NoSuchElementException.class, () -> tokenizer("# only a comment").nextInt());
+  }
+
+  @Test
+  public void testTokensAcrossBufferRefills() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 30000; i++) {
+      text.append(i).append(i % 7 == 0 ? "\n" : " ");
+    }
+    NetpbmTokenizer tokenizer = tokenizer(text.toString());
+    for (int i = 0; i < 30000; i++) {
+      assertEquals(i, tokenizer.nextInt());
+    }
+  }
+}
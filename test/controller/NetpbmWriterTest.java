@@ -0,0 +1,52 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for the netpbm writer.
+ */
+public class NetpbmWriterTest {
+
+  @Test
+  public void testWriteIntegers() throws IOException {
+    File file = File.createTempFile("writer", ".ppm");
+    file.deleteOnExit();
+    int[] values = {0, 7, 10, 99, 100, 255, 1000, 65535, -42, Integer.MAX_VALUE,
+        Integer.MIN_VALUE};
+    StringBuilder expected = new StringBuilder("P3\n");
+    try (NetpbmWriter writer = new NetpbmWriter(file.getPath())) {
+      writer.writeAscii("P3\n");
+      for (int value : values) {
+        writer.writeInt(value, ' ');
+        expected.append(value).append(' ');
+      }
+    }
+    assertEquals(expected.toString(),
+            new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void testWriteAcrossBufferFlushes() throws IOException {
+    File file = File.createTempFile("writer", ".ppm");
+    file.deleteOnExit();
+    StringBuilder expected = new StringBuilder();
+    byte[] raw = {1, 2, 3};
+    try (NetpbmWriter writer = new NetpbmWriter(file.getPath())) {
+      for (int i = 0; i < 50000; i++) {
+        writer.writeInt(i, '\n');
+        expected.append(i).append('\n');
+      }
+      writer.write(raw, 0, raw.length);
+      expected.append("\1\2\3");
+    }
+    assertEquals(expected.toString(),
+            new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII));
+  }
+}
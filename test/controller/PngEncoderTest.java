@@ -0,0 +1,135 @@
+package controller;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Adler32;
+
+import javax.imageio.ImageIO;
+
+import codec.EncodingParameters;
+import model.ImageData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Test class for the parallel PNG encoder.
+ */
+public class PngEncoderTest {
+
+  private static ImageData randomImage(int width, int height, int maxValue, long seed) {
+    Random random = new Random(seed);
+    int[][][] values = new int[3][height][width];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          // smooth rows with noise, so that every filter type gets picked
+          values[c][y][x] = (x * (c + 1) + y + random.nextInt(8)) % (maxValue + 1);
+        }
+      }
+    }
+    return new ImageData(values, maxValue);
+  }
+
+  private static void assertDecodes(ImageData expected, File file) throws IOException {
+    BufferedImage image = ImageIO.read(file);
+    assertNotNull(image);
+    assertEquals(expected.getWidth(), image.getWidth());
+    assertEquals(expected.getHeight(), image.getHeight());
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        int rgb = expected.getValue(0, y, x) << 16 | expected.getValue(1, y, x) << 8
+                | expected.getValue(2, y, x);
+        assertEquals(rgb & 0xFFFFFF, image.getRGB(x, y) & 0xFFFFFF);
+      }
+    }
+  }
+
+  private static File tempFile() throws IOException {
+    File file = File.createTempFile("encoder", ".png");
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void testManyBlocksDecode() throws IOException {
+    //GIVEN
+    ImageData image = randomImage(100, 1000, 255, 1);
+    File file = tempFile();
+    //WHEN
+    new PngEncoder(6).write(image, file.getPath());
+    //THEN
+    assertDecodes(image, file);
+  }
+
+  @Test
+  public void testEveryCompressionLevelDecodes() throws IOException {
+    ImageData image = randomImage(37, 900, 255, 2);
+    for (int level = 0; level <= 9; level++) {
+      File file = tempFile();
+      new PngEncoder(level).write(image, file.getPath());
+      assertDecodes(image, file);
+    }
+  }
+
+  @Test
+  public void testRowWiderThanBlockDecodes() throws IOException {
+    ImageData image = randomImage(50000, 3, 255, 3);
+    File file = tempFile();
+    new PngEncoder(1).write(image, file.getPath());
+    assertDecodes(image, file);
+  }
+
+  @Test
+  public void testSinglePixelDecodes() throws IOException {
+    ImageData image = new ImageData(new int[][][]{{{1}}, {{2}}, {{3}}}, 255);
+    File file = tempFile();
+    new PngEncoder(4).write(image, file.getPath());
+    assertDecodes(image, file);
+  }
+
+  @Test
+  public void testMatchesImageIOPath() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    ImageData image = randomImage(64, 300, 300, 4);
+    File reference = tempFile();
+    File parallel = tempFile();
+    //WHEN
+    imageFileIO.save(reference.getPath(), image);
+    imageFileIO.save(parallel.getPath(), image,
+            new EncodingParameters().withParallelPng(true));
+    //THEN
+    assertEquals(imageFileIO.load(reference.getPath()), imageFileIO.load(parallel.getPath()));
+  }
+
+  @Test
+  public void testCombineAdler32() {
+    byte[] data = new byte[200000];
+    new Random(5).nextBytes(data);
+    for (int split : new int[]{0, 1, 65521, 100000, 200000}) {
+      Adler32 whole = new Adler32();
+      whole.update(data);
+      Adler32 first = new Adler32();
+      first.update(data, 0, split);
+      Adler32 second = new Adler32();
+      second.update(data, split, data.length - split);
+      assertEquals(whole.getValue(), PngEncoder.combineAdler32(first.getValue(),
+              second.getValue(), data.length - split));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyImage() throws IOException {
+    new PngEncoder(4).write(new ImageData(new int[3][0][0], 255), tempFile().getPath());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevel() {
+    new PngEncoder(10);
+  }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -14,13 +15,17 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.EnumSet;
 
+import codec.EncodingParameters;
 import model.ImageData;
+import model.ImageLayoutEnum;
 import model.ImageProcessorModel;
 import model.RgbImageProcessor;
 import view.ImageProcessorView;
 import view.TextView;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -205,6 +210,16 @@ public class RgbControllerIntegrationTest {
     assertTrue(testHelper(command, expected));
   }
 
+  @Test
+  public void testBlurMatchesReferenceImage() {
+    assertTrue(referenceHelper("blur", "images/scriptRef/koalaTestBlur.png"));
+  }
+
+  @Test
+  public void testSharpenMatchesReferenceImage() {
+    assertTrue(referenceHelper("sharpen", "images/scriptRef/koalaTestSharpen.png"));
+  }
+
   @Test
   public void testSharpen() {
     int[][][] expected = {
@@ -523,6 +538,32 @@ public class RgbControllerIntegrationTest {
     assertEquals(imageData, res);
   }
 
+  private static final String[] SCRIPT_OUTPUTS = {
+      "koalaTest.jpg",
+      "koalaTest.png",
+      "koalaTest.ppm",
+      "koalaTestBlue.png",
+      "koalaTestBlur.png",
+      "koalaTestBright.png",
+      "koalaTestBrightDark.png",
+      "koalaTestCombine.png",
+      "koalaTestDark.png",
+      "koalaTestGreen.png",
+      "koalaTestIntensity.png",
+      "koalaTestLuma.png",
+      "koalaTestRed.png",
+      "koalaTestSepia.png",
+      "koalaTestSharpen.png",
+      "koalaTestSplitBlue.png",
+      "koalaTestSplitGreen.png",
+      "koalaTestSplitRed.png",
+      "koalaTestSplitRedBr.png",
+      "koalaTestTint.png",
+      "koalaTestValue.png",
+      "koalaTestVertical.png",
+      "koalaTestVerticalHorizontal.png"
+  };
+
   @Test
   public void testRunScript() {
     String command = "run \"images/test/script folder/scriptTest.txt\"";
@@ -534,31 +575,315 @@ public class RgbControllerIntegrationTest {
     } catch (IOException e) {
       fail("Should not have thrown error");
     }
-    String[] imageNames = {
-        "koalaTest.jpg",
-        "koalaTest.png",
-        "koalaTest.ppm",
-        "koalaTestBlue.png",
-        "koalaTestBlur.png",
-        "koalaTestBright.png",
-        "koalaTestBrightDark.png",
-        "koalaTestCombine.png",
-        "koalaTestDark.png",
-        "koalaTestGreen.png",
-        "koalaTestIntensity.png",
-        "koalaTestLuma.png",
-        "koalaTestRed.png",
-        "koalaTestSepia.png",
-        "koalaTestSharpen.png",
-        "koalaTestSplitBlue.png",
-        "koalaTestSplitGreen.png",
-        "koalaTestSplitRed.png",
-        "koalaTestSplitRedBr.png",
-        "koalaTestTint.png",
-        "koalaTestValue.png",
-        "koalaTestVertical.png",
-        "koalaTestVerticalHorizontal.png"
-    };
+    assertScriptOutputs();
+  }
+
+  @Test
+  public void testRunScriptWithWriteBehindSaves() {
+    String command = "run \"images/test/script folder/scriptTest.txt\"";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    Appendable asyncOutput = new StringBuilder();
+    RgbController asyncController = new RgbController(new RgbImageProcessor(),
+            new TextView(asyncOutput), new StringReader(command), 4);
+    try {
+      controller.run();
+      deleteFiles("images/temp");
+      asyncController.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    // the saves of the script are queued, and none of them fails
+    assertEquals(appendable.toString().replace("save Operation performed successfully",
+            "save Operation queued"), asyncOutput.toString());
+    assertScriptOutputs();
+  }
+
+  @Test
+  public void testWriteBehindSaveIsFinishedBeforeLoad() {
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    String command = "save images/temp/behind.ppm " + imageName1 + "\n"
+            + "load images/temp/behind.ppm " + imageName2;
+    RgbController controller = new RgbController(model, textView,
+            new StringReader(command), 1);
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    deleteFiles("images/temp");
+    assertEquals(imageData, model.getImageData(imageName2));
+    assertTrue(appendable.toString().contains("save Operation queued"));
+    assertFalse(appendable.toString().contains("save Operation performed successfully"));
+  }
+
+  @Test
+  public void testWriteBehindTiledSaveIsWrittenBeforeSuccess() {
+    ImageProcessorModel model = new RgbImageProcessor(ImageLayoutEnum.TILED);
+    model.addImage(imageName1, imageData);
+    String command = "save images/temp/tiled.ppm " + imageName1;
+    RgbController controller = new RgbController(model, textView,
+            new StringReader(command), 1);
+    try {
+      controller.run();
+      ImageData res = new RgbImageFileIO().load("images/temp/tiled.ppm");
+      deleteFiles("images/temp");
+      assertTrue(appendable.toString().contains("save Operation performed successfully"));
+      assertEquals(imageData, res);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    } finally {
+      model.close();
+    }
+  }
+
+  @Test
+  public void testWriteBehindSaveFailureIsReported() {
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    String command = "save images/temp/missing/behind.ppm " + imageName1 + "\nexit";
+    RgbController controller = new RgbController(model, textView,
+            new StringReader(command), 2);
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    String output = appendable.toString();
+    int saved = output.indexOf("save Operation queued");
+    int failed = output.indexOf("Save to images/temp/missing/behind.ppm failed: ");
+    int terminated = output.indexOf("Program Terminated");
+    assertTrue(saved >= 0);
+    assertTrue(failed > saved);
+    assertTrue(terminated > failed);
+  }
+
+  @Test
+  public void testWriteBehindSaveChecksFormatImmediately() {
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    String command = "save images/temp/behind.bmp " + imageName1;
+    RgbController controller = new RgbController(model, textView,
+            new StringReader(command), 2);
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    assertTrue(appendable.toString().contains("Unsupported File format"));
+    assertFalse(appendable.toString().contains("Save to"));
+  }
+
+  @Test
+  public void testStream() {
+    String command = "stream images/test/test.ppm images/temp/stream.ppm brighten -20 sepia"
+            + " horizontal-flip luma-component";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    model.brighten(imageName1, "bright", -20);
+    model.sepia("bright", "sepia");
+    model.horizontalFlip("sepia", "flipped");
+    model.visualizeComponent("flipped", imageName2, "luma-component");
+    try {
+      controller.run();
+      ImageData res = new RgbImageFileIO().load("images/temp/stream.ppm");
+      deleteFiles("images/temp");
+      assertTrue(appendable.toString().contains("stream Operation performed successfully"));
+      assertEquals(model.getImageData(imageName2), res);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testStreamFilters() {
+    String command = "stream images/test/test.ppm images/temp/stream.ppm blur sepia sharpen";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    model.blur(imageName1, "blurred");
+    model.sepia("blurred", "sepia");
+    model.sharpen("sepia", imageName2);
+    try {
+      controller.run();
+      ImageData res = new RgbImageFileIO().load("images/temp/stream.ppm");
+      deleteFiles("images/temp");
+      assertTrue(appendable.toString().contains("stream Operation performed successfully"));
+      assertEquals(model.getImageData(imageName2), res);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testTiledLoadAndSaveThroughRows() {
+    String command = "load images/test/test.ppm image\nblur image blurred\n"
+            + "save images/temp/tiled.ppm blurred";
+    RgbController controller = new RgbController(new RgbImageProcessor(ImageLayoutEnum.TILED),
+            textView, new StringReader(command));
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    model.blur(imageName1, imageName2);
+    try {
+      controller.run();
+      ImageData res = new RgbImageFileIO().load("images/temp/tiled.ppm");
+      deleteFiles("images/temp");
+      assertTrue(appendable.toString().contains("save Operation performed successfully"));
+      assertEquals(model.getImageData(imageName2), res);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testLayoutCommandSelectsTiledImages() {
+    String command = "layout tiled\nload images/test/test.ppm image\nsharpen image sharp\n"
+            + "save images/temp/tiled.ppm sharp";
+    RgbImageProcessor processor = new RgbImageProcessor();
+    RgbController controller = new RgbController(processor, textView,
+            new StringReader(command));
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage(imageName1, imageData);
+    model.sharpen(imageName1, imageName2);
+    try {
+      controller.run();
+      ImageData res = new RgbImageFileIO().load("images/temp/tiled.ppm");
+      deleteFiles("images/temp");
+      assertEquals(ImageLayoutEnum.TILED, processor.getLayout());
+      assertTrue(appendable.toString().contains("layout Operation performed successfully"));
+      assertEquals(model.getImageData(imageName2), res);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testSaveBinaryPpm() {
+    String command = "load images/test/test.ppm image\n"
+            + "save images/temp/binary.ppm image binary\n"
+            + "layout tiled\nload images/test/test.ppm tiled\n"
+            + "save images/temp/tiled-binary.ppm tiled binary";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    try {
+      controller.run();
+      byte[] binary = Files.readAllBytes(Paths.get("images/temp/binary.ppm"));
+      byte[] tiledBinary = Files.readAllBytes(Paths.get("images/temp/tiled-binary.ppm"));
+      ImageData res = new RgbImageFileIO().load("images/temp/binary.ppm");
+      ImageData tiledRes = new RgbImageFileIO().load("images/temp/tiled-binary.ppm");
+      deleteFiles("images/temp");
+
+      assertEquals("P6", new String(binary, 0, 2, StandardCharsets.US_ASCII));
+      assertEquals("P6", new String(tiledBinary, 0, 2, StandardCharsets.US_ASCII));
+      assertEquals(imageData, res);
+      assertEquals(imageData, tiledRes);
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testSaveOptions() {
+    String command = "load images/test/test.ppm image\n"
+            + "save images/temp/options.jpg image quality 0.3 progressive optimize-huffman\n"
+            + "save images/temp/options.png image compression 0 parallel-png\n"
+            + "save images/temp/options.rimg image compressed";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    RgbImageFileIO fileIO = new RgbImageFileIO();
+    try {
+      controller.run();
+      fileIO.save("images/temp/expected.jpg", imageData, new EncodingParameters()
+              .withJpegQuality(0.3f).withProgressive(true).withOptimizeHuffmanTables(true));
+      fileIO.save("images/temp/expected.png", imageData, new EncodingParameters()
+              .withPngCompressionLevel(0).withParallelPng(true));
+      fileIO.save("images/temp/expected.rimg", imageData,
+              new EncodingParameters().withCompressedRimg(true));
+      for (String extension : new String[]{"jpg", "png", "rimg"}) {
+        assertArrayEquals(Files.readAllBytes(Paths.get("images/temp/expected." + extension)),
+                Files.readAllBytes(Paths.get("images/temp/options." + extension)));
+      }
+      deleteFiles("images/temp");
+    } catch (IOException e) {
+      deleteFiles("images/temp");
+      fail("Should not have thrown error");
+    }
+  }
+
+  @Test
+  public void testSaveInvalidOptionValues() {
+    String command = "load images/test/test.ppm image\n"
+            + "save images/temp/options.jpg image quality 1.5\n"
+            + "save images/temp/options.png image compression 10\n"
+            + "save images/temp/options.png image compression";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    assertTrue(appendable.toString().endsWith("Invalid JPEG quality\n"
+            + "Invalid PNG compression level\n"
+            + "Invalid Command\n"));
+    assertFalse(Files.exists(Paths.get("images/temp/options.jpg")));
+    assertFalse(Files.exists(Paths.get("images/temp/options.png")));
+  }
+
+  @Test
+  public void testSaveInvalidOption() {
+    String command = "load images/test/test.ppm image\n"
+            + "save images/temp/binary.ppm image fast";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+
+    assertTrue(appendable.toString().contains("Invalid Command"));
+    assertFalse(Files.exists(Paths.get("images/temp/binary.ppm")));
+  }
+
+  @Test
+  public void testStreamInvalidCommands() {
+    String command = "stream images/test/test.ppm images/temp/stream.ppm vertical-flip\n"
+            + "stream images/test/test.ppm images/temp/stream.ppm\n"
+            + "stream images/test/test.ppm images/temp/stream.ppm sepia brighten\n"
+            + "stream images/test/test.ppm \"images/temp/stream.ppm sepia";
+    RgbController controller = new RgbController(new RgbImageProcessor(), textView,
+            new StringReader(command));
+    try {
+      controller.run();
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+    }
+    assertEquals("Image Processing program started\n"
+            + "Operation cannot be streamed: vertical-flip\n"
+            + "Invalid Command\n"
+            + "Invalid Command\n"
+            + "Invalid Command\n", appendable.toString());
+    assertFalse(Files.exists(Paths.get("images/temp/stream.ppm")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePendingSaves() {
+    new RgbController(new RgbImageProcessor(), textView, new StringReader(""), -1);
+  }
+
+  private void assertScriptOutputs() {
     String src = "images/scriptRef/";
     String res = "images/temp/";
     ImageFileIO fileIO = new RgbImageFileIO();
@@ -566,7 +891,7 @@ public class RgbControllerIntegrationTest {
     ImageData act;
     try {
       for (String imageName :
-              imageNames) {
+              SCRIPT_OUTPUTS) {
         exp = fileIO.load(src + imageName);
         act = fileIO.load(res + imageName);
         assertEquals(exp, act);
@@ -639,4 +964,19 @@ public class RgbControllerIntegrationTest {
     ImageData res = model.getImageData(imageName2);
     return exp.equals(res);
   }
+
+  private boolean referenceHelper(String command, String referencePath) {
+    ImageFileIO fileIO = new RgbImageFileIO();
+    try {
+      ImageProcessorModel model = new RgbImageProcessor();
+      model.addImage(imageName1, fileIO.load("images/test/test.ppm"));
+      runCommand(command + " " + imageName1 + " " + imageName2, model);
+      ImageData reference = fileIO.load(referencePath);
+      ImageData res = model.getImageData(imageName2);
+      return compare3DArrays(reference.getData(), res.getData(), 0);
+    } catch (IOException e) {
+      fail("Should not have thrown error");
+      return false;
+    }
+  }
 }
@@ -1,6 +1,8 @@
 package controller;
 
+import model.BorderModeEnum;
 import model.ImageData;
+import model.ImageLayoutEnum;
 import model.ImageProcessorModel;
 import view.ImageProcessorView;
 import view.TextView;
@@ -147,6 +149,27 @@ public class RgbControllerTest {
               .append(destImageName);
     }
 
+    @Override
+    public void blur(String imageName, String destImageName, BorderModeEnum borderMode)
+            throws IllegalArgumentException {
+      blur(imageName, destImageName);
+      log.append(", Border Mode : ").append(borderMode);
+    }
+
+    @Override
+    public void separableBlur(String imageName, String destImageName)
+            throws IllegalArgumentException {
+      log.append("Image Name : ")
+              .append(imageName)
+              .append(", Dest Image Name : ")
+              .append(destImageName);
+    }
+
+    @Override
+    public void setLayout(ImageLayoutEnum layout) throws IllegalArgumentException {
+      log.append("Layout : ").append(layout);
+    }
+
     @Override
     public void sharpen(String imageName, String destImageName) throws IllegalArgumentException {
       log.append("Image Name : ")
@@ -155,6 +178,13 @@ public class RgbControllerTest {
               .append(destImageName);
     }
 
+    @Override
+    public void sharpen(String imageName, String destImageName, BorderModeEnum borderMode)
+            throws IllegalArgumentException {
+      sharpen(imageName, destImageName);
+      log.append(", Border Mode : ").append(borderMode);
+    }
+
     @Override
     public void sepia(String imageName, String destImageName) throws IllegalArgumentException {
       log.append("Image Name : ")
@@ -345,6 +375,47 @@ public class RgbControllerTest {
             out.toString());
   }
 
+  @Test
+  public void testSeparableBlurCommand() {
+    //GIVEN
+    Reader in = new StringReader("separable-blur image blurred-image\nexit");
+    ImageController rgbController = new RgbController(rgbImageProcess, textView, in);
+
+    //WHEN
+    try {
+      rgbController.run();
+    } catch (IOException ignored) {
+    }
+
+    //THEN
+    assertEquals("Image Name : image, " +
+            "Dest Image Name : blurred-image", modelLog.toString());
+    assertEquals("Image Processing program started\n" +
+                    "separable-blur Operation performed successfully\nProgram Terminated\n",
+            out.toString());
+  }
+
+  @Test
+  public void testLayoutCommand() {
+    //GIVEN
+    Reader in = new StringReader("layout tiled\nlayout Planar\nlayout striped\nexit");
+    ImageController rgbController = new RgbController(rgbImageProcess, textView, in);
+
+    //WHEN
+    try {
+      rgbController.run();
+    } catch (IOException ignored) {
+    }
+
+    //THEN
+    assertEquals("Layout : TILEDLayout : PLANAR", modelLog.toString());
+    assertEquals("Image Processing program started\n"
+                    + "layout Operation performed successfully\n"
+                    + "layout Operation performed successfully\n"
+                    + "Invalid image layout: striped\nProgram Terminated\n",
+            out.toString());
+  }
+
   @Test
   public void testBlurCommand() {
     //GIVEN
@@ -364,6 +435,29 @@ public class RgbControllerTest {
             "blur Operation performed successfully\nProgram Terminated\n", out.toString());
   }
 
+  @Test
+  public void testFilterCommandsWithBorderMode() {
+    //GIVEN
+    Reader in = new StringReader("blur image blurred-image clamp\n"
+            + "sharpen image sharp-image Mirror\nblur image blurred-image reflect\nexit");
+    ImageController rgbController = new RgbController(rgbImageProcess, textView, in);
+
+    //WHEN
+    try {
+      rgbController.run();
+    } catch (IOException ignored) {
+    }
+
+    //THEN
+    assertEquals("Image Name : image, Dest Image Name : blurred-image, Border Mode : CLAMP"
+            + "Image Name : image, Dest Image Name : sharp-image, Border Mode : MIRROR",
+            modelLog.toString());
+    assertEquals("Image Processing program started\n"
+            + "blur Operation performed successfully\n"
+            + "sharpen Operation performed successfully\n"
+            + "Invalid border mode: reflect\nProgram Terminated\n", out.toString());
+  }
+
   @Test
   public void testSharpenCommand() {
     //GIVEN
@@ -2,12 +2,30 @@ package controller;
 
 import org.junit.Test;
 
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
 
+import codec.DecodingParameters;
+import codec.EncodingParameters;
 import exceptions.FileFormatNotSupportedException;
 import model.ImageData;
+import model.ImageProcessorModel;
+import model.RgbImageProcessor;
+import model.RowConvolution;
+import model.RowOperation;
+import model.RowOperations;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -284,4 +302,695 @@ public class RgbImageFileIOTest {
       fail("This exception should not be thrown");
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLoadPPMWithCommentsAnywhere() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File file = File.createTempFile("comments", ".ppm");
+    file.deleteOnExit();
+    Files.write(file.toPath(), ("P3 # plain ppm\n# created by hand\n2 1 # width height\n"
+            + "255\n1 2 3 # first pixel\n\n  4 5\n#between values\n6").getBytes());
+    //WHEN
+    ImageData image = imageFileIO.load(file.getPath());
+    //THEN
+    assertImageData(new int[][][]{{{1, 4}}, {{2, 5}}, {{3, 6}}}, image);
+    assertEquals(255, image.getMaxValue());
+  }
+
+  @Test
+  public void testLoadPPMWithNonNumericValue() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File file = File.createTempFile("nonNumeric", ".ppm");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "P3\n1 1\n255\n1 two 3\n".getBytes());
+    //WHEN
+    try {
+      imageFileIO.load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PPM file.", e.getMessage());
+    }
+  }
+
+  private static File tempFile(String suffix) throws IOException {
+    File file = File.createTempFile("netpbm", suffix);
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void testSaveAndLoadBinaryPPM() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    int[][][] values = {
+            {{0, 255, 10}, {20, 30, 40}},
+            {{1, 2, 3}, {4, 5, 6}},
+            {{200, 100, 50}, {25, 12, 6}}
+    };
+    File file = tempFile(".ppm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 255));
+    //THEN
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertEquals("P6\n3 2\n255\n".length() + 18, bytes.length);
+    assertEquals('6', bytes[1]);
+    ImageData loaded = new RgbImageFileIO().load(file.getPath());
+    assertImageData(values, loaded);
+    assertEquals(255, loaded.getMaxValue());
+  }
+
+  @Test
+  public void testSaveAndLoadSixteenBitBinaryPPM() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    int[][][] values = {
+            {{0, 65535}},
+            {{256, 1000}},
+            {{40000, 1}}
+    };
+    File file = tempFile(".ppm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 65535));
+    //THEN
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertEquals("P6\n2 1\n65535\n".length() + 12, bytes.length);
+    ImageData loaded = imageFileIO.load(file.getPath());
+    assertImageData(values, loaded);
+    assertEquals(65535, loaded.getMaxValue());
+  }
+
+  @Test
+  public void testLoadBinaryPPMWithComments() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    byte[] header = "P6 # binary\n# comment line\n1 1\n255\n".getBytes();
+    byte[] bytes = new byte[header.length + 3];
+    System.arraycopy(header, 0, bytes, 0, header.length);
+    bytes[header.length] = (byte) 200;
+    bytes[header.length + 1] = '#';
+    bytes[header.length + 2] = ' ';
+    Files.write(file.toPath(), bytes);
+    //WHEN
+    ImageData loaded = new RgbImageFileIO().load(file.getPath());
+    //THEN
+    assertImageData(new int[][][]{{{200}}, {{'#'}}, {{' '}}}, loaded);
+  }
+
+  @Test
+  public void testLoadTruncatedBinaryPPM() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    Files.write(file.toPath(), "P6\n2 2\n255\n\1\2\3".getBytes());
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PPM file.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLoadTruncatedBinaryPPMWithOversizedHeader() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    Files.write(file.toPath(), "P6\n100000 100000\n255\n\1\2\3".getBytes());
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PPM file.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLoadTruncatedWide16BitPGM() throws IOException {
+    //GIVEN
+    // the row is 2^31 bytes long, one more than an int holds
+    File file = tempFile(".pgm");
+    Files.write(file.toPath(), "P5\n1073741824 1\n65535\n\1\2".getBytes());
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PGM file.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLoadBinaryPPMValueAboveMax() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    Files.write(file.toPath(), new byte[]{'P', '6', ' ', '1', ' ', '1', ' ', '3', '0', '0', '\n',
+        0, 1, 0, 2, 1, 50});
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PPM file", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSaveAndLoadPGM() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    int[][][] values = {
+            {{10, 255}, {0, 100}},
+            {{10, 255}, {0, 100}},
+            {{10, 255}, {0, 100}}
+    };
+    File file = tempFile(".pgm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 255));
+    //THEN
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertEquals("P5\n2 2\n255\n".length() + 4, bytes.length);
+    assertImageData(values, imageFileIO.load(file.getPath()));
+  }
+
+  @Test
+  public void testSaveColorImageAsPGMUsesLuma() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File file = tempFile(".pgm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(new int[][][]{{{100}}, {{50}}, {{200}}}, 255));
+    //THEN
+    int luma = (int) Math.round(0.2126 * 100 + 0.7152 * 50 + 0.0722 * 200);
+    assertImageData(new int[][][]{{{luma}}, {{luma}}, {{luma}}},
+            imageFileIO.load(file.getPath()));
+  }
+
+  @Test
+  public void testLoadPlainPGM() throws IOException {
+    //GIVEN
+    File file = tempFile(".pgm");
+    Files.write(file.toPath(), "P2\n3 1\n15\n0 7 15\n".getBytes());
+    //WHEN
+    ImageData loaded = new RgbImageFileIO().load(file.getPath());
+    //THEN
+    assertImageData(new int[][][]{{{0, 7, 15}}, {{0, 7, 15}}, {{0, 7, 15}}}, loaded);
+    assertEquals(15, loaded.getMaxValue());
+  }
+
+  @Test
+  public void testLoadPGMInvalidToken() throws IOException {
+    //GIVEN
+    File file = tempFile(".pgm");
+    Files.write(file.toPath(), "P7\n1 1\n255\n1 2 3\n".getBytes());
+    //WHEN
+    try {
+      new RgbImageFileIO().load(file.getPath());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Invalid PGM file: file should begin with P2 or P5", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLoadLargeBinaryPPM() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    int[][][] values = new int[3][300][301];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < 300; y++) {
+        for (int x = 0; x < 301; x++) {
+          values[c][y][x] = (c * 7 + y * 3 + x) % 256;
+        }
+      }
+    }
+    File file = tempFile(".ppm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 255));
+    //THEN
+    assertImageData(values, imageFileIO.load(file.getPath()));
+  }
+
+  @Test
+  public void testLoadBinaryPPMForFileNotFound() {
+    try {
+      new RgbImageFileIO().load("images/test/missing.ppm");
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      assertEquals("File Not Found", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSavePlainPPMOneValuePerLine() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    //WHEN
+    new RgbImageFileIO().save(file.getPath(),
+            new ImageData(new int[][][]{{{1, 200}}, {{2, 0}}, {{3, 65}}}, 255));
+    //THEN
+    assertEquals("P3\n2 1\n255\n1\n2\n3\n200\n0\n65\n",
+            new String(Files.readAllBytes(file.toPath())));
+  }
+
+  @Test
+  public void testSavePlainPPMSeveralValuesPerLine() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(false, 4);
+    int[][][] values = {{{1, 200}}, {{2, 0}}, {{3, 65}}};
+    File file = tempFile(".ppm");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 255));
+    //THEN
+    assertEquals("P3\n2 1\n255\n1 2 3 200\n0 65\n",
+            new String(Files.readAllBytes(file.toPath())));
+    assertImageData(values, imageFileIO.load(file.getPath()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidValuesPerLine() {
+    new RgbImageFileIO(false, 0);
+  }
+
+  @Test
+  public void testReadPixelsMatchesGetRgb() {
+    int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+        BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_BGR,
+        BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+        BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_INDEXED,
+        BufferedImage.TYPE_USHORT_565_RGB};
+    Random random = new Random(7);
+    for (int type : types) {
+      //GIVEN
+      BufferedImage full = new BufferedImage(9, 7, type);
+      for (int y = 0; y < full.getHeight(); y++) {
+        for (int x = 0; x < full.getWidth(); x++) {
+          full.setRGB(x, y, random.nextInt());
+        }
+      }
+      for (BufferedImage image : new BufferedImage[]{full, full.getSubimage(2, 3, 5, 4)}) {
+        int[][][] pixels = new int[3][image.getHeight()][image.getWidth()];
+        //WHEN
+        ImageIoCodec.readPixels(image, pixels);
+        //THEN
+        for (int y = 0; y < image.getHeight(); y++) {
+          for (int x = 0; x < image.getWidth(); x++) {
+            int rgb = image.getRGB(x, y);
+            assertEquals((rgb >> 16) & 0xFF, pixels[0][y][x]);
+            assertEquals((rgb >> 8) & 0xFF, pixels[1][y][x]);
+            assertEquals(rgb & 0xFF, pixels[2][y][x]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSaveAndLoadPNG() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    int[][][] values = {{{0, 255, 17}, {1, 2, 3}}, {{9, 128, 64}, {4, 5, 6}},
+        {{200, 0, 33}, {7, 8, 9}}};
+    File file = tempFile(".png");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 255));
+    //THEN
+    assertImageData(values, imageFileIO.load(file.getPath()));
+  }
+
+  private static ImageData gradient(int width, int height) {
+    int[][][] values = new int[3][height][width];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          values[c][y][x] = (x * 3 + y * (c + 1) + 40 * c) & 0xFF;
+        }
+      }
+    }
+    return new ImageData(values, 255);
+  }
+
+  @Test
+  public void testPNGCompressionLevelKeepsPixels() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    ImageData image = gradient(64, 48);
+    File stored = tempFile(".png");
+    File compressed = tempFile(".png");
+    //WHEN
+    imageFileIO.save(stored.getPath(), image, new EncodingParameters().withPngCompressionLevel(0));
+    imageFileIO.save(compressed.getPath(), image,
+            new EncodingParameters().withPngCompressionLevel(9)
+                    .withProgressive(true));
+    //THEN
+    assertTrue(stored.length() > compressed.length());
+    assertEquals(image, imageFileIO.load(stored.getPath()));
+    assertEquals(image, imageFileIO.load(compressed.getPath()));
+  }
+
+  @Test
+  public void testJPGQuality() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    ImageData image = gradient(64, 48);
+    File low = tempFile(".jpg");
+    File high = tempFile(".jpg");
+    //WHEN
+    imageFileIO.save(low.getPath(), image, new EncodingParameters().withJpegQuality(0.1f));
+    imageFileIO.save(high.getPath(), image, new EncodingParameters().withJpegQuality(1f)
+            .withProgressive(true).withOptimizeHuffmanTables(true));
+    //THEN
+    assertTrue(low.length() < high.length());
+    assertEquals(64, imageFileIO.load(high.getPath()).getWidth());
+  }
+
+  @Test
+  public void testSaveReplacesLongerFile() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File file = tempFile(".png");
+    imageFileIO.save(file.getPath(), gradient(64, 48),
+            new EncodingParameters().withPngCompressionLevel(0));
+    ImageData small = gradient(2, 2);
+    //WHEN
+    imageFileIO.save(file.getPath(), small);
+    //THEN
+    assertEquals(small, imageFileIO.load(file.getPath()));
+    assertTrue(file.length() < 200);
+  }
+
+  private static ImageData crop(ImageData image, int x, int y, int width, int height,
+                                int xSubsampling, int ySubsampling) {
+    int endX = Math.min(image.getWidth(), x + width);
+    int endY = Math.min(image.getHeight(), y + height);
+    int[][][] values = new int[3][(endY - y + ySubsampling - 1) / ySubsampling]
+            [(endX - x + xSubsampling - 1) / xSubsampling];
+    for (int c = 0; c < 3; c++) {
+      for (int i = 0; i < values[c].length; i++) {
+        for (int j = 0; j < values[c][i].length; j++) {
+          values[c][i][j] = image.getValue(c, y + i * ySubsampling, x + j * xSubsampling);
+        }
+      }
+    }
+    return new ImageData(values, image.getMaxValue());
+  }
+
+  @Test
+  public void testLoadRegionAndSubsampling() throws IOException {
+    ImageData image = gradient(23, 17);
+    ImageData sixteenBit = new ImageData(image.getData(), 65535);
+    DecodingParameters[] parameters = {
+        new DecodingParameters(3),
+        new DecodingParameters(4, 2, 10, 9, 1, 1),
+        new DecodingParameters(5, 3, 100, 100, 3, 2),
+        new DecodingParameters(22, 16, 5, 5, 2, 2)
+    };
+    int[][] regions = {{0, 0, 23, 17, 3, 3}, {4, 2, 10, 9, 1, 1}, {5, 3, 100, 100, 3, 2},
+        {22, 16, 5, 5, 2, 2}};
+    ImageFileIO[] fileIOs = {new RgbImageFileIO(), new RgbImageFileIO(true),
+        new RgbImageFileIO(true), new RgbImageFileIO()};
+    String[] suffixes = {".ppm", ".ppm", ".ppm", ".png"};
+    ImageData[] images = {image, image, sixteenBit, image};
+    for (int f = 0; f < fileIOs.length; f++) {
+      //GIVEN
+      File file = tempFile(suffixes[f]);
+      fileIOs[f].save(file.getPath(), images[f]);
+      for (int p = 0; p < parameters.length; p++) {
+        int[] r = regions[p];
+        //WHEN
+        ImageData loaded = fileIOs[f].load(file.getPath(), parameters[p]);
+        //THEN
+        assertEquals(crop(images[f], r[0], r[1], r[2], r[3], r[4], r[5]), loaded);
+      }
+    }
+  }
+
+  @Test
+  public void testSaveAndLoadRIMG() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    ImageData image = new ImageData(gradient(23, 17).getData(), 1000);
+    File file = tempFile(".rimg");
+    imageFileIO.save(file.getPath(), image);
+    //WHEN
+    ImageData loaded = imageFileIO.load(file.getPath());
+    ImageData region = imageFileIO.load(file.getPath(),
+            new DecodingParameters(5, 3, 100, 100, 3, 2));
+    //THEN
+    assertEquals(image, loaded);
+    assertEquals(crop(image, 5, 3, 100, 100, 3, 2), region);
+  }
+
+  @Test
+  public void testSaveCompressedRIMG() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    ImageData image = gradient(64, 64);
+    File raw = tempFile(".rimg");
+    File compressed = tempFile(".rimg");
+    //WHEN
+    imageFileIO.save(raw.getPath(), image);
+    imageFileIO.save(compressed.getPath(), image,
+            new EncodingParameters().withCompressedRimg(true));
+    //THEN
+    assertTrue(compressed.length() < raw.length());
+    assertEquals(image, imageFileIO.load(compressed.getPath()));
+  }
+
+  @Test
+  public void testLoadRegionOfPGMAndJPG() throws IOException {
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    DecodingParameters parameters = new DecodingParameters(2, 3, 12, 8, 2, 3);
+    for (String suffix : new String[]{".pgm", ".jpg"}) {
+      //GIVEN
+      File file = tempFile(suffix);
+      imageFileIO.save(file.getPath(), gradient(23, 17));
+      ImageData full = imageFileIO.load(file.getPath());
+      //WHEN
+      ImageData loaded = imageFileIO.load(file.getPath(), parameters);
+      //THEN
+      assertEquals(crop(full, 2, 3, 12, 8, 2, 3), loaded);
+    }
+  }
+
+  @Test
+  public void testLoadRegionOutsideImage() throws IOException {
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    for (String suffix : new String[]{".ppm", ".png"}) {
+      File file = tempFile(suffix);
+      imageFileIO.save(file.getPath(), gradient(8, 8));
+      try {
+        imageFileIO.load(file.getPath(), new DecodingParameters(8, 0, 4, 4, 1, 1));
+        fail("Above line should throw an exception");
+      } catch (IOException e) {
+        assertEquals("Source region is outside the image", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testLoadRegionOfPlainPPMStopsAfterLastRow() throws IOException {
+    //GIVEN
+    File file = tempFile(".ppm");
+    Files.write(file.toPath(), "P3 2 3 255 1 2 3 4 5 6 7 8 9 10 11 12 oops".getBytes());
+    //WHEN
+    ImageData loaded = new RgbImageFileIO().load(file.getPath(),
+            new DecodingParameters(1, 0, 1, 2, 1, 1));
+    //THEN
+    assertImageData(new int[][][]{{{4}, {10}}, {{5}, {11}}, {{6}, {12}}}, loaded);
+  }
+
+  @Test
+  public void testSaveAndLoadSixteenBitPNG() throws IOException {
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    int[][][] values = {{{0, 65535, 256}, {1, 40000, 255}}, {{9, 128, 64}, {4, 5, 6}},
+        {{20000, 0, 33}, {7, 8, 65534}}};
+    EncodingParameters[] parameters = {new EncodingParameters(),
+        new EncodingParameters().withPngCompressionLevel(9).withParallelPng(true)};
+    for (EncodingParameters parameter : parameters) {
+      //GIVEN
+      File file = tempFile(".png");
+      //WHEN
+      imageFileIO.save(file.getPath(), new ImageData(values, 65535), parameter);
+      ImageData loaded = imageFileIO.load(file.getPath());
+      //THEN
+      assertEquals(new ImageData(values, 65535), loaded);
+    }
+  }
+
+  @Test
+  public void testSaveTenBitImageAsSixteenBitPNG() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    int[][][] values = {{{0, 1023}}, {{512, 300}}, {{7, 1000}}};
+    File file = tempFile(".png");
+    //WHEN
+    imageFileIO.save(file.getPath(), new ImageData(values, 1023));
+    //THEN
+    assertEquals(new ImageData(values, 65535), imageFileIO.load(file.getPath()));
+  }
+
+  @Test
+  public void testReadPixelsKeepsSixteenBitSamples() {
+    //GIVEN
+    ComponentColorModel colorModel = new ComponentColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), new int[]{16, 16, 16, 16}, true,
+            false, Transparency.TRANSLUCENT, DataBuffer.TYPE_USHORT);
+    WritableRaster raster = colorModel.createCompatibleWritableRaster(6, 5);
+    for (int y = 0; y < 5; y++) {
+      for (int x = 0; x < 6; x++) {
+        for (int b = 0; b < 4; b++) {
+          raster.setSample(x, y, b, (x * 10007 + y * 3001 + b * 17) & 0xFFFF);
+        }
+      }
+    }
+    BufferedImage full = new BufferedImage(colorModel, raster, false, null);
+    for (BufferedImage image : new BufferedImage[]{full, full.getSubimage(1, 2, 4, 3)}) {
+      int[][][] pixels = new int[3][image.getHeight()][image.getWidth()];
+      //WHEN
+      int maxValue = ImageIoCodec.readPixels(image, pixels);
+      //THEN
+      assertEquals(65535, maxValue);
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          for (int c = 0; c < 3; c++) {
+            assertEquals(image.getRaster().getSample(x, y, c), pixels[c][y][x]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadPixelsOfIndexedImageIsEightBit() {
+    BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_BYTE_INDEXED);
+    assertEquals(255, ImageIoCodec.readPixels(image, new int[3][2][3]));
+  }
+
+  private static ImageData flipAndBrighten(ImageData image, int increment) {
+    int[][][] values = new int[3][image.getHeight()][image.getWidth()];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          values[c][y][image.getWidth() - 1 - x] = Math.max(0, Math.min(image.getMaxValue(),
+                  image.getValue(c, y, x) + increment));
+        }
+      }
+    }
+    return new ImageData(values, image.getMaxValue());
+  }
+
+  @Test
+  public void testStreamBetweenFormats() throws IOException {
+    RowOperation operation = RowOperations.horizontalFlip()
+            .andThen(RowOperations.brighten(30));
+    ImageData image = gradient(23, 17);
+    ImageData sixteenBit = new ImageData(image.getData(), 1000);
+    ImageFileIO[] fileIOs = {new RgbImageFileIO(), new RgbImageFileIO(true),
+        new RgbImageFileIO(true), new RgbImageFileIO(false, 5), new RgbImageFileIO()};
+    String[][] suffixes = {{".ppm", ".ppm"}, {".ppm", ".ppm"}, {".ppm", ".ppm"},
+        {".png", ".ppm"}, {".ppm", ".rimg"}};
+    ImageData[] images = {image, image, sixteenBit, image, sixteenBit};
+    for (int f = 0; f < fileIOs.length; f++) {
+      //GIVEN
+      File source = tempFile(suffixes[f][0]);
+      File destination = tempFile(suffixes[f][1]);
+      fileIOs[f].save(source.getPath(), images[f]);
+      //WHEN
+      fileIOs[f].stream(source.getPath(), destination.getPath(), operation);
+      //THEN
+      assertEquals(flipAndBrighten(images[f], 30), fileIOs[f].load(destination.getPath()));
+    }
+  }
+
+  @Test
+  public void testStreamFiltersTallImage() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    ImageData image = gradient(9, 2000);
+    File source = tempFile(".ppm");
+    imageFileIO.save(source.getPath(), image);
+    File destination = tempFile(".ppm");
+    ImageProcessorModel model = new RgbImageProcessor();
+    model.addImage("image", image);
+    model.sharpen("image", "sharp");
+    model.blur("sharp", "result");
+    //WHEN
+    imageFileIO.stream(source.getPath(), destination.getPath(),
+            RowConvolution.sharpen().andThen(RowConvolution.blur()));
+    //THEN
+    assertEquals(model.getImageData("result"), imageFileIO.load(destination.getPath()));
+  }
+
+  @Test
+  public void testStreamPGM() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File source = tempFile(".pgm");
+    Files.write(source.toPath(), "P2\n3 1\n255\n10 20 250\n".getBytes());
+    File destination = tempFile(".pgm");
+    //WHEN
+    imageFileIO.stream(source.getPath(), destination.getPath(), RowOperations.brighten(10));
+    //THEN
+    int[][] row = {{20, 30, 255}};
+    assertEquals(new ImageData(new int[][][]{row, row, row}, 255),
+            imageFileIO.load(destination.getPath()));
+  }
+
+  @Test
+  public void testStreamInPlace() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO(true);
+    ImageData image = gradient(40, 30);
+    File file = tempFile(".ppm");
+    imageFileIO.save(file.getPath(), image);
+    //WHEN
+    imageFileIO.stream(file.getPath(), file.getPath(), RowOperations.horizontalFlip());
+    //THEN
+    assertEquals(flipAndBrighten(image, 0), imageFileIO.load(file.getPath()));
+    assertFalse(new File(file.getPath() + ".tmp").exists());
+  }
+
+  @Test
+  public void testStreamCorruptedSourceKeepsDestination() throws IOException {
+    //GIVEN
+    ImageFileIO imageFileIO = new RgbImageFileIO();
+    File source = tempFile(".ppm");
+    Files.write(source.toPath(), "P3\n2 2\n255\n1 2 3 4 5 6 7 8 300 1 1 1\n".getBytes());
+    File destination = tempFile(".ppm");
+    Files.write(destination.toPath(), "old".getBytes());
+    //WHEN
+    try {
+      imageFileIO.stream(source.getPath(), destination.getPath(), RowOperations.sepia());
+      fail("Above line should throw an exception");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted PPM file", e.getMessage());
+    }
+    assertEquals("old", new String(Files.readAllBytes(destination.toPath())));
+    assertFalse(new File(destination.getPath() + ".tmp").exists());
+  }
+
+  @Test
+  public void testStreamUnsupportedDestination() throws IOException {
+    //GIVEN
+    File source = tempFile(".ppm");
+    new RgbImageFileIO().save(source.getPath(), gradient(2, 2));
+    //WHEN
+    try {
+      new RgbImageFileIO().stream(source.getPath(), source.getPath() + ".bmp",
+              RowOperations.sepia());
+      fail("Above line should throw an exception");
+    } catch (FileFormatNotSupportedException e) {
+      //THEN
+      assertEquals("Unsupported File format", e.getMessage());
+    }
+  }
+}
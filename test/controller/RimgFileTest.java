@@ -0,0 +1,177 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import model.ImageData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for the RIMG file format.
+ */
+public class RimgFileTest {
+
+  private static File tempFile() throws IOException {
+    File file = File.createTempFile("image", ".rimg");
+    file.deleteOnExit();
+    return file;
+  }
+
+  private static ImageData image(int width, int height, int minValue, int maxValue) {
+    int[][][] values = new int[3][height][width];
+    long range = (long) maxValue - minValue + 1;
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          values[c][y][x] = (int) (minValue + ((x * 7919L + y * 104729L + c * 31L) % range));
+        }
+      }
+    }
+    return new ImageData(values, Math.max(maxValue, 1));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    ImageData[] images = {image(37, 11, 0, 255), image(37, 11, 0, 65535),
+        image(37, 11, 0, 70000), image(37, 11, -500, 300), image(0, 0, 0, 255),
+        image(1, 1, 0, 255)};
+    for (ImageData image : images) {
+      for (boolean compressed : new boolean[]{false, true}) {
+        //GIVEN
+        File file = tempFile();
+        RimgFile.write(file.getPath(), image, compressed);
+        //WHEN
+        ImageData loaded = RimgFile.read(file.getPath());
+        //THEN
+        assertEquals(image, loaded);
+      }
+    }
+  }
+
+  @Test
+  public void testSampleSize() throws IOException {
+    int[] maxValues = {255, 65535, 65536};
+    int[] sampleBytes = {1, 2, 4};
+    for (int i = 0; i < maxValues.length; i++) {
+      //GIVEN
+      File file = tempFile();
+      //WHEN
+      RimgFile.write(file.getPath(), image(10, 4, 0, maxValues[i]), false);
+      //THEN
+      assertEquals(20 + 3 * 10 * 4 * sampleBytes[i], file.length());
+    }
+  }
+
+  @Test
+  public void testCompressionShrinksSmoothImage() throws IOException {
+    //GIVEN
+    int[][][] values = new int[3][64][64];
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < 64; y++) {
+        for (int x = 0; x < 64; x++) {
+          values[c][y][x] = x + y;
+        }
+      }
+    }
+    File raw = tempFile();
+    File compressed = tempFile();
+    //WHEN
+    RimgFile.write(raw.getPath(), new ImageData(values, 255), false);
+    RimgFile.write(compressed.getPath(), new ImageData(values, 255), true);
+    //THEN
+    assertTrue(compressed.length() * 4 < raw.length());
+  }
+
+  @Test
+  public void testCorruptedFiles() throws IOException {
+    for (boolean compressed : new boolean[]{false, true}) {
+      File file = tempFile();
+      RimgFile.write(file.getPath(), image(16, 16, 0, 255), compressed);
+      long length = file.length();
+      long[] truncatedLengths = {0, 10, length - 1};
+      for (long truncated : truncatedLengths) {
+        //GIVEN
+        File copy = tempFile();
+        Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        try (RandomAccessFile access = new RandomAccessFile(copy, "rw")) {
+          access.setLength(truncated);
+        }
+        //WHEN
+        try {
+          RimgFile.read(copy.getPath());
+          fail("An IOException should have been thrown");
+        } catch (IOException e) {
+          //THEN
+          assertEquals("Corrupted RIMG file.", e.getMessage());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBadHeader() throws IOException {
+    //GIVEN
+    File file = tempFile();
+    RimgFile.write(file.getPath(), image(4, 4, 0, 255), false);
+    try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+      access.seek(0);
+      access.write('X');
+    }
+    //WHEN
+    try {
+      RimgFile.read(file.getPath());
+      fail("An IOException should have been thrown");
+    } catch (IOException e) {
+      //THEN
+      assertEquals("Corrupted RIMG file.", e.getMessage());
+    }
+  }
+
+  private static void assertCorrupted(File file) {
+    try {
+      RimgFile.read(file.getPath());
+      fail("An IOException should have been thrown");
+    } catch (IOException e) {
+      assertEquals("Corrupted RIMG file.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testNegativeMaxValue() throws IOException {
+    for (boolean compressed : new boolean[]{false, true}) {
+      //GIVEN
+      File file = tempFile();
+      RimgFile.write(file.getPath(), image(4, 4, 0, 255), compressed);
+      try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+        access.seek(16);
+        access.writeInt(-1);
+      }
+      //WHEN
+      //THEN
+      assertCorrupted(file);
+    }
+  }
+
+  @Test
+  public void testCompressedSizeBeyondPayload() throws IOException {
+    //GIVEN
+    File file = tempFile();
+    RimgFile.write(file.getPath(), image(1, 1, 0, 255), true);
+    try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+      // a 65536 by 65536 image cannot inflate from a few bytes
+      access.seek(8);
+      access.write(new byte[]{0, 0, 1, 0, 0, 0, 1, 0});
+    }
+    //WHEN
+    //THEN
+    assertCorrupted(file);
+  }
+}
@@ -0,0 +1,42 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Test class for Border Mode enum.
+ */
+public class BorderModeEnumTest {
+
+  @Test
+  public void testZeroIndexTable() {
+    assertArrayEquals(new int[]{-1, -1, 0, 1, 2, -1, -1},
+            BorderModeEnum.ZERO.indexTable(3, 2));
+  }
+
+  @Test
+  public void testClampIndexTable() {
+    assertArrayEquals(new int[]{0, 0, 0, 1, 2, 2, 2},
+            BorderModeEnum.CLAMP.indexTable(3, 2));
+  }
+
+  @Test
+  public void testMirrorIndexTable() {
+    assertArrayEquals(new int[]{2, 1, 0, 1, 2, 1, 0},
+            BorderModeEnum.MIRROR.indexTable(3, 2));
+    assertArrayEquals(new int[]{0, 0, 0, 0, 0},
+            BorderModeEnum.MIRROR.indexTable(1, 2));
+  }
+
+  @Test
+  public void testWrapIndexTable() {
+    assertArrayEquals(new int[]{1, 2, 0, 1, 2, 0, 1},
+            BorderModeEnum.WRAP.indexTable(3, 2));
+  }
+
+  @Test
+  public void testEmptyAxis() {
+    assertArrayEquals(new int[]{-1, -1}, BorderModeEnum.WRAP.indexTable(0, 1));
+  }
+}
@@ -2,6 +2,8 @@ package model;
 
 import org.junit.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
@@ -295,4 +297,333 @@ public class ChannelTest {
     assertEquals(0, channel.getWidth());
     assertEquals(0, channel.getHeight());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRowMajorChannel() {
+    int[] values = {1, 2, 3, 4, 5, 6};
+    Channel channel = new Channel(2, 3, values);
+    int[][] expected = {
+            {1, 2, 3},
+            {4, 5, 6}
+    };
+    assertEquals(2, channel.getHeight());
+    assertEquals(3, channel.getWidth());
+    assertEquals(6, channel.getValue(1, 2));
+    assertArrayEquals(expected, channel.getChannelValues());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRowMajorChannelInvalidLength() {
+    new Channel(2, 3, new int[5]);
+  }
+
+  @Test
+  public void testChannelFromImageData() {
+    int[][][] values = {
+            {{1, 2, 3}, {4, 5, 6}},
+            {{7, 8, 9}, {10, 11, 12}},
+            {{300, 14, 15}, {16, 17, 18}}
+    };
+    ImageData imageData = new ImageData(values, 255);
+    assertArrayEquals(values[1], new Channel(imageData, 1).getChannelValues());
+    // values above the maximum are kept rather than truncated
+    assertArrayEquals(values[2], new Channel(imageData, 2).getChannelValues());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testChannelFromMissingImageDataChannel() {
+    new Channel(new ImageData(new int[1][2][2], 255), 1);
+  }
+
+  @Test
+  public void testVerticalFlipNonSquareChannel() {
+    int[][] values = {
+            {1, 2, 3, 4},
+            {5, 6, 7, 8}
+    };
+    int[][] expectedValues = {
+            {5, 6, 7, 8},
+            {1, 2, 3, 4}
+    };
+    ChannelModel channel = new Channel(values);
+    assertArrayEquals(expectedValues, channel.getVerticalFlipChannel().getChannelValues());
+  }
+
+  @Test
+  public void testSixteenBitChannelValues() {
+    int[][] values = {
+            {0, 1000, 65535},
+            {256, 40000, 12}
+    };
+    Channel channel = new Channel(values, 65535);
+    assertArrayEquals(values, channel.getChannelValues());
+    int[][] expectedValues = {
+            {1000, 2000, 65535},
+            {1256, 41000, 1012}
+    };
+    assertArrayEquals(expectedValues, channel.addBuffer(1000, 65535).getChannelValues());
+  }
+
+  @Test
+  public void testEightBitChannelFlips() {
+    int[][] values = {
+            {0, 128, 255},
+            {64, 200, 1}
+    };
+    int[][] expectedVertical = {
+            {64, 200, 1},
+            {0, 128, 255}
+    };
+    int[][] expectedHorizontal = {
+            {255, 128, 0},
+            {1, 200, 64}
+    };
+    Channel channel = new Channel(values, 255);
+    assertArrayEquals(expectedVertical, channel.getVerticalFlipChannel().getChannelValues());
+    assertArrayEquals(expectedHorizontal, channel.getHorizontalFlipChannel().getChannelValues());
+  }
+
+  @Test
+  public void testApplySeparableConvolution() {
+    int[][] inputChannel = {
+            {16, 32, 48, 7},
+            {64, 80, 96, 3},
+            {112, 128, 144, 250}
+    };
+    double[] column = {1.0 / 4, 1.0 / 2, 1.0 / 4};
+    double[] row = {1.0 / 4, 1.0 / 2, 1.0 / 4};
+    int[][] expectedOutput = new int[3][4];
+    for (int y = 0; y < 3; y++) {
+      for (int x = 0; x < 4; x++) {
+        double sum = 0;
+        for (int ky = 0; ky < 3; ky++) {
+          for (int kx = 0; kx < 3; kx++) {
+            int inputY = y - 1 + ky;
+            int inputX = x - 1 + kx;
+            if (inputY >= 0 && inputY < 3 && inputX >= 0 && inputX < 4) {
+              sum += inputChannel[inputY][inputX] * column[ky] * row[kx];
+            }
+          }
+        }
+        expectedOutput[y][x] = (int) Math.round(sum);
+      }
+    }
+    ChannelModel result = new Channel(inputChannel, 255)
+            .applySeparableConvolution(column, row, 255);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplySeparableConvolutionClampsValues() {
+    int[][] inputChannel = {
+            {200, 200, 200},
+            {200, 200, 200}
+    };
+    int[][] expectedOutput = {
+            {0, 0, 0},
+            {255, 255, 255}
+    };
+    ChannelModel result = new Channel(inputChannel, 255)
+            .applySeparableConvolution(new double[]{0, 2, 0}, new double[]{1}, 255);
+    assertArrayEquals(new int[][]{{255, 255, 255}, {255, 255, 255}}, result.getChannelValues());
+    result = new Channel(inputChannel, 255)
+            .applySeparableConvolution(new double[]{2, 0, -4}, new double[]{1}, 255);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplyConvolutionDoesNotOverflow() {
+    int max = Integer.MAX_VALUE;
+    int[][] inputChannel = {
+            {max, max, max},
+            {max, max, max},
+            {max, max, max}
+    };
+    double[][] kernel = {
+            {1, 1, 1},
+            {1, 30000, 1},
+            {1, 1, 1}
+    };
+    ChannelModel result = new Channel(inputChannel, max).applyConvolution(kernel, max);
+    assertArrayEquals(inputChannel, result.getChannelValues());
+    result = new Channel(inputChannel, max).applyConvolution(kernel, max,
+            BorderModeEnum.CLAMP);
+    assertArrayEquals(inputChannel, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplyConvolutionNegativeOverflowClampsToZero() {
+    int max = Integer.MAX_VALUE;
+    int[][] inputChannel = {
+            {max, max, max},
+            {max, max, max},
+            {max, max, max}
+    };
+    double[][] kernel = {
+            {-1, -1, -1},
+            {-1, -1, -1},
+            {-1, -1, -1}
+    };
+    ChannelModel result = new Channel(inputChannel, max).applyConvolution(kernel, max);
+    assertArrayEquals(new int[3][3], result.getChannelValues());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKernelWithTooManyTaps() {
+    new Channel(2, 2).applyConvolution(new double[257][257], 255);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSeparableKernel() {
+    new Channel(2, 2).applySeparableConvolution(new double[]{0.5, 0.5}, new double[]{1}, 255);
+  }
+
+  @Test
+  public void testApplyConvolutionClampBorder() {
+    int[][] inputChannel = {
+            {1, 2, 3},
+            {4, 5, 6}
+    };
+    double[][] kernel = {
+            {0, 0, 0},
+            {1, 0, 0},
+            {0, 0, 0}
+    };
+    int[][] expectedOutput = {
+            {1, 1, 2},
+            {4, 4, 5}
+    };
+    ChannelModel result = new Channel(inputChannel, 255)
+            .applyConvolution(kernel, 255, BorderModeEnum.CLAMP);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplyConvolutionMirrorBorder() {
+    int[][] inputChannel = {
+            {1, 2, 3},
+            {4, 5, 6}
+    };
+    double[][] kernel = {
+            {0, 1, 0},
+            {0, 0, 0},
+            {0, 0, 0}
+    };
+    int[][] expectedOutput = {
+            {4, 5, 6},
+            {1, 2, 3}
+    };
+    ChannelModel result = new Channel(inputChannel, 255)
+            .applyConvolution(kernel, 255, BorderModeEnum.MIRROR);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplyConvolutionWrapBorder() {
+    int[][] inputChannel = {
+            {1, 2, 3},
+            {4, 5, 6}
+    };
+    double[][] kernel = {
+            {0, 0, 0},
+            {0, 0, 1},
+            {0, 0, 0}
+    };
+    int[][] expectedOutput = {
+            {2, 3, 1},
+            {5, 6, 4}
+    };
+    ChannelModel result = new Channel(inputChannel, 255)
+            .applyConvolution(kernel, 255, BorderModeEnum.WRAP);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test
+  public void testApplyConvolutionBorderModesMatchDirectSum() {
+    int[][] inputChannel = new int[7][9];
+    for (int i = 0; i < 7; i++) {
+      for (int j = 0; j < 9; j++) {
+        inputChannel[i][j] = (i * 37 + j * 91) % 256;
+      }
+    }
+    double[][] kernel = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8}
+    };
+    for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+      int[][] expectedOutput = new int[7][9];
+      for (int y = 0; y < 7; y++) {
+        for (int x = 0; x < 9; x++) {
+          int pixel = 0;
+          for (int ky = 0; ky < 3; ky++) {
+            for (int kx = 0; kx < 5; kx++) {
+              int inputY = borderMode.sourceIndex(y - 1 + ky, 7);
+              int inputX = borderMode.sourceIndex(x - 2 + kx, 9);
+              if (inputY >= 0 && inputX >= 0) {
+                pixel += (int) Math.round(inputChannel[inputY][inputX] * kernel[ky][kx]);
+              }
+            }
+          }
+          expectedOutput[y][x] = Math.max(Math.min(pixel, 255), 0);
+        }
+      }
+      ChannelModel result = new Channel(inputChannel, 255)
+              .applyConvolution(kernel, 255, borderMode);
+      assertArrayEquals(borderMode.toString(), expectedOutput, result.getChannelValues());
+    }
+  }
+
+  @Test
+  public void testConvolutionSameForEveryStorageAndBand() {
+    int[][] inputChannel = new int[61][23];
+    for (int i = 0; i < 61; i++) {
+      for (int j = 0; j < 23; j++) {
+        inputChannel[i][j] = (i * 37 + j * 91) % 256;
+      }
+    }
+    double[][] kernel = {
+            {0.1, -0.2, 0.3},
+            {0.05, 1.1, 0.05},
+            {0.3, -0.2, 0.1}
+    };
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+        int[][] expected = new Channel(inputChannel, 70000)
+                .applyConvolution(kernel, 255, borderMode).getChannelValues();
+        int[][] separable = new Channel(inputChannel, 70000).applySeparableConvolution(
+                new double[]{1, 2, 1}, new double[]{0.25, 0.5, 0.25}, 1023, borderMode)
+                .getChannelValues();
+        ChannelModel narrow = new Channel(inputChannel, 255);
+        assertArrayEquals(expected, ParallelRows.invoke(pool,
+            () -> narrow.applyConvolution(kernel, 255, borderMode)).getChannelValues());
+        assertArrayEquals(separable, ParallelRows.invoke(pool,
+            () -> narrow.applySeparableConvolution(new double[]{1, 2, 1},
+                    new double[]{0.25, 0.5, 0.25}, 1023, borderMode)).getChannelValues());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testApplySeparableConvolutionClampBorder() {
+    int[][] inputChannel = {
+            {10, 20, 30},
+            {40, 50, 60}
+    };
+    int[][] expectedOutput = {
+            {10, 10, 20},
+            {10, 10, 20}
+    };
+    ChannelModel result = new Channel(inputChannel, 255).applySeparableConvolution(
+            new double[]{1, 0, 0}, new double[]{1, 0, 0}, 255, BorderModeEnum.CLAMP);
+    assertArrayEquals(expectedOutput, result.getChannelValues());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullBorderMode() {
+    new Channel(2, 2).applyConvolution(new double[][]{{1}}, 255, null);
+  }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for Fixed Point Kernel class.
+ */
+public class FixedPointKernelTest {
+
+  @Test
+  public void testQuantize() {
+    assertEquals(65536, FixedPointKernel.quantize(1.0));
+    assertEquals(4096, FixedPointKernel.quantize(1.0 / 16));
+    assertEquals(-8192, FixedPointKernel.quantize(-1.0 / 8));
+    assertEquals(6554, FixedPointKernel.quantize(0.1));
+  }
+
+  @Test
+  public void testKernelWeightsRowMajor() {
+    double[][] kernel = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    FixedPointKernel fixedPointKernel = new FixedPointKernel(kernel);
+    assertEquals(3, fixedPointKernel.getHeight());
+    assertEquals(3, fixedPointKernel.getWidth());
+    assertArrayEquals(new int[]{4096, 8192, 4096, 8192, 16384, 8192, 4096, 8192, 4096},
+            fixedPointKernel.getWeights());
+  }
+
+  @Test
+  public void testDyadicTapsMatchDoubleRounding() {
+    double[] weights = {1.0 / 16, 1.0 / 8, 1.0 / 4, 1.0, -1.0 / 8, 3.5, -0.75};
+    for (double weight : weights) {
+      int quantized = FixedPointKernel.quantize(weight);
+      for (int value = 0; value <= 65535; value++) {
+        assertEquals(Math.round(value * weight),
+                FixedPointKernel.roundTap((long) value * quantized));
+      }
+    }
+  }
+
+  @Test
+  public void testNonDyadicTapsWithinErrorBound() {
+    double[] weights = {0.2126, 0.7152, 0.0722, 0.1, -1.0 / 3};
+    for (double weight : weights) {
+      int quantized = FixedPointKernel.quantize(weight);
+      for (int value = 0; value <= 65535; value++) {
+        long expected = Math.round(value * weight);
+        long actual = FixedPointKernel.roundTap((long) value * quantized);
+        assertTrue(Math.abs(expected - actual) <= 1);
+        if (Math.abs(Math.abs(value * weight - Math.floor(value * weight)) - 0.5)
+                > value / 131072.0) {
+          assertEquals(expected, actual);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWideTapsWithinErrorBound() {
+    double[] weights = {0.2126, 0.1, -1.0 / 3, 30000.3};
+    int[] values = {65536, 1 << 20, 123456789, -123456789, Integer.MAX_VALUE,
+        Integer.MIN_VALUE};
+    for (double weight : weights) {
+      long quantized = FixedPointKernel.quantize(weight);
+      for (int value : values) {
+        double bound = Math.abs((double) value) / 131072.0 + 1;
+        long actual = FixedPointKernel.roundTap(value * quantized);
+        assertTrue(Math.abs(Math.round(value * weight) - actual) <= bound);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyTaps() {
+    new FixedPointKernel(new double[1][FixedPointKernel.MAX_TAPS + 1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWeightTooLarge() {
+    FixedPointKernel.quantize(40000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNanWeight() {
+    FixedPointKernel.quantize(Double.NaN);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testJaggedKernel() {
+    new FixedPointKernel(new double[][]{{1, 1, 1}, {1}, {1, 1, 1}});
+  }
+}
@@ -2,7 +2,12 @@ package model;
 
 import org.junit.Test;
 
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 /**
@@ -82,4 +87,48 @@ public class ImageDataTest {
     ImageData imageData = new ImageData(values, 255);
     assertEquals(255, imageData.getMaxValue());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testViewAccessors() {
+    //GIVEN
+    int[][][] values = {
+            {{1, 2, 3}, {4, 5, 6}},
+            {{7, 8, 9}, {10, 11, 12}},
+            {{13, 14, 15}, {16, 17, 18}}
+    };
+    ImageData imageData = new ImageData(values, 255);
+    //THEN
+    assertEquals(3, imageData.getChannelCount());
+    assertEquals(2, imageData.getHeight());
+    assertEquals(3, imageData.getWidth());
+    assertEquals(11, imageData.getValue(1, 1, 1));
+    IntBuffer row = imageData.getRow(2, 1);
+    assertEquals(3, row.remaining());
+    assertEquals(17, row.get(1));
+    assertThrows(ReadOnlyBufferException.class, () -> row.put(0, 42));
+    int[] copy = new int[4];
+    imageData.copyRow(0, 1, copy, 1);
+    assertArrayEquals(new int[]{0, 4, 5, 6}, copy);
+  }
+
+  @Test
+  public void testGetDataIsACopy() {
+    int[][][] values = {{{1, 2}}, {{3, 4}}, {{5, 6}}};
+    ImageData imageData = new ImageData(values, 255);
+    imageData.getData()[0][0][0] = 100;
+    assertEquals(1, imageData.getValue(0, 0, 0));
+  }
+
+  @Test
+  public void testEmptyImage() {
+    ImageData imageData = new ImageData(new int[3][0][0], 255);
+    assertEquals(0, imageData.getHeight());
+    assertEquals(0, imageData.getWidth());
+    assertEquals(3, imageData.getData().length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testImageDataForDifferentChannelWidths() {
+    new ImageData(new int[][][]{{{1, 2}}, {{1}}, {{1, 2}}}, 255);
+  }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for Packed RGB Image class.
+ */
+public class PackedRgbImageTest {
+  private ImageData imageData;
+  private RgbImageModel planar;
+  private RgbImageModel packed;
+
+  @Before
+  public void setup() {
+    int[][][] values = {
+            {{151, 153, 160, 154, 154},
+                    {154, 158, 150, 153, 155},
+                    {151, 153, 156, 153, 155},
+                    {153, 155, 161, 160, 154}},
+            {{90, 92, 95, 91, 91},
+                    {93, 94, 86, 90, 91},
+                    {89, 91, 92, 86, 91},
+                    {91, 91, 97, 96, 93}},
+            {{58, 62, 66, 59, 59},
+                    {63, 65, 57, 56, 64},
+                    {63, 65, 66, 66, 64},
+                    {65, 64, 70, 69, 65}}
+    };
+    imageData = new ImageData(values, 250);
+    planar = new RgbImage();
+    planar.loadImageData(imageData);
+    packed = new PackedRgbImage();
+    packed.loadImageData(imageData);
+  }
+
+  private void assertSameImage(RgbImageModel expected, RgbImageModel actual) {
+    assertEquals(expected.getImageData(), actual.getImageData());
+  }
+
+  @Test
+  public void testLoadAndGetImageData() {
+    assertEquals(imageData, packed.getImageData());
+  }
+
+  @Test
+  public void testVisualizeComponents() {
+    for (ComponentEnum component : ComponentEnum.values()) {
+      assertSameImage(planar.visualizeComponent(component), packed.visualizeComponent(component));
+    }
+  }
+
+  @Test
+  public void testFlips() {
+    assertSameImage(planar.horizontalFlip(), packed.horizontalFlip());
+    assertSameImage(planar.verticalFlip(), packed.verticalFlip());
+  }
+
+  @Test
+  public void testBrighten() {
+    assertSameImage(planar.brighten(120), packed.brighten(120));
+    assertSameImage(planar.brighten(-100), packed.brighten(-100));
+  }
+
+  @Test
+  public void testApplyFilter() {
+    double[][] kernel = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    assertSameImage(planar.applyFilter(kernel), packed.applyFilter(kernel));
+  }
+
+  @Test
+  public void testApplyTone() {
+    double[][] buffer = {
+            {0.393, 0.769, 0.189},
+            {0.349, 0.686, 0.168},
+            {0.272, 0.534, 0.131}
+    };
+    assertSameImage(planar.applyTone(buffer), packed.applyTone(buffer));
+  }
+
+  @Test
+  public void testPackedLayout() {
+    PackedRgbImage image = new PackedRgbImage(1, 2, new int[]{0x102030, 0xFFFFFF}, 255);
+    int[][][] expected = {
+            {{0x10, 0xFF}},
+            {{0x20, 0xFF}},
+            {{0x30, 0xFF}}
+    };
+    int[][][] actual = image.getImageData().getData();
+    for (int i = 0; i < 3; i++) {
+      assertArrayEquals(expected[i], actual[i]);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSixteenBitImageNotSupported() {
+    new PackedRgbImage().loadImageData(new ImageData(new int[3][2][2], 65535));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidToneBuffer() {
+    packed.applyTone(new double[2][3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidComponent() {
+    packed.visualizeComponent(null);
+  }
+}
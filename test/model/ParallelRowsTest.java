@@ -0,0 +1,74 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Test class for ParallelRows.
+ */
+public class ParallelRowsTest {
+
+  @Test
+  public void testBandsCoverEveryRowOnce() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    AtomicIntegerArray visits = new AtomicIntegerArray(1000);
+    ParallelRows.invoke(pool, () -> {
+      ParallelRows.forEachBand(visits.length(), (startRow, endRow) -> {
+        for (int i = startRow; i < endRow; i++) {
+          visits.incrementAndGet(i);
+        }
+      });
+      return null;
+    });
+    pool.shutdown();
+    for (int i = 0; i < visits.length(); i++) {
+      assertEquals(1, visits.get(i));
+    }
+  }
+
+  @Test
+  public void testSequentialOutsidePool() {
+    int[] bands = new int[1];
+    ParallelRows.forEachBand(1000, (startRow, endRow) -> {
+      assertEquals(0, startRow);
+      assertEquals(1000, endRow);
+      bands[0]++;
+    });
+    assertEquals(1, bands[0]);
+  }
+
+  @Test
+  public void testInvokeAllRunsEveryTask() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    int[] results = new int[3];
+    ParallelRows.invoke(pool, () -> {
+      ParallelRows.invokeAll(() -> results[0] = 1, () -> results[1] = 2, () -> results[2] = 3);
+      return null;
+    });
+    pool.shutdown();
+    assertEquals(1, results[0]);
+    assertEquals(2, results[1]);
+    assertEquals(3, results[2]);
+  }
+
+  @Test
+  public void testExceptionRethrownUnchanged() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> ParallelRows.invoke(pool, () -> {
+          ParallelRows.forEachBand(1000, (startRow, endRow) -> {
+            if (endRow == 1000) {
+              throw new IllegalArgumentException("Invalid Kernel");
+            }
+          });
+          return null;
+        }));
+    pool.shutdown();
+    assertEquals("Invalid Kernel", exception.getMessage());
+  }
+}
@@ -0,0 +1,74 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for Pixel Buffer class.
+ */
+public class PixelBufferTest {
+
+  @Test
+  public void testAllocateSelectsByteBuffer() {
+    assertTrue(PixelBuffer.allocate(4, 255) instanceof BytePixelBuffer);
+    assertTrue(PixelBuffer.allocate(4, 0) instanceof BytePixelBuffer);
+  }
+
+  @Test
+  public void testAllocateSelectsShortBuffer() {
+    assertTrue(PixelBuffer.allocate(4, 256) instanceof ShortPixelBuffer);
+    assertTrue(PixelBuffer.allocate(4, 65535) instanceof ShortPixelBuffer);
+  }
+
+  @Test
+  public void testAllocateSelectsIntBuffer() {
+    assertTrue(PixelBuffer.allocate(4, 65536) instanceof IntPixelBuffer);
+    assertTrue(PixelBuffer.allocate(4, -1) instanceof IntPixelBuffer);
+  }
+
+  @Test
+  public void testByteBufferRoundTrip() {
+    int[] values = {0, 1, 128, 255};
+    PixelBuffer buffer = PixelBuffer.of(values.clone(), 255);
+    assertTrue(buffer instanceof BytePixelBuffer);
+    assertArrayEquals(values, buffer.toIntArray());
+    assertEquals(255, buffer.get(3));
+    assertEquals(128, buffer.get(2));
+  }
+
+  @Test
+  public void testShortBufferRoundTrip() {
+    int[] values = {0, 255, 32768, 65535};
+    PixelBuffer buffer = PixelBuffer.of(values.clone(), 65535);
+    assertTrue(buffer instanceof ShortPixelBuffer);
+    assertArrayEquals(values, buffer.toIntArray());
+    assertEquals(65535, buffer.get(3));
+  }
+
+  @Test
+  public void testOutOfRangeValuesKeptAsInt() {
+    int[] values = {0, 300, 20};
+    PixelBuffer buffer = PixelBuffer.of(values, 255);
+    assertTrue(buffer instanceof IntPixelBuffer);
+    assertArrayEquals(new int[]{0, 300, 20}, buffer.toIntArray());
+
+    buffer = PixelBuffer.of(new int[]{-1, 2}, 255);
+    assertTrue(buffer instanceof IntPixelBuffer);
+  }
+
+  @Test
+  public void testCopyAndReadRange() {
+    PixelBuffer buffer = PixelBuffer.of(new int[]{1, 2, 3, 4, 5, 6}, 255);
+    PixelBuffer copy = buffer.newBuffer(6);
+    buffer.copy(3, copy, 0, 3);
+    buffer.copy(0, copy, 3, 3);
+    assertArrayEquals(new int[]{4, 5, 6, 1, 2, 3}, copy.toIntArray());
+
+    int[] row = new int[4];
+    copy.read(1, row, 1, 3);
+    assertArrayEquals(new int[]{0, 5, 6, 1}, row);
+  }
+}
@@ -3,10 +3,12 @@ package model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -494,6 +496,47 @@ public class RgbImageProcessorTest {
     assertEquals(exp, res);
   }
 
+  @Test
+  public void testSeparableBlur() {
+    //GIVEN
+    rgbImageProcess.addImage(imageName1, imageData2);
+    //WHEN
+    rgbImageProcess.separableBlur(imageName1, imageName2);
+    rgbImageProcess.blur(imageName1, "blurred");
+    //THEN
+    int[][][] expected = new int[][][]{
+            {{1, 2, 2}, {4, 5, 5}, {4, 5, 4}},
+            {{7, 10, 7}, {10, 15, 12}, {9, 12, 10}},
+            {{12, 16, 12}, {17, 24, 18}, {13, 19, 14}}
+    };
+    assertEquals(new ImageData(expected, 200), rgbImageProcess.getImageData("blurred"));
+    int[][][] values = imageData2.getData();
+    int[][][] separable = rgbImageProcess.getImageData(imageName2).getData();
+    for (int c = 0; c < 3; c++) {
+      for (int y = 0; y < 3; y++) {
+        for (int x = 0; x < 3; x++) {
+          double sum = 0;
+          for (int ky = -1; ky <= 1; ky++) {
+            for (int kx = -1; kx <= 1; kx++) {
+              if (y + ky >= 0 && y + ky < 3 && x + kx >= 0 && x + kx < 3) {
+                sum += values[c][y + ky][x + kx]
+                        * RgbImageProcessor.BLUR_KERNEL[ky + 1][kx + 1];
+              }
+            }
+          }
+          assertEquals(Math.round(sum), separable[c][y][x]);
+          assertTrue(Math.abs(separable[c][y][x] - expected[c][y][x]) <= 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSeparableBlurInvalidImage() {
+    assertThrows(IllegalArgumentException.class,
+        () -> rgbImageProcess.separableBlur("missing", "destImageName"));
+  }
+
   @Test
   public void testSharpen() {
     rgbImageProcess.addImage(imageName1, imageData2);
@@ -508,6 +551,50 @@ public class RgbImageProcessorTest {
     assertEquals(exp, res);
   }
 
+  @Test
+  public void testFiltersWithBorderModes() {
+    int[][] plane = {{160, 160, 160}, {160, 160, 160}, {160, 160, 160}};
+    ImageData flat = new ImageData(new int[][][]{plane, plane, plane}, 255);
+    for (ImageLayoutEnum layout : ImageLayoutEnum.values()) {
+      RgbImageProcessor processor = new RgbImageProcessor(layout);
+      try {
+        processor.addImage(imageName1, flat);
+        for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+          processor.blur(imageName1, "blur", borderMode);
+          processor.sharpen(imageName1, "sharpen", borderMode);
+          // the kernels sum to one, so a flat image only changes where the border is zero
+          boolean flatResult = borderMode != BorderModeEnum.ZERO;
+          assertEquals(flatResult, flat.equals(processor.getImageData("blur")));
+          assertEquals(flatResult, flat.equals(processor.getImageData("sharpen")));
+        }
+      } finally {
+        processor.close();
+      }
+    }
+  }
+
+  @Test
+  public void testZeroBorderModeMatchesDefaultFilters() {
+    rgbImageProcess.addImage(imageName1, imageData2);
+    rgbImageProcess.blur(imageName1, "blur");
+    rgbImageProcess.blur(imageName1, "zero-blur", BorderModeEnum.ZERO);
+    rgbImageProcess.sharpen(imageName1, "sharpen");
+    rgbImageProcess.sharpen(imageName1, "zero-sharpen", BorderModeEnum.ZERO);
+    assertEquals(rgbImageProcess.getImageData("blur"),
+            rgbImageProcess.getImageData("zero-blur"));
+    assertEquals(rgbImageProcess.getImageData("sharpen"),
+            rgbImageProcess.getImageData("zero-sharpen"));
+  }
+
+  @Test
+  public void testFiltersWithNullBorderMode() {
+    rgbImageProcess.addImage(imageName1, imageData2);
+    assertThrows(IllegalArgumentException.class,
+        () -> rgbImageProcess.blur(imageName1, imageName2, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> rgbImageProcess.sharpen(imageName1, imageName2, null));
+  }
+
   @Test
   public void testSepia() {
     rgbImageProcess.addImage(imageName1, imageData2);
@@ -522,4 +609,162 @@ public class RgbImageProcessorTest {
     assertEquals(exp, res);
   }
 
-}
\ No newline at end of file
+
+  @Test
+  public void testInterleavedLayoutMatchesPlanar() {
+    ImageProcessorModel interleaved = new RgbImageProcessor(ImageLayoutEnum.INTERLEAVED);
+    int[][][] initV = new int[][][]{
+            {{16, 32, 48}, {64, 80, 96}, {112, 128, 144}},
+            {{32, 64, 96}, {128, 160, 192}, {224, 256, 288}},
+            {{48, 96, 144}, {192, 240, 288}, {336, 384, 432}}
+    };
+    ImageProcessorModel[] processors = {rgbImageProcess, interleaved};
+    for (ImageProcessorModel processor : processors) {
+      processor.addImage(imageName1, imageData2);
+      processor.addImage("wide", new ImageData(initV, 255));
+      processor.sepia(imageName1, "sepia");
+      processor.blur(imageName1, "blur");
+      processor.sharpen("wide", "sharpen");
+      processor.brighten(imageName1, "bright", 30);
+      processor.visualizeComponent(imageName1, "luma", "luma-component");
+      processor.horizontalFlip(imageName1, "flip");
+    }
+    String[] names = {"sepia", "blur", "sharpen", "bright", "luma", "flip"};
+    for (String name : names) {
+      assertEquals(rgbImageProcess.getImageData(name), interleaved.getImageData(name));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullLayout() {
+    new RgbImageProcessor(null);
+  }
+
+  @Test
+  public void testParallelMatchesSequential() {
+    int[][][] values = new int[3][96][80];
+    java.util.Random random = new java.util.Random(7);
+    for (int[][] channel : values) {
+      for (int[] row : channel) {
+        for (int x = 0; x < row.length; x++) {
+          row[x] = random.nextInt(256);
+        }
+      }
+    }
+    RgbImageProcessor parallel = new RgbImageProcessor(ImageLayoutEnum.INTERLEAVED);
+    parallel.setParallelism(4);
+    RgbImageProcessor planarParallel = new RgbImageProcessor();
+    planarParallel.setParallelism(4);
+    RgbImageProcessor tiled = new RgbImageProcessor(ImageLayoutEnum.TILED);
+    ImageProcessorModel[] processors = {rgbImageProcess, parallel, planarParallel, tiled};
+    for (ImageProcessorModel processor : processors) {
+      processor.addImage(imageName1, new ImageData(values, 255));
+      processor.sepia(imageName1, "sepia");
+      processor.blur(imageName1, "blur");
+      processor.sharpen(imageName1, "sharpen");
+      processor.brighten(imageName1, "bright", 30);
+      processor.visualizeComponent(imageName1, "value", "value-component");
+      processor.verticalFlip(imageName1, "flip");
+    }
+    String[] names = {"sepia", "blur", "sharpen", "bright", "value", "flip"};
+    for (String name : names) {
+      assertEquals(rgbImageProcess.getImageData(name), parallel.getImageData(name));
+      assertEquals(rgbImageProcess.getImageData(name), planarParallel.getImageData(name));
+      assertEquals(rgbImageProcess.getImageData(name), tiled.getImageData(name));
+    }
+  }
+
+  @Test
+  public void testTiledLoadAndSaveStreamRows() throws IOException {
+    //GIVEN
+    RgbImageProcessor tiled = new RgbImageProcessor(ImageLayoutEnum.TILED);
+    TiledRgbImageTest.RowsOnlyTarget target = new TiledRgbImageTest.RowsOnlyTarget();
+    rgbImageProcess.addImage(imageName1, imageData2);
+    rgbImageProcess.blur(imageName1, imageName2);
+    //WHEN
+    tiled.loadImage(imageName1, new TiledRgbImageTest.RowsOnlySource(imageData2));
+    tiled.blur(imageName1, imageName2);
+    tiled.saveImage(imageName2, target);
+    //THEN
+    assertEquals(rgbImageProcess.getImageData(imageName2), target.getImage());
+  }
+
+  @Test
+  public void testPlanarLoadAndSaveWholeImages() throws IOException {
+    //GIVEN
+    ImageData[] saved = new ImageData[1];
+    ImageSource source = new ImageSource() {
+      @Override
+      public ImageData readImage() {
+        return imageData2;
+      }
+
+      @Override
+      public ImageRowSource openRows() {
+        throw new AssertionError("Rows should not be read");
+      }
+    };
+    ImageTarget target = new ImageTarget() {
+      @Override
+      public void writeImage(ImageData imageData) {
+        saved[0] = imageData;
+      }
+
+      @Override
+      public ImageRowSink openRows(int width, int height, int maxValue) {
+        throw new AssertionError("Rows should not be written");
+      }
+    };
+    //WHEN
+    rgbImageProcess.loadImage(imageName1, source);
+    rgbImageProcess.saveImage(imageName1, target);
+    //THEN
+    assertEquals(imageData2, saved[0]);
+  }
+
+  @Test
+  public void testTiledImageReplacedByItsResult() {
+    //GIVEN
+    RgbImageProcessor tiled = new RgbImageProcessor(ImageLayoutEnum.TILED);
+    rgbImageProcess.addImage(imageName1, imageData2);
+    rgbImageProcess.blur(imageName1, imageName1);
+    rgbImageProcess.sharpen(imageName1, imageName1);
+    tiled.addImage(imageName1, imageData2);
+    tiled.verticalFlip(imageName1, imageName2);
+    //WHEN
+    tiled.blur(imageName1, imageName1);
+    tiled.sharpen(imageName1, imageName1);
+    //THEN
+    assertEquals(rgbImageProcess.getImageData(imageName1), tiled.getImageData(imageName1));
+    assertEquals(imageData2.getHeight(), tiled.getImageData(imageName2).getHeight());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCloseRemovesImages() {
+    RgbImageProcessor tiled = new RgbImageProcessor(ImageLayoutEnum.TILED);
+    tiled.addImage(imageName1, imageData2);
+    tiled.close();
+    tiled.getImageData(imageName1);
+  }
+
+  @Test
+  public void testCloseShutsDownThreads() {
+    //GIVEN
+    RgbImageProcessor parallel = new RgbImageProcessor();
+    parallel.setParallelism(4);
+    parallel.setParallelism(2);
+    rgbImageProcess.addImage(imageName1, imageData2);
+    rgbImageProcess.blur(imageName1, imageName2);
+    //WHEN
+    parallel.close();
+    parallel.addImage(imageName1, imageData2);
+    parallel.blur(imageName1, imageName2);
+    //THEN
+    assertEquals(rgbImageProcess.getImageData(imageName2), parallel.getImageData(imageName2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    new RgbImageProcessor().setParallelism(0);
+  }
+}
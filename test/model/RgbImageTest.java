@@ -96,6 +96,39 @@ public class RgbImageTest {
       return new Channel(convChannel);
     }
 
+    @Override
+    public ChannelModel applyConvolution(double[][] kernel, int maxPixelValues,
+                                         BorderModeEnum borderMode) {
+      log.append("Border Mode : ").append(borderMode).append(" ");
+      return applyConvolution(kernel, maxPixelValues);
+    }
+
+    @Override
+    public ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                                  int maxPixelValues,
+                                                  BorderModeEnum borderMode) {
+      log.append("Border Mode : ").append(borderMode).append(" ");
+      return applySeparableConvolution(columnKernel, rowKernel, maxPixelValues);
+    }
+
+    @Override
+    public ChannelModel applySeparableConvolution(double[] columnKernel, double[] rowKernel,
+                                                  int maxPixelValues) {
+      log.append("Separable Kernel : ")
+              .append(columnKernel.length)
+              .append("x")
+              .append(rowKernel.length)
+              .append(" Max Pixel Size : ")
+              .append(maxPixelValues);
+      int[][] convChannel = {
+              {11, 12, 13},
+              {14, 15, 16},
+              {17, 18, 19},
+              {20, 21, 22}
+      };
+      return new Channel(convChannel);
+    }
+
     @Override
     public int getHeight() {
       return dummyChannel.length;
@@ -238,6 +271,50 @@ public class RgbImageTest {
     assertUtility(filteredImage);
   }
 
+  @Test
+  public void testApplySeparableFilter() {
+    //GIVEN
+    StringBuilder log = new StringBuilder();
+    RgbImageModel rbgImage = new RgbImage(
+            new MockChannel(log),
+            new MockChannel(new StringBuilder()),
+            new MockChannel(new StringBuilder()),
+            255
+    );
+
+    //WHEN
+    RgbImageModel filteredImage = rbgImage.applySeparableFilter(new double[]{0.25, 0.5, 0.25},
+            new double[]{0.2, 0.2, 0.2, 0.2, 0.2});
+
+    //THEN
+    assertEquals("Separable Kernel : 3x5 Max Pixel Size : 255", log.toString());
+    assertUtility(filteredImage);
+  }
+
+  @Test
+  public void testApplyFilterWithBorderMode() {
+    //GIVEN
+    StringBuilder log = new StringBuilder();
+    RgbImageModel rbgImage = new RgbImage(
+            new MockChannel(log),
+            new MockChannel(new StringBuilder()),
+            new MockChannel(new StringBuilder()),
+            255
+    );
+
+    //WHEN
+    RgbImageModel filteredImage = rbgImage.applyFilter(new double[][]{{1}},
+            BorderModeEnum.MIRROR);
+    RgbImageModel separableImage = rbgImage.applySeparableFilter(new double[]{1},
+            new double[]{1}, BorderModeEnum.WRAP);
+
+    //THEN
+    assertEquals("Border Mode : MIRROR Kernel : { { 1.0 } } \nMax Pixel Size : 255"
+            + "Border Mode : WRAP Separable Kernel : 1x1 Max Pixel Size : 255", log.toString());
+    assertUtility(filteredImage);
+    assertUtility(separableImage);
+  }
+
   @Test
   public void testApplyTone() {
     //GIVEN
@@ -0,0 +1,147 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test class for RowConvolution, which must give the same image as the filters of the
+ * model while holding only a window of rows.
+ */
+public class RowConvolutionTest {
+
+  private static ImageData randomImage(int height, int width, int maxValue) {
+    Random random = new Random(31L * height + width);
+    int[][][] values = new int[3][height][width];
+    for (int[][] channel : values) {
+      for (int[] row : channel) {
+        for (int x = 0; x < row.length; x++) {
+          row[x] = random.nextInt(maxValue + 1);
+        }
+      }
+    }
+    return new ImageData(values, maxValue);
+  }
+
+  private static ImageData applyByRow(ImageData image, RowStage stage) {
+    int[][][] values = new int[3][image.getHeight()][];
+    int[][] rows = new int[3][image.getWidth()];
+    int outputRow = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int c = 0; c < 3; c++) {
+        image.copyRow(c, y, rows[c], 0);
+      }
+      int[][] output = stage.push(rows, image.getMaxValue());
+      if (output != null) {
+        copyRow(output, values, outputRow++);
+      }
+    }
+    int[][] output;
+    while ((output = stage.flush(image.getMaxValue())) != null) {
+      copyRow(output, values, outputRow++);
+    }
+    assertEquals(image.getHeight(), outputRow);
+    return new ImageData(values, image.getMaxValue());
+  }
+
+  private static void copyRow(int[][] output, int[][][] values, int y) {
+    for (int c = 0; c < 3; c++) {
+      values[c][y] = output[c].clone();
+    }
+  }
+
+  private static void assertSameAsModel(Supplier<RowStage> stage,
+                                        Consumer<ImageProcessorModel> modelOperation) {
+    int[][] sizes = {{1, 1}, {1, 9}, {2, 3}, {4, 1}, {5, 5}, {17, 23}, {40, 7}};
+    for (int[] size : sizes) {
+      for (int maxValue : new int[]{255, 1000}) {
+        //GIVEN
+        ImageData image = randomImage(size[0], size[1], maxValue);
+        ImageProcessorModel model = new RgbImageProcessor();
+        model.addImage("image", image);
+        //WHEN
+        modelOperation.accept(model);
+        ImageData streamed = applyByRow(image, stage.get());
+        //THEN
+        assertEquals(model.getImageData("result"), streamed);
+      }
+    }
+  }
+
+  @Test
+  public void testBlur() {
+    assertSameAsModel(RowConvolution::blur, model -> model.blur("image", "result"));
+  }
+
+  @Test
+  public void testSharpen() {
+    assertSameAsModel(RowConvolution::sharpen, model -> model.sharpen("image", "result"));
+  }
+
+  @Test
+  public void testChainWithRowOperations() {
+    assertSameAsModel(() -> RowOperations.brighten(-20).andThen(RowConvolution.sharpen())
+            .andThen(RowConvolution.blur()).andThen(RowOperations.horizontalFlip()), model -> {
+              model.brighten("image", "dark", -20);
+              model.sharpen("dark", "sharp");
+              model.blur("sharp", "blurred");
+              model.horizontalFlip("blurred", "result");
+            });
+  }
+
+  @Test
+  public void testLargeValuesSameAsModel() {
+    //GIVEN
+    int max = Integer.MAX_VALUE - 1;
+    ImageData image = randomImage(9, 11, max);
+    double[][] kernel = {
+            {1, 1, 1},
+            {1, 30000, 1},
+            {-1, -1, -1}
+    };
+    //WHEN
+    int[][][] expected = new int[3][][];
+    for (int c = 0; c < 3; c++) {
+      expected[c] = new Channel(image, c).applyConvolution(kernel, max).getChannelValues();
+    }
+    ImageData streamed = applyByRow(image, new RowConvolution(kernel));
+    //THEN
+    assertEquals(new ImageData(expected, max), streamed);
+  }
+
+  @Test
+  public void testOutputDelayedByKernelRadius() {
+    //GIVEN
+    RowStage sharpen = RowConvolution.sharpen();
+    int[][] rows = new int[3][4];
+    //WHEN
+    int[][] first = sharpen.push(rows, 255);
+    int[][] second = sharpen.push(rows, 255);
+    //THEN
+    assertNull(first);
+    assertNull(second);
+    assertEquals(4, sharpen.push(rows, 255)[0].length);
+  }
+
+  @Test
+  public void testFlushEmptyImage() {
+    assertNull(RowConvolution.blur().flush(255));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEvenKernel() {
+    new RowConvolution(new double[][]{{1, 1}, {1, 1}});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRowsOfDifferentWidths() {
+    RowStage blur = RowConvolution.blur();
+    blur.push(new int[3][4], 255);
+    blur.push(new int[3][5], 255);
+  }
+}
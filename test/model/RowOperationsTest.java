@@ -0,0 +1,103 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for the row operations, which must give the same image as the operations of
+ * the model.
+ */
+public class RowOperationsTest {
+
+  private static ImageData randomImage(int maxValue) {
+    Random random = new Random(maxValue);
+    int[][][] values = new int[3][7][11];
+    for (int[][] channel : values) {
+      for (int[] row : channel) {
+        for (int x = 0; x < row.length; x++) {
+          row[x] = random.nextInt(maxValue + 1);
+        }
+      }
+    }
+    return new ImageData(values, maxValue);
+  }
+
+  private static ImageData applyByRow(ImageData image, RowOperation operation) {
+    int[][][] values = new int[3][image.getHeight()][image.getWidth()];
+    int[][] rows = new int[3][image.getWidth()];
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int c = 0; c < 3; c++) {
+        image.copyRow(c, y, rows[c], 0);
+      }
+      operation.apply(rows, image.getMaxValue());
+      for (int c = 0; c < 3; c++) {
+        System.arraycopy(rows[c], 0, values[c][y], 0, rows[c].length);
+      }
+    }
+    return new ImageData(values, image.getMaxValue());
+  }
+
+  private static void assertSameAsModel(RowOperation operation,
+                                        Consumer<ImageProcessorModel> modelOperation) {
+    for (int maxValue : new int[]{255, 1000}) {
+      //GIVEN
+      ImageData image = randomImage(maxValue);
+      ImageProcessorModel model = new RgbImageProcessor();
+      model.addImage("image", image);
+      //WHEN
+      modelOperation.accept(model);
+      ImageData streamed = applyByRow(image, operation);
+      //THEN
+      assertEquals(model.getImageData("result"), streamed);
+    }
+  }
+
+  @Test
+  public void testBrighten() {
+    for (int increment : new int[]{-300, -10, 0, 25, 2000}) {
+      assertSameAsModel(RowOperations.brighten(increment),
+          model -> model.brighten("image", "result", increment));
+    }
+  }
+
+  @Test
+  public void testHorizontalFlip() {
+    assertSameAsModel(RowOperations.horizontalFlip(),
+        model -> model.horizontalFlip("image", "result"));
+  }
+
+  @Test
+  public void testSepia() {
+    assertSameAsModel(RowOperations.sepia(), model -> model.sepia("image", "result"));
+  }
+
+  @Test
+  public void testVisualizeComponent() {
+    String[] components = {"red-component", "green-component", "blue-component",
+        "value-component", "luma-component", "intensity-component"};
+    for (String component : components) {
+      assertSameAsModel(RowOperations.visualizeComponent(component),
+          model -> model.visualizeComponent("image", "result", component));
+    }
+  }
+
+  @Test
+  public void testChain() {
+    RowOperation chain = RowOperations.brighten(40).andThen(RowOperations.horizontalFlip())
+            .andThen(RowOperations.sepia());
+    assertSameAsModel(chain, model -> {
+      model.brighten("image", "bright", 40);
+      model.horizontalFlip("bright", "flipped");
+      model.sepia("flipped", "result");
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidComponent() {
+    RowOperations.visualizeComponent("alpha-component");
+  }
+}
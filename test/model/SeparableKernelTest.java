@@ -0,0 +1,71 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test class for Separable Kernel class.
+ */
+public class SeparableKernelTest {
+
+  @Test
+  public void testBlurKernelIsSeparable() {
+    double[][] blurKernel = {
+            {1.0 / 16, 1.0 / 8, 1.0 / 16},
+            {1.0 / 8, 1.0 / 4, 1.0 / 8},
+            {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    SeparableKernel kernel = SeparableKernel.fromKernel(blurKernel);
+    assertNotNull(kernel);
+    double[] column = kernel.getColumnKernel();
+    double[] row = kernel.getRowKernel();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertArrayEquals(new double[]{blurKernel[i][j]}, new double[]{column[i] * row[j]}, 1e-12);
+      }
+    }
+  }
+
+  @Test
+  public void testRectangularKernelIsSeparable() {
+    double[][] kernel = {
+            {1, 2, 3, 2, 1},
+            {-2, -4, -6, -4, -2},
+            {1, 2, 3, 2, 1}
+    };
+    SeparableKernel separableKernel = SeparableKernel.fromKernel(kernel);
+    assertNotNull(separableKernel);
+    assertArrayEquals(new double[]{-0.5, 1, -0.5}, separableKernel.getColumnKernel(), 1e-12);
+    assertArrayEquals(new double[]{-2, -4, -6, -4, -2}, separableKernel.getRowKernel(), 1e-12);
+  }
+
+  @Test
+  public void testSharpenKernelIsNotSeparable() {
+    double[][] sharpenKernel = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    assertNull(SeparableKernel.fromKernel(sharpenKernel));
+  }
+
+  @Test
+  public void testZeroKernelIsNotSeparable() {
+    assertNull(SeparableKernel.fromKernel(new double[3][3]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEvenKernel() {
+    SeparableKernel.fromKernel(new double[2][3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEvenOneDimensionalKernel() {
+    new SeparableKernel(new double[]{1, 1}, new double[]{1});
+  }
+}
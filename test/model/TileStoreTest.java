@@ -0,0 +1,172 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for TileStore.
+ */
+public class TileStoreTest {
+
+  private static int[][] tileOf(int value, int tileSize) {
+    int[][] tile = new int[3][tileSize * tileSize];
+    for (int c = 0; c < 3; c++) {
+      for (int i = 0; i < tile[c].length; i++) {
+        tile[c][i] = value + c;
+      }
+    }
+    return tile;
+  }
+
+  @Test
+  public void testEvictedTilesAreReadBack() {
+    // a single cached tile forces every other tile out to the file
+    TileStore store = new TileStore(6, 6, 2, 2, 1);
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        store.writeTile(row, column, tileOf(1000 + row * 10 + column, 2));
+      }
+    }
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        int[][] region = store.readRegion(row * 2, column * 2, 2, 2, BorderModeEnum.ZERO);
+        int expected = 1000 + row * 10 + column;
+        assertArrayEquals(new int[]{expected, expected, expected, expected}, region[0]);
+        assertArrayEquals(new int[]{expected + 2, expected + 2, expected + 2, expected + 2},
+                region[2]);
+      }
+    }
+  }
+
+  @Test
+  public void testUnwrittenTilesReadAsZero() {
+    TileStore store = new TileStore(4, 4, 2, 1, 1);
+    store.writeTile(0, 0, tileOf(7, 2));
+    assertArrayEquals(new int[4], store.readRegion(2, 2, 2, 2, BorderModeEnum.ZERO)[1]);
+  }
+
+  @Test
+  public void testRegionBorderModes() {
+    TileStore store = new TileStore(1, 3, 2, 1);
+    store.writeTile(0, 0, new int[][]{{1, 2, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}});
+    store.writeTile(0, 1, new int[][]{{3, 0, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}});
+    assertArrayEquals(new int[]{0, 1, 2, 3, 0},
+            store.readRegion(0, -1, 1, 5, BorderModeEnum.ZERO)[0]);
+    assertArrayEquals(new int[]{1, 1, 2, 3, 3},
+            store.readRegion(0, -1, 1, 5, BorderModeEnum.CLAMP)[0]);
+    assertArrayEquals(new int[]{2, 1, 2, 3, 2},
+            store.readRegion(0, -1, 1, 5, BorderModeEnum.MIRROR)[0]);
+    assertArrayEquals(new int[]{3, 1, 2, 3, 1},
+            store.readRegion(0, -1, 1, 5, BorderModeEnum.WRAP)[0]);
+  }
+
+  @Test
+  public void testSampleBytes() {
+    assertEquals(1, TileStore.sampleBytesFor(0, 255));
+    assertEquals(2, TileStore.sampleBytesFor(0, 256));
+    assertEquals(4, TileStore.sampleBytesFor(0, 65536));
+    assertEquals(4, TileStore.sampleBytesFor(-1, 10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTilePosition() {
+    new TileStore(4, 4, 2, 1).writeTile(2, 0, tileOf(0, 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTileSize() {
+    new TileStore(4, 4, 2, 1).writeTile(0, 0, tileOf(0, 3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSampleBytes() {
+    new TileStore(4, 4, 2, 3);
+  }
+
+  @Test
+  public void testCloseTwice() {
+    //GIVEN
+    TileStore store = new TileStore(6, 6, 2, 2, 1);
+    for (int row = 0; row < 3; row++) {
+      store.writeTile(row, 0, tileOf(row, 2));
+    }
+    //WHEN
+    store.close();
+    store.close();
+    //THEN no exception is thrown
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReadAfterClose() {
+    TileStore store = new TileStore(4, 4, 2, 1, 1);
+    store.writeTile(0, 0, tileOf(7, 2));
+    store.close();
+    store.readRegion(0, 0, 2, 2, BorderModeEnum.ZERO);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWriteAfterClose() {
+    TileStore store = new TileStore(4, 4, 2, 1);
+    store.close();
+    store.writeTile(0, 0, tileOf(7, 2));
+  }
+
+  @Test
+  public void testBandWiderThanCacheReadsEachTileOnce() {
+    //GIVEN
+    // eight tile columns and a cache of two tiles
+    TileStore store = new TileStore(4, 16, 2, 2, 2);
+    for (int row = 0; row < 2; row++) {
+      for (int column = 0; column < 8; column++) {
+        store.writeTile(row, column, tileOf(100 * row + column, 2));
+      }
+    }
+    long readsBefore = store.getTileReads();
+    //WHEN
+    int[][] band = store.readRegion(0, 0, 2, 16, BorderModeEnum.ZERO);
+    //THEN
+    assertEquals(8, store.getTileReads() - readsBefore);
+    for (int y = 0; y < 2; y++) {
+      for (int x = 0; x < 16; x++) {
+        assertEquals(x / 2, band[0][y * 16 + x]);
+        assertEquals(x / 2 + 1, band[1][y * 16 + x]);
+      }
+    }
+  }
+
+  @Test
+  public void testRegionAcrossTilesWithBorders() {
+    //GIVEN
+    TileStore store = new TileStore(5, 5, 2, 2, 1);
+    int[][] values = new int[5][5];
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        int[][] tile = new int[3][4];
+        for (int i = 0; i < 4; i++) {
+          int y = row * 2 + i / 2;
+          int x = column * 2 + i % 2;
+          if (y < 5 && x < 5) {
+            values[y][x] = y * 10 + x;
+            tile[2][i] = y * 10 + x;
+          }
+        }
+        store.writeTile(row, column, tile);
+      }
+    }
+    for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+      //WHEN
+      int[][] region = store.readRegion(-2, -3, 9, 11, borderMode);
+      //THEN
+      for (int y = 0; y < 9; y++) {
+        for (int x = 0; x < 11; x++) {
+          int sourceRow = borderMode.sourceIndex(y - 2, 5);
+          int sourceColumn = borderMode.sourceIndex(x - 3, 5);
+          int expected = sourceRow < 0 || sourceColumn < 0 ? 0 : values[sourceRow][sourceColumn];
+          assertEquals(borderMode.toString(), expected, region[2][y * 11 + x]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for Tiled RGB Image class.
+ */
+public class TiledRgbImageTest {
+  private ImageData imageData;
+  private RgbImageModel planar;
+  private RgbImageModel tiled;
+
+  @Before
+  public void setup() {
+    int[][][] values = new int[3][13][11];
+    Random random = new Random(42);
+    for (int[][] channel : values) {
+      for (int[] row : channel) {
+        for (int x = 0; x < row.length; x++) {
+          row[x] = random.nextInt(256);
+        }
+      }
+    }
+    imageData = new ImageData(values, 255);
+    planar = new RgbImage();
+    planar.loadImageData(imageData);
+    tiled = new TiledRgbImage(4);
+    tiled.loadImageData(imageData);
+  }
+
+  /**
+   * A source that gives the rows of an image and refuses to give it whole.
+   */
+  static final class RowsOnlySource implements ImageSource, ImageRowSource {
+    private final ImageData image;
+    private int y;
+
+    RowsOnlySource(ImageData image) {
+      this.image = image;
+    }
+
+    @Override
+    public ImageData readImage() {
+      throw new AssertionError("The whole image should not be read");
+    }
+
+    @Override
+    public ImageRowSource openRows() {
+      return this;
+    }
+
+    @Override
+    public int getWidth() {
+      return image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return image.getHeight();
+    }
+
+    @Override
+    public int getMaxValue() {
+      return image.getMaxValue();
+    }
+
+    @Override
+    public void readRow(int[][] rows) {
+      for (int c = 0; c < 3; c++) {
+        image.copyRow(c, y, rows[c], 0);
+      }
+      y++;
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+
+  /**
+   * A target that collects the rows of an image and refuses to take it whole.
+   */
+  static final class RowsOnlyTarget implements ImageTarget {
+    private int[][][] values;
+    private int maxValue;
+    private int rowsWritten;
+    private boolean closed;
+
+    @Override
+    public void writeImage(ImageData imageData) {
+      throw new AssertionError("The whole image should not be written");
+    }
+
+    @Override
+    public ImageRowSink openRows(int width, int height, int maxValue) {
+      this.values = new int[3][height][];
+      this.maxValue = maxValue;
+      return new ImageRowSink() {
+        @Override
+        public void writeRow(int[][] rows) {
+          for (int c = 0; c < 3; c++) {
+            values[c][rowsWritten] = rows[c].clone();
+          }
+          rowsWritten++;
+        }
+
+        @Override
+        public void close() {
+          closed = true;
+        }
+      };
+    }
+
+    ImageData getImage() {
+      assertEquals(values[0].length, rowsWritten);
+      assertEquals(true, closed);
+      return new ImageData(values, maxValue);
+    }
+  }
+
+  @Test
+  public void testLoadReplacesAndClosesTiles() {
+    //GIVEN
+    RgbImageModel brighter = tiled.brighten(10);
+    //WHEN
+    brighter.loadImageData(imageData);
+    //THEN
+    assertEquals(imageData, brighter.getImageData());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUseAfterClose() {
+    ((TiledRgbImage) tiled).close();
+    tiled.getImageData();
+  }
+
+  private void assertSameImage(RgbImageModel expected, RgbImageModel actual) {
+    assertEquals(expected.getImageData(), actual.getImageData());
+  }
+
+  @Test
+  public void testLoadAndGetImageData() {
+    assertEquals(imageData, tiled.getImageData());
+  }
+
+  @Test
+  public void testVisualizeComponents() {
+    for (ComponentEnum component : ComponentEnum.values()) {
+      assertSameImage(planar.visualizeComponent(component), tiled.visualizeComponent(component));
+    }
+  }
+
+  @Test
+  public void testFlips() {
+    assertSameImage(planar.horizontalFlip(), tiled.horizontalFlip());
+    assertSameImage(planar.verticalFlip(), tiled.verticalFlip());
+    assertSameImage(planar.horizontalFlip().verticalFlip(),
+            tiled.horizontalFlip().verticalFlip());
+  }
+
+  @Test
+  public void testBrighten() {
+    assertSameImage(planar.brighten(120), tiled.brighten(120));
+    assertSameImage(planar.brighten(-100), tiled.brighten(-100));
+  }
+
+  @Test
+  public void testApplyTone() {
+    double[][] buffer = {
+            {0.393, 0.769, 0.189},
+            {0.349, 0.686, 0.168},
+            {0.272, 0.534, 0.131}
+    };
+    assertSameImage(planar.applyTone(buffer), tiled.applyTone(buffer));
+  }
+
+  @Test
+  public void testApplyFilterAcrossTileEdges() {
+    double[][] sharpen = {
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+            {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    assertSameImage(planar.applyFilter(sharpen), tiled.applyFilter(sharpen));
+    for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+      assertSameImage(planar.applyFilter(sharpen, borderMode),
+              tiled.applyFilter(sharpen, borderMode));
+    }
+  }
+
+  @Test
+  public void testApplySeparableFilter() {
+    double[] column = {0.25, 0.5, 0.25};
+    double[] row = {1.0 / 16, 1.0 / 4, 3.0 / 8, 1.0 / 4, 1.0 / 16};
+    for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+      assertSameImage(planar.applySeparableFilter(column, row, borderMode),
+              tiled.applySeparableFilter(column, row, borderMode));
+    }
+  }
+
+  @Test
+  public void testKernelLargerThanTile() {
+    double[][] kernel = new double[11][11];
+    kernel[0][10] = 0.5;
+    kernel[10][0] = 0.5;
+    for (BorderModeEnum borderMode : BorderModeEnum.values()) {
+      assertSameImage(planar.applyFilter(kernel, borderMode),
+              tiled.applyFilter(kernel, borderMode));
+    }
+  }
+
+  @Test
+  public void testSixteenBitValues() {
+    ImageData deep = new ImageData(new int[][][]{
+            {{65535, 0, 300}},
+            {{1, 2, 3}},
+            {{40000, 20000, 256}}
+    }, 65535);
+    RgbImageModel image = new TiledRgbImage(2);
+    image.loadImageData(deep);
+    assertEquals(deep, image.getImageData());
+    assertEquals(deep, image.horizontalFlip().horizontalFlip().getImageData());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTileSize() {
+    new TiledRgbImage(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidKernel() {
+    tiled.applyFilter(new double[2][3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBorderMode() {
+    tiled.applyFilter(new double[3][3], null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidChannelCount() {
+    tiled.loadImageData(new ImageData(new int[2][2][2], 255));
+  }
+
+  @Test
+  public void testLoadAndWriteRows() throws IOException {
+    //GIVEN
+    TiledRgbImage streamed = new TiledRgbImage(4);
+    RowsOnlyTarget target = new RowsOnlyTarget();
+    //WHEN
+    streamed.loadRows(new RowsOnlySource(imageData));
+    streamed.writeRows(target);
+    //THEN
+    assertEquals(imageData, streamed.getImageData());
+    assertEquals(imageData, target.getImage());
+    assertSameImage(planar.applyFilter(new double[][]{{0, 0.5, 0}, {0.25, 0, 0.25}, {0, 0, 0}}),
+            streamed.applyFilter(new double[][]{{0, 0.5, 0}, {0.25, 0, 0.25}, {0, 0, 0}}));
+  }
+
+  @Test
+  public void testLoadRowsOutOfRange() throws IOException {
+    //GIVEN
+    ImageData image = new ImageData(new int[][][]{{{1, 300}}, {{2, 3}}, {{4, 5}}}, 255);
+    //WHEN
+    try {
+      new TiledRgbImage(4).loadRows(new RowsOnlySource(image));
+      fail("Above line should throw an exception");
+    } catch (IllegalArgumentException e) {
+      //THEN
+      assertEquals("Pixel value out of range", e.getMessage());
+    }
+  }
+}